@@ -0,0 +1,61 @@
+package com.strangequark.authservice.benchmarktests;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.HashSet;
+
+/**
+ * Runs the JMH benchmarks for the token, encryption and password hashing primitives with the GC profiler, which
+ * adds the bytes allocated per operation ({@code gc.alloc.rate.norm}) next to the time per operation.
+ * Run with {@code ./mvnw test -Dtest=CryptoBenchmarkTest -Dbenchmark=true}, optionally narrowing the benchmarks with
+ * {@code -Dbenchmark.include=JwtBenchmark} and changing {@code -Dbenchmark.forks}. Results are written as JSON to
+ * target/jmh/results.json.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class CryptoBenchmarkTest {
+
+    private static final String ENCRYPTION_KEY = "AA1A2A8C0E4F76FB3C13F66225AAAC42";
+
+    @Test
+    void cryptoBenchmarksTest() throws Exception {
+        Path results = Path.of("target/jmh/results.json");
+        Files.createDirectories(results.getParent());
+
+        Options options = new OptionsBuilder()
+                .include(System.getProperty("benchmark.include",
+                        "(JwtBenchmark|EncryptionBenchmark|PasswordEncoderBenchmark)"))
+                .forks(Integer.getInteger("benchmark.forks", 1))
+                .warmupIterations(Integer.getInteger("benchmark.warmup-iterations", 3))
+                .measurementIterations(Integer.getInteger("benchmark.iterations", 5))
+                .jvmArgsAppend("-DENCRYPTION_KEY=" + ENCRYPTION_KEY)
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result(results.toString())
+                .build();
+
+        Collection<RunResult> runResults = new Runner(options).run();
+
+        Assertions.assertFalse(runResults.isEmpty());
+    }
+
+    /**
+     * Build a set of authorizations of the given size, shaped like the ones granted by other services
+     */
+    static HashSet<String> authorizations(int size) {
+        HashSet<String> authorizations = new HashSet<>();
+        for (int i = 0; i < size; i++)
+            authorizations.add("service" + (i % 10) + ":resource" + i + ":read");
+        return authorizations;
+    }
+}
@@ -0,0 +1,77 @@
+package com.strangequark.authservice.benchmarktests;
+
+import com.strangequark.authservice.user.Role;
+import com.strangequark.authservice.utility.EncryptionUtility;
+import com.strangequark.authservice.utility.RoleEncryptDecryptConverter;
+import com.strangequark.authservice.utility.StringEncryptDecryptConverter;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks for column encryption with {@link EncryptionUtility} and the attribute converters.
+ * Each authorization is encrypted as its own value, so the cost of a user row grows with the set size.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class EncryptionBenchmark {
+
+    @Param({"0", "10", "100"})
+    public int authorizations;
+
+    private final StringEncryptDecryptConverter stringConverter = new StringEncryptDecryptConverter();
+    private final RoleEncryptDecryptConverter roleConverter = new RoleEncryptDecryptConverter();
+    private List<String> plainAuthorizations;
+    private List<String> encryptedAuthorizations;
+    private String encryptedUsername;
+    private String encryptedEmail;
+    private String encryptedRole;
+
+    @Setup
+    public void setup() {
+        plainAuthorizations = List.copyOf(CryptoBenchmarkTest.authorizations(authorizations));
+        encryptedAuthorizations = plainAuthorizations.stream().map(EncryptionUtility::encrypt).toList();
+        encryptedUsername = EncryptionUtility.encrypt("benchUser");
+        encryptedEmail = EncryptionUtility.encrypt("bench@test.com");
+        encryptedRole = roleConverter.convertToDatabaseColumn(Role.USER);
+    }
+
+    @Benchmark
+    public void encrypt(Blackhole blackhole) {
+        for (String authorization : plainAuthorizations)
+            blackhole.consume(EncryptionUtility.encrypt(authorization));
+    }
+
+    @Benchmark
+    public void decrypt(Blackhole blackhole) {
+        for (String authorization : encryptedAuthorizations)
+            blackhole.consume(EncryptionUtility.decrypt(authorization));
+    }
+
+    /**
+     * Converting the encrypted columns of a user row for an insert
+     */
+    @Benchmark
+    public void convertToDatabaseColumns(Blackhole blackhole) {
+        blackhole.consume(stringConverter.convertToDatabaseColumn("benchUser"));
+        blackhole.consume(stringConverter.convertToDatabaseColumn("bench@test.com"));
+        blackhole.consume(roleConverter.convertToDatabaseColumn(Role.USER));
+        for (String authorization : plainAuthorizations)
+            blackhole.consume(stringConverter.convertToDatabaseColumn(authorization));
+    }
+
+    /**
+     * Converting the encrypted columns of a user row after a select
+     */
+    @Benchmark
+    public void convertToEntityAttributes(Blackhole blackhole) {
+        blackhole.consume(stringConverter.convertToEntityAttribute(encryptedUsername));
+        blackhole.consume(stringConverter.convertToEntityAttribute(encryptedEmail));
+        blackhole.consume(roleConverter.convertToEntityAttribute(encryptedRole));
+        for (String authorization : encryptedAuthorizations)
+            blackhole.consume(stringConverter.convertToEntityAttribute(authorization));
+    }
+}
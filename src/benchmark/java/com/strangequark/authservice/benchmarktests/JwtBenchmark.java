@@ -0,0 +1,72 @@
+package com.strangequark.authservice.benchmarktests;
+
+import com.strangequark.authservice.config.JwtService;
+import com.strangequark.authservice.serviceaccount.ServiceAccount;
+import com.strangequark.authservice.user.Role;
+import com.strangequark.authservice.user.User;
+import io.micrometer.observation.ObservationRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.HashSet;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmarks for signing and verifying tokens with {@link JwtService}.
+ * Access tokens carry the user's authorizations in their audience, so each benchmark runs for several set sizes.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class JwtBenchmark {
+
+    @Param({"0", "10", "100"})
+    public int authorizations;
+
+    private JwtService jwtService;
+    private User user;
+    private ServiceAccount serviceAccount;
+    private String accessToken;
+
+    @Setup
+    public void setup() {
+        jwtService = new JwtService(ObservationRegistry.NOOP);
+        ReflectionTestUtils.setField(jwtService, "ACCESS_SECRET_KEY", "BBBBFF75D80E018C0BA6D9506A0D27F71B1747C138F81177A32EBB5C482FB95B");
+        ReflectionTestUtils.setField(jwtService, "REFRESH_SECRET_KEY", "B2E0979B218D16090A9A368743D80AA8F7D028DDF9BC9B94CB51D6BD5E90706D");
+
+        user = new User("benchUser", "bench@test.com", Role.USER, true, CryptoBenchmarkTest.authorizations(authorizations), "");
+        user.setId(UUID.randomUUID());
+
+        serviceAccount = new ServiceAccount();
+        serviceAccount.setId(UUID.randomUUID());
+        serviceAccount.setClientId("bench");
+
+        accessToken = jwtService.generateToken(user, false);
+    }
+
+    @Benchmark
+    public String generateAccessToken() {
+        return jwtService.generateToken(user, false);
+    }
+
+    @Benchmark
+    public String generateRefreshToken() {
+        return jwtService.generateToken(user, true);
+    }
+
+    @Benchmark
+    public String generateServiceAccountToken() {
+        return jwtService.generateServiceAccountToken(serviceAccount, false);
+    }
+
+    @Benchmark
+    public String extractUsername() {
+        return jwtService.extractUsername(accessToken, false);
+    }
+
+    @Benchmark
+    public boolean isTokenValid() {
+        return jwtService.isTokenValid(accessToken, user, false);
+    }
+}
@@ -0,0 +1,427 @@
+package com.strangequark.authservice.benchmarktests;
+
+import com.strangequark.authservice.AuthServiceApplication;
+import com.strangequark.authservice.user.Role;
+import com.strangequark.authservice.user.User;
+import com.strangequark.authservice.user.UserRepository;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Replays a configurable mix of auth traffic against a running instance and writes throughput and latency
+ * percentiles per endpoint as JSON, so runs before and after a change can be compared.
+ * Run with {@code ./mvnw test -Dtest=AuthLoadTest -Dloadtest=true}, optionally setting:
+ * <ul>
+ *     <li>{@code -Dloadtest.clients}, {@code -Dloadtest.duration-seconds} and {@code -Dloadtest.warmup-seconds}</li>
+ *     <li>{@code -Dloadtest.users} and {@code -Dloadtest.service-accounts} to seed</li>
+ *     <li>{@code -Dloadtest.mix}, weights per operation such as {@code authenticate=10,get-user-id=40}</li>
+ *     <li>{@code -Dloadtest.datasource.url}, {@code .username} and {@code .password} to use a local Postgres instead of H2</li>
+ *     <li>{@code -Dloadtest.standin=true} to answer downstream calls with the in-process stand-ins, so their latency
+ *     and failures show up in the register and delete flows</li>
+ *     <li>{@code -Dloadtest.report} for the report file, by default under target/load-test</li>
+ * </ul>
+ */
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+public class AuthLoadTest {
+
+    static {
+        System.setProperty("ENCRYPTION_KEY", "AA1A2A8C0E4F76FB3C13F66225AAAC42");
+    }
+
+    private static final int CLIENTS = Integer.getInteger("loadtest.clients", 200);
+    private static final int DURATION_SECONDS = Integer.getInteger("loadtest.duration-seconds", 60);
+    private static final int WARMUP_SECONDS = Integer.getInteger("loadtest.warmup-seconds", 10);
+    private static final int USERS = Integer.getInteger("loadtest.users", 1000);
+    private static final int SERVICE_ACCOUNTS = Integer.getInteger("loadtest.service-accounts", 4);
+    private static final int IDS_PER_LOOKUP = Integer.getInteger("loadtest.ids-per-lookup", 25);
+    private static final String MIX = System.getProperty("loadtest.mix",
+            "register=5,authenticate=10,refresh=20,get-user-id=40,get-user-details-by-ids=20,delete=5");
+    private static final String DATASOURCE_URL = System.getProperty("loadtest.datasource.url");
+    private static final boolean STAND_IN = Boolean.getBoolean("loadtest.standin");
+    private static final String PASSWORD = "password";
+
+    /**
+     * Highest latency the histograms track, anything slower is clamped to it
+     */
+    private static final long MAX_TRACKED_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private enum Operation {
+        REGISTER("register"),
+        AUTHENTICATE("authenticate"),
+        REFRESH("refresh"),
+        GET_USER_ID("get-user-id"),
+        GET_USER_DETAILS_BY_IDS("get-user-details-by-ids"),
+        DELETE("delete");
+
+        private final String key;
+
+        Operation(String key) {
+            this.key = key;
+        }
+    }
+
+    /**
+     * Latencies and error count for one operation
+     */
+    private record Stats(Histogram histogram, AtomicLong errors) {
+        Stats() {
+            this(new ConcurrentHistogram(MAX_TRACKED_NANOS, 3), new AtomicLong());
+        }
+    }
+
+    /**
+     * A user registered during the run, waiting to be deleted
+     */
+    private record RegisteredUser(String username, String email) {
+    }
+
+    /**
+     * State shared by all clients
+     */
+    private record Run(HttpClient httpClient, String baseUrl, List<String> usernames, List<UUID> userIds,
+                       List<String> serviceAccountIds, Operation[] weightedOperations,
+                       Queue<RegisteredUser> registeredUsers, AtomicLong registrations,
+                       Map<Operation, Stats> stats, long recordFrom, long deadline) {
+    }
+
+    @Test
+    void trafficMixTest() throws Exception {
+        Operation[] weightedOperations = parseMix(MIX);
+        List<String> serviceAccountIds = new ArrayList<>();
+        List<String> args = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--logging.level.com.strangequark=WARN",
+                //Every client shares one IP and a handful of accounts, so the limits would measure only 429s
+                "--rate-limit.enabled=false",
+                //Downstream services are not running, fail fast instead of waiting on DNS or timeouts
+                "--outbound.email.base-url=http://localhost:1",
+                "--outbound.file.base-url=http://localhost:1",
+                "--outbound.vault.base-url=http://localhost:1",
+                "--user.delete.downstream-timeout-ms=500",
+                "--SERVICE_SECRET_AUTH=testClientPassword"));
+
+        //Service accounts are created by the ServiceAccountInitializer at startup
+        StringBuilder serviceAccounts = new StringBuilder("auth");
+        for (int i = 0; i < SERVICE_ACCOUNTS; i++) {
+            String clientId = "load" + i;
+            serviceAccountIds.add(clientId);
+            serviceAccounts.append(',').append(clientId);
+            args.add("--SERVICE_SECRET_" + clientId.toUpperCase() + "=" + PASSWORD);
+        }
+        args.add("--SERVICE_ACCOUNTS=" + serviceAccounts);
+
+        if (DATASOURCE_URL != null) {
+            args.add("--spring.datasource.url=" + DATASOURCE_URL);
+            args.add("--spring.datasource.driverClassName=org.postgresql.Driver");
+            args.add("--spring.datasource.username=" + System.getProperty("loadtest.datasource.username", "postgres"));
+            args.add("--spring.datasource.password=" + System.getProperty("loadtest.datasource.password", "postgres"));
+            args.add("--spring.jpa.database-platform=org.hibernate.dialect.PostgreSQLDialect");
+            args.add("--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.PostgreSQLDialect");
+            args.add("--spring.jpa.hibernate.ddl-auto=create-drop");
+        } else {
+            args.add("--spring.datasource.url=jdbc:h2:mem:loadtest;DB_CLOSE_DELAY=-1");
+        }
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(AuthServiceApplication.class)
+                .profiles(STAND_IN ? new String[] {"test", "standin"} : new String[] {"test"})
+                .run(args.toArray(String[]::new))) {
+
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            List<String> usernames = new ArrayList<>();
+            List<UUID> userIds = seedUsers(context, usernames);
+
+            Map<Operation, Stats> stats = new EnumMap<>(Operation.class);
+            for (Operation operation : Operation.values())
+                stats.put(operation, new Stats());
+
+            long start = System.nanoTime();
+            long recordFrom = start + TimeUnit.SECONDS.toNanos(WARMUP_SECONDS);
+            long deadline = recordFrom + TimeUnit.SECONDS.toNanos(DURATION_SECONDS);
+
+            //Resources close in reverse order, so the clients finish before the HttpClient they share is closed
+            try (HttpClient httpClient = HttpClient.newBuilder()
+                         .version(HttpClient.Version.HTTP_1_1)
+                         .executor(Executors.newVirtualThreadPerTaskExecutor())
+                         .build();
+                 ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+
+                Run run = new Run(httpClient, "http://localhost:" + port + "/api/auth", usernames, userIds,
+                        serviceAccountIds, weightedOperations, new ConcurrentLinkedQueue<>(), new AtomicLong(),
+                        stats, recordFrom, deadline);
+
+                for (int c = 0; c < CLIENTS; c++) {
+                    int client = c;
+                    clients.submit(() -> client(run, client));
+                }
+            }
+
+            JSONObject report = report(stats, (System.nanoTime() - recordFrom) / 1e9,
+                    context.getEnvironment().getProperty("spring.threads.virtual.enabled", Boolean.class, false));
+            Path path = Path.of(System.getProperty("loadtest.report",
+                    "target/load-test/report-" + Instant.now().toEpochMilli() + ".json"));
+            if (path.getParent() != null)
+                Files.createDirectories(path.getParent());
+            Files.writeString(path, report.toString(2), StandardCharsets.UTF_8);
+
+            System.out.println("\nLoad test: " + CLIENTS + " clients, " + DURATION_SECONDS + "s, " + USERS
+                    + " users, report written to " + path.toAbsolutePath());
+            System.out.println(report.getJSONObject("endpoints").toString(2));
+
+            Assertions.assertTrue(stats.get(Operation.AUTHENTICATE).histogram().getTotalCount() > 0);
+        }
+    }
+
+    /**
+     * Insert the users every client logs in as, sharing one BCrypt hash so seeding does not dominate the run
+     * @return IDs of the seeded users
+     */
+    private List<UUID> seedUsers(ConfigurableApplicationContext context, List<String> usernames) {
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        String passwordHash = context.getBean(PasswordEncoder.class).encode(PASSWORD);
+
+        List<User> users = new ArrayList<>(USERS);
+        for (int i = 0; i < USERS; i++) {
+            usernames.add("loadUser" + i);
+            users.add(new User("loadUser" + i, "load" + i + "@test.com", Role.USER, true, new HashSet<>(), passwordHash));
+        }
+
+        return userRepository.saveAll(users).stream().map(User::getId).toList();
+    }
+
+    /**
+     * Loop over the mix as one user until the deadline, logging in again whenever a token is rejected
+     */
+    private void client(Run run, int client) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String username = run.usernames().get(client % run.usernames().size());
+        String serviceAccountId = run.serviceAccountIds().isEmpty() ? null
+                : run.serviceAccountIds().get(client % run.serviceAccountIds().size());
+        String refreshToken = null;
+        String accessToken = null;
+        String serviceAccountToken = null;
+
+        while (System.nanoTime() < run.deadline()) {
+            try {
+                if (refreshToken == null) {
+                    refreshToken = authenticate(run, username);
+                    continue;
+                }
+                if (accessToken == null) {
+                    accessToken = refresh(run, refreshToken);
+                    if (accessToken == null)
+                        refreshToken = null;
+                    continue;
+                }
+
+                Operation operation = run.weightedOperations()[random.nextInt(run.weightedOperations().length)];
+                switch (operation) {
+                    case REGISTER -> register(run);
+                    case AUTHENTICATE -> refreshToken = authenticate(run, username);
+                    case REFRESH -> {
+                        accessToken = refresh(run, refreshToken);
+                        if (accessToken == null)
+                            refreshToken = null;
+                    }
+                    case GET_USER_ID -> {
+                        String target = run.usernames().get(random.nextInt(run.usernames().size()));
+                        if (send(run, Operation.GET_USER_ID, HttpRequest.newBuilder(
+                                        URI.create(run.baseUrl() + "/user/get-user-id?username=" + target))
+                                .header("Authorization", "Bearer " + accessToken)
+                                .GET()) == null)
+                            accessToken = null;
+                    }
+                    case GET_USER_DETAILS_BY_IDS -> {
+                        //Other services resolve user details with their service account
+                        if (serviceAccountToken == null && serviceAccountId != null)
+                            serviceAccountToken = authenticateServiceAccount(run, serviceAccountId);
+                        JSONArray ids = new JSONArray();
+                        for (int i = 0; i < IDS_PER_LOOKUP; i++)
+                            ids.put(run.userIds().get(random.nextInt(run.userIds().size())).toString());
+                        if (send(run, Operation.GET_USER_DETAILS_BY_IDS, HttpRequest.newBuilder(
+                                        URI.create(run.baseUrl() + "/user/get-user-details-by-ids"))
+                                .header("Authorization", "Bearer "
+                                        + (serviceAccountToken != null ? serviceAccountToken : accessToken))
+                                .header("Content-Type", "application/json")
+                                .POST(HttpRequest.BodyPublishers.ofString(ids.toString()))) == null)
+                            serviceAccountToken = null;
+                    }
+                    case DELETE -> delete(run);
+                }
+            } catch (Exception ex) {
+                //Counted by send, keep the client going
+            }
+        }
+    }
+
+    private void register(Run run) throws Exception {
+        long id = run.registrations().incrementAndGet();
+        String username = "loadRegistered" + id;
+        String email = "loadRegistered" + id + "@test.com";
+
+        if (send(run, Operation.REGISTER, HttpRequest.newBuilder(URI.create(run.baseUrl() + "/register"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(new JSONObject()
+                        .put("username", username).put("email", email).put("password", PASSWORD).toString()))) != null)
+            run.registeredUsers().add(new RegisteredUser(username, email));
+    }
+
+    /**
+     * Self-delete a user registered earlier in the run, registering one instead if none are waiting
+     */
+    private void delete(Run run) throws Exception {
+        RegisteredUser user = run.registeredUsers().poll();
+        if (user == null) {
+            register(run);
+            return;
+        }
+
+        //The login and refresh needed for the user's access token are recorded like any other
+        String refreshToken = authenticate(run, user.username());
+        String accessToken = refreshToken == null ? null : refresh(run, refreshToken);
+        if (accessToken == null)
+            return;
+
+        send(run, Operation.DELETE, HttpRequest.newBuilder(URI.create(run.baseUrl() + "/user/delete-user"))
+                .header("Authorization", "Bearer " + accessToken)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(new JSONObject()
+                        .put("username", user.username()).put("password", PASSWORD).toString())));
+    }
+
+    private String authenticate(Run run, String username) throws Exception {
+        String body = send(run, Operation.AUTHENTICATE, HttpRequest.newBuilder(URI.create(run.baseUrl() + "/authenticate"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(new JSONObject()
+                        .put("username", username).put("password", PASSWORD).toString())));
+        return body == null ? null : new JSONObject(body).getString("jwtToken");
+    }
+
+    private String refresh(Run run, String refreshToken) throws Exception {
+        String body = send(run, Operation.REFRESH, HttpRequest.newBuilder(URI.create(run.baseUrl() + "/access"))
+                .header("Authorization", "Bearer " + refreshToken)
+                .GET());
+        return body == null ? null : new JSONObject(body).getString("jwtToken");
+    }
+
+    private String authenticateServiceAccount(Run run, String clientId) throws Exception {
+        //Not part of the mix, so it is not recorded
+        HttpResponse<String> response = run.httpClient().send(HttpRequest.newBuilder(
+                        URI.create(run.baseUrl() + "/service-account/authenticate"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(new JSONObject()
+                        .put("clientId", clientId).put("clientPassword", PASSWORD).toString()))
+                .timeout(Duration.ofSeconds(30))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        return response.statusCode() == 200 ? new JSONObject(response.body()).getString("jwtToken") : null;
+    }
+
+    /**
+     * Send a request, recording its latency once the warmup is over
+     * @return Response body for a 2xx response, otherwise null
+     */
+    private String send(Run run, Operation operation, HttpRequest.Builder request) throws Exception {
+        Stats stats = run.stats().get(operation);
+        long startNanos = System.nanoTime();
+        try {
+            HttpResponse<String> response = run.httpClient().send(request.timeout(Duration.ofSeconds(30)).build(),
+                    HttpResponse.BodyHandlers.ofString());
+            boolean success = response.statusCode() / 100 == 2;
+            record(run, stats, startNanos, success);
+            return success ? response.body() : null;
+        } catch (Exception ex) {
+            record(run, stats, startNanos, false);
+            throw ex;
+        }
+    }
+
+    private void record(Run run, Stats stats, long startNanos, boolean success) {
+        if (startNanos < run.recordFrom())
+            return;
+
+        stats.histogram().recordValue(Math.min(System.nanoTime() - startNanos, MAX_TRACKED_NANOS));
+        if (!success)
+            stats.errors().incrementAndGet();
+    }
+
+    /**
+     * Expand the mix into an array holding each operation as many times as its weight
+     */
+    private Operation[] parseMix(String mix) {
+        List<Operation> operations = new ArrayList<>();
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split("=");
+            Operation operation = Arrays.stream(Operation.values())
+                    .filter(o -> o.key.equals(parts[0].trim()))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("Unknown operation in loadtest.mix: " + parts[0]));
+            for (int i = 0; i < Integer.parseInt(parts[1].trim()); i++)
+                operations.add(operation);
+        }
+
+        if (operations.isEmpty())
+            throw new IllegalArgumentException("loadtest.mix has no weights");
+        return operations.toArray(Operation[]::new);
+    }
+
+    private JSONObject report(Map<Operation, Stats> stats, double seconds, boolean virtualThreads) {
+        JSONObject endpoints = new JSONObject();
+        stats.forEach((operation, operationStats) -> {
+            Histogram histogram = operationStats.histogram();
+            ByteBuffer buffer = ByteBuffer.allocate(histogram.getNeededByteBufferCapacity());
+            int length = histogram.encodeIntoCompressedByteBuffer(buffer);
+
+            endpoints.put(operation.key, new JSONObject()
+                    .put("requests", histogram.getTotalCount())
+                    .put("errors", operationStats.errors().get())
+                    .put("throughput", histogram.getTotalCount() / seconds)
+                    .put("latencyMs", new JSONObject()
+                            .put("mean", histogram.getMean() / 1e6)
+                            .put("p50", histogram.getValueAtPercentile(50) / 1e6)
+                            .put("p90", histogram.getValueAtPercentile(90) / 1e6)
+                            .put("p99", histogram.getValueAtPercentile(99) / 1e6)
+                            .put("p999", histogram.getValueAtPercentile(99.9) / 1e6)
+                            .put("max", histogram.getMaxValue() / 1e6))
+                    //Compressed histogram, so runs can be merged or re-plotted later
+                    .put("histogram", Base64.getEncoder().encodeToString(Arrays.copyOf(buffer.array(), length))));
+        });
+
+        return new JSONObject()
+                .put("timestamp", Instant.now().toString())
+                .put("config", new JSONObject()
+                        .put("clients", CLIENTS)
+                        .put("durationSeconds", DURATION_SECONDS)
+                        .put("warmupSeconds", WARMUP_SECONDS)
+                        .put("users", USERS)
+                        .put("serviceAccounts", SERVICE_ACCOUNTS)
+                        .put("idsPerLookup", IDS_PER_LOOKUP)
+                        .put("mix", MIX)
+                        .put("database", DATASOURCE_URL != null ? "postgres" : "h2")
+                        .put("standIn", STAND_IN)
+                        .put("virtualThreads", virtualThreads))
+                .put("seconds", seconds)
+                .put("endpoints", endpoints);
+    }
+}
@@ -0,0 +1,252 @@
+package com.strangequark.authservice.benchmarktests;
+
+import com.strangequark.authservice.AuthServiceApplication;
+import com.strangequark.authservice.user.Role;
+import com.strangequark.authservice.user.User;
+import com.strangequark.authservice.user.UserRepository;
+import org.json.JSONObject;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Compares Tomcat on platform threads against virtual threads under mixed login/refresh/lookup traffic.
+ * Run with {@code ./mvnw -Ploadtest test -Dtest=ThreadModelBenchmarkTest -Dbenchmark=true}, optionally setting
+ * {@code -Dbenchmark.concurrency}, {@code -Dbenchmark.duration-seconds}, {@code -Dbenchmark.users} and
+ * {@code -Dbenchmark.report}. Both runs are written to a JSON report under {@code target/thread-model-benchmark}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class ThreadModelBenchmarkTest {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ThreadModelBenchmarkTest.class);
+
+    static {
+        System.setProperty("ENCRYPTION_KEY", "AA1A2A8C0E4F76FB3C13F66225AAAC42");
+        System.setProperty("SERVICE_SECRET_AUTH", "testClientPassword");
+        System.setProperty("SERVICE_SECRET_EMAIL", "testEmailPassword");
+        System.setProperty("SERVICE_ACCOUNTS", "auth,email");
+    }
+
+    private static final int CONCURRENCY = Integer.getInteger("benchmark.concurrency", 400);
+    private static final int DURATION_SECONDS = Integer.getInteger("benchmark.duration-seconds", 20);
+    private static final int USERS = Integer.getInteger("benchmark.users", 50);
+
+    /**
+     * Largest share of requests allowed to fail with a 429, a 5xx or no response at all
+     */
+    private static final double MAX_ERROR_RATIO = 0.01;
+
+    private enum Operation { LOGIN, REFRESH, LOOKUP }
+
+    /**
+     * Outcome of one run
+     * @param mode "platform" or "virtual"
+     * @param virtualThreads Whether the started service actually had virtual threads enabled
+     * @param latencies Sorted latencies in nanoseconds per operation
+     * @param rejected Requests refused with a 4xx other than 429, expected when another client rotates the refresh token
+     * @param errors Requests that failed with a 429, a 5xx or no response
+     * @param seconds Length of the run
+     */
+    private record Result(String mode, boolean virtualThreads, Map<Operation, long[]> latencies, long rejected,
+                          long errors, double seconds) {
+
+        long requests() {
+            return latencies.values().stream().mapToLong(values -> values.length).sum() + errors;
+        }
+    }
+
+    @Test
+    void platformVersusVirtualThreadsTest() throws Exception {
+        Result platform = run(false);
+        Result virtual = run(true);
+
+        Path path = Path.of(System.getProperty("benchmark.report",
+                "target/thread-model-benchmark/report-" + Instant.now().toEpochMilli() + ".json"));
+        if (path.getParent() != null)
+            Files.createDirectories(path.getParent());
+        Files.writeString(path, new JSONObject()
+                .put("timestamp", Instant.now().toString())
+                .put("config", new JSONObject()
+                        .put("concurrency", CONCURRENCY)
+                        .put("durationSeconds", DURATION_SECONDS)
+                        .put("users", USERS))
+                .put("platform", report(platform))
+                .put("virtual", report(virtual))
+                .toString(2), StandardCharsets.UTF_8);
+        LOGGER.info("Thread model benchmark report written to {}", path.toAbsolutePath());
+
+        for (Result result : List.of(platform, virtual)) {
+            //Each run must really use the thread model it is named after, or the comparison is meaningless
+            Assertions.assertEquals(result.mode().equals("virtual"), result.virtualThreads(), result.mode());
+
+            Assertions.assertTrue(result.requests() > result.errors(), result.mode() + " completed no requests");
+            Assertions.assertTrue(result.errors() <= result.requests() * MAX_ERROR_RATIO,
+                    result.mode() + " failed " + result.errors() + " of " + result.requests() + " requests");
+        }
+    }
+
+    private Result run(boolean virtualThreads) throws Exception {
+        String mode = virtualThreads ? "virtual" : "platform";
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(AuthServiceApplication.class)
+                .profiles("test")
+                .run(
+                        "--server.port=0",
+                        "--spring.threads.virtual.enabled=" + virtualThreads,
+                        "--spring.datasource.url=jdbc:h2:mem:benchmark-" + mode + ";DB_CLOSE_DELAY=-1",
+                        "--logging.level.com.strangequark=WARN",
+                        "--logging.level.com.strangequark.authservice.benchmarktests=INFO",
+                        //Every client shares one IP and a handful of accounts, so the limits would measure only 429s
+                        "--rate-limit.enabled=false"
+                )) {
+
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            String baseUrl = "http://localhost:" + port + "/api/auth";
+
+            UserRepository userRepository = context.getBean(UserRepository.class);
+            PasswordEncoder passwordEncoder = context.getBean(PasswordEncoder.class);
+            String passwordHash = passwordEncoder.encode("password");
+            for (int i = 0; i < USERS; i++)
+                userRepository.save(new User("benchUser" + i, "bench" + i + "@test.com", Role.USER, true,
+                        new HashSet<>(), passwordHash));
+
+            Map<Operation, ConcurrentLinkedQueue<Long>> latencies = new EnumMap<>(Operation.class);
+            for (Operation operation : Operation.values())
+                latencies.put(operation, new ConcurrentLinkedQueue<>());
+            AtomicLong rejected = new AtomicLong();
+            AtomicLong errors = new AtomicLong();
+
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(DURATION_SECONDS);
+            long start = System.nanoTime();
+
+            //Resources close in reverse order, so the clients finish before the HttpClient they share is closed
+            try (HttpClient httpClient = HttpClient.newBuilder()
+                         .version(HttpClient.Version.HTTP_1_1)
+                         .executor(Executors.newVirtualThreadPerTaskExecutor())
+                         .build();
+                 ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+
+                for (int c = 0; c < CONCURRENCY; c++) {
+                    String username = "benchUser" + (c % USERS);
+                    clients.submit(() -> client(httpClient, baseUrl, username, deadline, latencies, rejected, errors));
+                }
+            }
+
+            double seconds = (System.nanoTime() - start) / 1e9;
+            Map<Operation, long[]> sorted = new EnumMap<>(Operation.class);
+            latencies.forEach((operation, values) -> {
+                long[] array = values.stream().mapToLong(Long::longValue).toArray();
+                Arrays.sort(array);
+                sorted.put(operation, array);
+            });
+
+            Result result = new Result(mode,
+                    context.getEnvironment().getProperty("spring.threads.virtual.enabled", Boolean.class, false),
+                    sorted, rejected.get(), errors.get(), seconds);
+            LOGGER.info("Thread model benchmark, {} threads, {} clients, {}s, {} users: {}", mode, CONCURRENCY,
+                    DURATION_SECONDS, USERS, report(result).toString());
+            return result;
+        }
+    }
+
+    private void client(HttpClient httpClient, String baseUrl, String username, long deadline,
+                        Map<Operation, ConcurrentLinkedQueue<Long>> latencies, AtomicLong rejected, AtomicLong errors) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String refreshToken = null;
+        String accessToken = null;
+
+        while (System.nanoTime() < deadline) {
+            //Roughly 10% logins, 30% refreshes and 60% lookups, logging in first when no token is held
+            int roll = random.nextInt(100);
+            Operation operation = refreshToken == null || roll < 10 ? Operation.LOGIN
+                    : accessToken == null || roll < 40 ? Operation.REFRESH : Operation.LOOKUP;
+
+            HttpRequest.Builder request = switch (operation) {
+                case LOGIN -> HttpRequest.newBuilder(URI.create(baseUrl + "/authenticate"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(
+                                "{\"username\":\"" + username + "\",\"password\":\"password\"}"));
+                case REFRESH -> HttpRequest.newBuilder(URI.create(baseUrl + "/access"))
+                        .header("Authorization", "Bearer " + refreshToken)
+                        .GET();
+                case LOOKUP -> HttpRequest.newBuilder(URI.create(baseUrl + "/user/get-user-id?username=" + username))
+                        .header("Authorization", "Bearer " + accessToken)
+                        .GET();
+            };
+
+            long startNanos = System.nanoTime();
+            try {
+                HttpResponse<String> response = httpClient.send(request.timeout(Duration.ofSeconds(30)).build(),
+                        HttpResponse.BodyHandlers.ofString());
+                int status = response.statusCode();
+
+                if (status == 429 || status >= 500) {
+                    errors.incrementAndGet();
+                    continue;
+                }
+
+                latencies.get(operation).add(System.nanoTime() - startNanos);
+
+                if (status != 200) {
+                    //Another client logging in as the same user rotates the refresh token
+                    rejected.incrementAndGet();
+                    refreshToken = null;
+                    accessToken = null;
+                    continue;
+                }
+
+                if (operation == Operation.LOGIN)
+                    refreshToken = new JSONObject(response.body()).getString("jwtToken");
+                else if (operation == Operation.REFRESH)
+                    accessToken = new JSONObject(response.body()).getString("jwtToken");
+            } catch (Exception ex) {
+                errors.incrementAndGet();
+            }
+        }
+    }
+
+    private JSONObject report(Result result) {
+        JSONObject operations = new JSONObject();
+        result.latencies().forEach((operation, values) -> {
+            if (values.length == 0)
+                return;
+
+            operations.put(operation.name().toLowerCase(), new JSONObject()
+                    .put("requests", values.length)
+                    .put("throughput", values.length / result.seconds())
+                    .put("latencyMs", new JSONObject()
+                            .put("p50", percentile(values, 0.50))
+                            .put("p99", percentile(values, 0.99))
+                            .put("max", values[values.length - 1] / 1e6)));
+        });
+
+        return new JSONObject()
+                .put("virtualThreads", result.virtualThreads())
+                .put("seconds", result.seconds())
+                .put("rejected", result.rejected())
+                .put("errors", result.errors())
+                .put("operations", operations);
+    }
+
+    private double percentile(long[] sorted, double percentile) {
+        return sorted[(int) Math.min(sorted.length - 1, Math.floor(percentile * sorted.length))] / 1e6;
+    }
+}
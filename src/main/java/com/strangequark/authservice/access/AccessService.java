@@ -5,6 +5,7 @@ import com.strangequark.authservice.config.JwtService;
 import com.strangequark.authservice.error.ErrorResponse;
 import com.strangequark.authservice.user.User;
 import com.strangequark.authservice.user.UserRepository;
+import com.strangequark.authservice.utility.SampledLogger;
 import com.strangequark.authservice.utility.TelemetryUtility; // Integration line: Telemetry
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
@@ -31,6 +32,11 @@ public class AccessService {
      */
     private static final Logger LOGGER = LoggerFactory.getLogger(AccessService.class);
 
+    /**
+     * {@link SampledLogger} for routine success messages on hot paths
+     */
+    private static final SampledLogger SAMPLED_LOGGER = SampledLogger.of(LOGGER);
+
     /**
      * {@link UserRepository} for fetching {@link User} from the database
      */
@@ -63,7 +69,7 @@ public class AccessService {
      * @return {@link ResponseEntity} with a {@link AuthenticationResponse} if successful, otherwise return with an {@link ErrorResponse}
      */
     public ResponseEntity<?> serveAccessToken() {
-        LOGGER.info("Attempting to serve access token");
+        LOGGER.debug("Attempting to serve access token");
 
         try {
             String refreshToken = "";
@@ -95,12 +101,12 @@ public class AccessService {
             telemetryUtility.sendTelemetryEvent("user-access", Map.of("userId", user.getId())); // Integration line: Telemetry
 
             //Return a 200 response with the jwtToken
-            LOGGER.info("Access token successfully served");
+            SAMPLED_LOGGER.info("Access token successfully served");
             return ResponseEntity.ok()
                     .header(HttpHeaders.SET_COOKIE, jwtService.buildTokenCookie("access_token", accessToken).toString())
                     .body(new AuthenticationResponse(accessToken));
         } catch (Exception ex) {
-            LOGGER.error("Failed to serve access token: " + ex.getMessage());
+            LOGGER.error("Failed to serve access token: {}", ex.getMessage());
             LOGGER.debug("Stack trace: ", ex);
             return ResponseEntity.status(400).body(new ErrorResponse(ex.getMessage()));
         }
@@ -4,13 +4,17 @@ import com.strangequark.authservice.config.JwtService;
 import com.strangequark.authservice.error.ErrorResponse;
 import com.strangequark.authservice.user.Role;
 import com.strangequark.authservice.user.User;
+import com.strangequark.authservice.user.UserChangePublisher;
 import com.strangequark.authservice.user.UserRepository;
 import com.strangequark.authservice.utility.EmailType; // Integration line: Email
 import com.strangequark.authservice.utility.EmailUtility; // Integration line: Email
+import com.strangequark.authservice.utility.RateLimiter;
+import com.strangequark.authservice.utility.SampledLogger;
 import com.strangequark.authservice.utility.TelemetryUtility; // Integration line: Telemetry
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -34,6 +38,11 @@ public class AuthenticationService {
      */
     private static final Logger LOGGER = LoggerFactory.getLogger(AuthenticationService.class);
 
+    /**
+     * {@link SampledLogger} for routine success messages on hot paths
+     */
+    private static final SampledLogger SAMPLED_LOGGER = SampledLogger.of(LOGGER);
+
     /**
      * {@link UserRepository} for fetching {@link com.strangequark.authservice.user.User} from the database
      */
@@ -54,6 +63,19 @@ public class AuthenticationService {
      */
     private final AuthenticationManager authenticationManager;
 
+    /**
+     * {@link RateLimiter} applied to authentication requests before the password is hashed
+     */
+    @Autowired
+    @Qualifier("authenticateRateLimiter")
+    private RateLimiter authenticateRateLimiter;
+
+    /**
+     * {@link UserChangePublisher} for publishing new users to the change feed
+     */
+    @Autowired
+    private UserChangePublisher userChangePublisher;
+
     /** Integration function start: Email
      * {@link EmailUtility} for sending requests to email service
      */
@@ -120,14 +142,14 @@ public class AuthenticationService {
                 ResponseEntity<?> response = emailUtility.sendEmail(registrationRequest.getEmail(), EmailType.REGISTER);
 
                 if (response.getStatusCode().value() != 200) {
-                    LOGGER.warn("Error when calling email service: " + response.getBody());
+                    LOGGER.warn("Error when calling email service: {}", response.getBody());
                     LOGGER.debug("Continuing user registration, setting user to enabled");
                     user.setEnabled(true);
                     responseMessage = "Registered without email";
                 }
             } catch (ResourceAccessException resourceAccessException) {
                 //If we are unable to reach the email service, proceed with user creation and set user as enabled
-                LOGGER.warn("Unable to reach email service: " + resourceAccessException.getMessage());
+                LOGGER.warn("Unable to reach email service: {}", resourceAccessException.getMessage());
                 LOGGER.debug("Continuing to register user, setting user to enabled");// Integration function end: Email
                 user.setEnabled(true);
                 responseMessage = "Registered without email";
@@ -136,6 +158,7 @@ public class AuthenticationService {
             //Save the user to the database
             LOGGER.debug("Saving user to database");
             userRepository.save(user);
+            userChangePublisher.publish(user, UserChangePublisher.Change.CREATED);
             // Send a telemetry event for user registration - Integration line: Telemetry
             telemetryUtility.sendTelemetryEvent("user-register", Map.of("userId", user.getId())); // Integration line: Telemetry
 
@@ -143,7 +166,7 @@ public class AuthenticationService {
             LOGGER.info("User successfully created");
             return ResponseEntity.ok(new RegistrationResponse(responseMessage));
         } catch (Exception ex) {
-            LOGGER.error("Failed to register user: " + ex.getMessage());
+            LOGGER.error("Failed to register user: {}", ex.getMessage());
             LOGGER.debug("Stack trace: ", ex);
             return ResponseEntity.status(400).body(new ErrorResponse(ex.getMessage()));
         }
@@ -155,7 +178,14 @@ public class AuthenticationService {
      * @return {@link ResponseEntity} with a {@link AuthenticationResponse} if successful, otherwise return with an {@link ErrorResponse}
      */
     public ResponseEntity<?> authenticate(AuthenticationRequest authenticationRequest) {
-        LOGGER.info("Attempting to authenticate request");
+        LOGGER.debug("Attempting to authenticate request");
+
+        //Reject over-limit clients before spending a BCrypt verification on them
+        ResponseEntity<?> rateLimited = authenticateRateLimiter.limit(authenticationRequest.getUsername());
+        if (rateLimited != null) {
+            LOGGER.warn("Authentication request rate limited");
+            return rateLimited;
+        }
 
         try {
             //Authenticate the user, throw an AuthenticationException if the username and password combination are incorrect
@@ -182,12 +212,12 @@ public class AuthenticationService {
             telemetryUtility.sendTelemetryEvent("user-authenticate", Map.of("userId", user.getId())); // Integration line: Telemetry
 
             //Return a 200 response with the JWT refresh token
-            LOGGER.info("Authentication successful");
+            SAMPLED_LOGGER.info("Authentication successful");
             return ResponseEntity.ok()
                     .header(HttpHeaders.SET_COOKIE, jwtService.buildTokenCookie("refresh_token", refreshToken).toString())
                     .body(new AuthenticationResponse(refreshToken));
         } catch (AuthenticationException ex) {
-            LOGGER.error("Failed to authenticate user: " + ex.getMessage());
+            LOGGER.error("Failed to authenticate user: {}", ex.getMessage());
             LOGGER.debug("Stack trace: ", ex);
             return ResponseEntity.status(401).body(new ErrorResponse(ex.getMessage()));
         }
@@ -0,0 +1,212 @@
+package com.strangequark.authservice.auth;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.strangequark.authservice.invalidation.CacheInvalidator;
+import com.strangequark.authservice.user.User;
+import com.strangequark.authservice.user.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link Service} tracking failed logins per username in lock-free sliding windows.
+ * When a username reaches the failure threshold it is locked in memory straight away, and the lock is written to
+ * the {@link User} once so that other instances and {@link User#isAccountNonLocked()} see it too.
+ * Windows are held in a size-bounded cache, so a flood of failures for random usernames evicts rarely seen
+ * usernames rather than switching off counting; a lock evicted from memory still holds through the {@link User}.
+ */
+@Service
+public class LoginAttemptService {
+    private static final Logger LOGGER = LoggerFactory.getLogger(LoginAttemptService.class);
+
+    /**
+     * Number of slots the sliding window is divided into
+     */
+    private static final int WINDOW_SLOTS = 15;
+
+    /**
+     * {@link UserRepository} for persisting locks
+     */
+    private final UserRepository userRepository;
+
+    /**
+     * {@link CacheInvalidator} for dropping what is cached about users once they are locked
+     */
+    private final CacheInvalidator cacheInvalidator;
+
+    /**
+     * Failures within the window that lock the account
+     */
+    private final int maxFailures;
+
+    /**
+     * Length of the sliding window in seconds
+     */
+    private final long windowSeconds;
+
+    /**
+     * Time in seconds an account stays locked
+     */
+    private final long lockSeconds;
+
+    /**
+     * Failure counters keyed by username, dropped once idle for longer than both the window and the lock
+     */
+    private final Cache<String, AttemptWindow> attempts;
+
+    /**
+     * Number of times an account has been locked since startup
+     */
+    private final LongAdder lockCount = new LongAdder();
+
+    /**
+     * Constructs a new {@code LoginAttemptService} with the given dependencies.
+     *
+     * @param userRepository {@link UserRepository} for persisting locks
+     * @param cacheInvalidator {@link CacheInvalidator} for dropping what is cached about locked users
+     * @param maxFailures Failures within the window that lock the account
+     * @param windowSeconds Length of the sliding window in seconds
+     * @param lockSeconds Time in seconds an account stays locked
+     * @param maxTracked Maximum number of usernames tracked at once
+     */
+    public LoginAttemptService(UserRepository userRepository, CacheInvalidator cacheInvalidator,
+                               @Value("${login-attempts.max-failures:5}") int maxFailures,
+                               @Value("${login-attempts.window-seconds:900}") long windowSeconds,
+                               @Value("${login-attempts.lock-seconds:900}") long lockSeconds,
+                               @Value("${login-attempts.max-tracked:100000}") long maxTracked) {
+        this.userRepository = userRepository;
+        this.cacheInvalidator = cacheInvalidator;
+        this.maxFailures = maxFailures;
+        this.windowSeconds = windowSeconds;
+        this.lockSeconds = lockSeconds;
+        this.attempts = Caffeine.newBuilder()
+                .maximumSize(maxTracked)
+                .expireAfterAccess(Duration.ofSeconds(Math.max(windowSeconds, lockSeconds)))
+                .build();
+    }
+
+    /**
+     * Determine if a username is currently locked in memory
+     * @param username Username being authenticated
+     */
+    public boolean isLocked(String username) {
+        AttemptWindow window = attempts.getIfPresent(username);
+        return window != null && window.lockedUntilMillis.get() > System.currentTimeMillis();
+    }
+
+    /**
+     * Record a failed login, locking the username once it reaches the threshold
+     * @param username Username that failed to authenticate
+     */
+    public void recordFailure(String username) {
+        if (username == null)
+            return;
+
+        AttemptWindow window = attempts.get(username, k -> new AttemptWindow());
+
+        long now = System.currentTimeMillis();
+        long slotMillis = slotMillis();
+        if (window.increment(now, slotMillis) < maxFailures)
+            return;
+
+        long lockedUntil = window.lockedUntilMillis.get();
+        long newLockedUntil = now + lockSeconds * 1000;
+        //Only the thread that moves the lock forward persists it
+        if (lockedUntil <= now && window.lockedUntilMillis.compareAndSet(lockedUntil, newLockedUntil)) {
+            LOGGER.warn("Too many failed logins, locking account for {}s", lockSeconds);
+            lockCount.increment();
+            persistLock(username, Instant.ofEpochMilli(newLockedUntil));
+        }
+    }
+
+    /**
+     * Forget the failures for a username after a successful login or a password reset
+     * @param username Username that authenticated
+     */
+    public void reset(String username) {
+        if (username != null)
+            attempts.invalidate(username);
+    }
+
+    /**
+     * Write a lock to the user, if the username belongs to one
+     */
+    private void persistLock(String username, Instant lockedUntil) {
+        try {
+            userRepository.findByUsername(username).ifPresent(user -> {
+                user.setLockedUntil(lockedUntil);
+                userRepository.save(user);
+                //Every instance drops what it cached about the user, so the lock is not hidden behind a cache
+                cacheInvalidator.invalidateUser(user.getId());
+            });
+        } catch (Exception ex) {
+            //The in-memory lock still applies on this instance
+            LOGGER.error("Failed to persist account lock: {}", ex.getMessage());
+            LOGGER.debug("Stack trace: ", ex);
+        }
+    }
+
+    /**
+     * Get the number of times an account has been locked since startup
+     */
+    public long getLockCount() {
+        return lockCount.sum();
+    }
+
+    /**
+     * Get the number of usernames currently tracked
+     */
+    public long getTrackedCount() {
+        return attempts.estimatedSize();
+    }
+
+    private long slotMillis() {
+        return Math.max(1, windowSeconds * 1000 / WINDOW_SLOTS);
+    }
+
+    /**
+     * Failures for one username over a sliding window of {@link #WINDOW_SLOTS} slots.
+     * Each slot holds the epoch it counts for, so a stale slot is reset by whichever thread reaches it first.
+     */
+    private static final class AttemptWindow {
+        private final AtomicLongArray slotEpochs = new AtomicLongArray(WINDOW_SLOTS);
+        private final AtomicLongArray slotCounts = new AtomicLongArray(WINDOW_SLOTS);
+        private final AtomicLong lockedUntilMillis = new AtomicLong();
+
+        /**
+         * Count a failure and return the failures now in the window
+         */
+        long increment(long now, long slotMillis) {
+            long epoch = now / slotMillis;
+            int slot = (int) (epoch % WINDOW_SLOTS);
+
+            long slotEpoch = slotEpochs.get(slot);
+            if (slotEpoch != epoch && slotEpochs.compareAndSet(slot, slotEpoch, epoch))
+                slotCounts.set(slot, 0);
+            slotCounts.incrementAndGet(slot);
+
+            return count(now, slotMillis);
+        }
+
+        /**
+         * Sum the slots that fall inside the window
+         */
+        long count(long now, long slotMillis) {
+            long epoch = now / slotMillis;
+            long total = 0;
+            for (int i = 0; i < WINDOW_SLOTS; i++) {
+                if (epoch - slotEpochs.get(i) < WINDOW_SLOTS)
+                    total += slotCounts.get(i);
+            }
+            return total;
+        }
+    }
+}
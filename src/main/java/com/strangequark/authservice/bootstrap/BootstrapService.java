@@ -5,11 +5,12 @@ import com.strangequark.authservice.auth.RegistrationRequest;
 import com.strangequark.authservice.error.ErrorResponse;
 import com.strangequark.authservice.user.Role;
 import com.strangequark.authservice.user.User;
+import com.strangequark.authservice.user.UserChangePublisher;
 import com.strangequark.authservice.user.UserRepository;
 import com.strangequark.authservice.utility.TelemetryUtility; // Integration line: Telemetry
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Autowired; // Integration line: Telemetry
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -31,6 +32,13 @@ public class BootstrapService {
      * {@link PasswordEncoder} for encoding our password when registering a new user to the database
      */
     private final PasswordEncoder passwordEncoder;
+
+    /**
+     * {@link UserChangePublisher} for publishing the bootstrapped user to the change feed
+     */
+    @Autowired
+    private UserChangePublisher userChangePublisher;
+
     /** Integration function start: Telemetry
      * {@link TelemetryUtility} for sending telemetry events to the Kafka
      */
@@ -72,6 +80,7 @@ public class BootstrapService {
             //Save the user to the database
             LOGGER.debug("Saving bootstrap user to database");
             userRepository.save(user);
+            userChangePublisher.publish(user, UserChangePublisher.Change.CREATED);
             // Send a telemetry event for super user bootstrap - Integration line: Telemetry
             telemetryUtility.sendTelemetryEvent("super-user-bootstrap", Map.of("userId", user.getId())); // Integration line: Telemetry
 
@@ -79,7 +88,7 @@ public class BootstrapService {
             LOGGER.info("User successfully bootstrapped");
             return ResponseEntity.ok(new AuthenticationResponse());
         } catch (Exception ex) {
-            LOGGER.error("Failed to bootstrap super user: " + ex.getMessage());
+            LOGGER.error("Failed to bootstrap super user: {}", ex.getMessage());
             LOGGER.debug("Stack trace: ", ex);
             return ResponseEntity.status(400).body(new ErrorResponse(ex.getMessage()));
         }
@@ -0,0 +1,40 @@
+package com.strangequark.authservice.check;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * {@link RestController} for forward-auth checks from an API gateway
+ */
+@RestController
+@RequestMapping("/api/auth/check")
+public class TokenCheckController {
+
+    /**
+     * {@link TokenCheckService}
+     */
+    private final TokenCheckService tokenCheckService;
+
+    /**
+     * Constructs a new {@code TokenCheckController} with the given dependencies.
+     *
+     * @param tokenCheckService {@link TokenCheckService} for checking forwarded tokens
+     */
+    public TokenCheckController(TokenCheckService tokenCheckService) {
+        this.tokenCheckService = tokenCheckService;
+    }
+
+    /**
+     * Endpoint for checking the bearer token of a forwarded request. Any method and any sub-path are accepted,
+     * since gateways forward the original method and may append the original path.
+     * @param authorizationHeader Authorization header of the original request
+     * @return {@link ResponseEntity} with the identity headers, or 401 without a body
+     */
+    @RequestMapping({"", "/**"})
+    public ResponseEntity<Void> check(@RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorizationHeader) {
+        return tokenCheckService.check(authorizationHeader);
+    }
+}
@@ -0,0 +1,209 @@
+package com.strangequark.authservice.check;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.strangequark.authservice.config.JwtService;
+import com.strangequark.authservice.invalidation.CacheInvalidator;
+import com.strangequark.authservice.invalidation.InvalidationHandler;
+import com.strangequark.authservice.serviceaccount.ServiceAccount;
+import com.strangequark.authservice.user.User;
+import io.jsonwebtoken.Claims;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link Service} answering forward-auth checks from an API gateway, such as Envoy's {@code ext_authz} filter.
+ * Verified access tokens are cached with the identity headers already built, so a repeat check is a single map
+ * lookup with no signature verification, database query or JSON. Entries expire with their token or after a
+ * time-to-live, whichever comes first, and are dropped through {@link CacheInvalidator} when their user changes.
+ */
+@Service
+public class TokenCheckService implements InvalidationHandler {
+    private static final Logger LOGGER = LoggerFactory.getLogger(TokenCheckService.class);
+
+    /**
+     * Header carrying the ID of the authenticated user or service account
+     */
+    public static final String USER_ID_HEADER = "X-User-Id";
+
+    /**
+     * Header carrying the username of the authenticated user, or the client ID of the service account
+     */
+    public static final String USERNAME_HEADER = "X-Username";
+
+    /**
+     * Header carrying the role of the authenticated user, {@code SERVICE_ACCOUNT} for service accounts
+     */
+    public static final String ROLE_HEADER = "X-User-Role";
+
+    /**
+     * Header carrying the comma-separated authorizations of the authenticated user or service account
+     */
+    public static final String AUTHORIZATIONS_HEADER = "X-User-Authorizations";
+
+    /**
+     * Response for a token that failed verification, without a body
+     */
+    private static final ResponseEntity<Void> UNAUTHORIZED = ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+            .header(HttpHeaders.WWW_AUTHENTICATE, "Bearer")
+            .build();
+
+    /**
+     * {@link JwtService} for verifying tokens on a miss
+     */
+    private final JwtService jwtService;
+
+    /**
+     * {@link UserDetailsService} for loading the user or service account of a token on a miss
+     */
+    private final UserDetailsService userDetailsService;
+
+    /**
+     * Verified tokens keyed by the raw token
+     */
+    private final Cache<String, VerifiedToken> verifiedTokens;
+
+    /**
+     * Incremented by every invalidation. A verification that overlaps an invalidation is not cached, since it may
+     * have loaded the user before the change it is racing with
+     */
+    private final AtomicLong invalidations = new AtomicLong();
+
+    /**
+     * Constructs a new {@code TokenCheckService} with the given dependencies.
+     *
+     * @param jwtService {@link JwtService} for verifying tokens on a miss
+     * @param userDetailsService {@link UserDetailsService} for loading the user or service account of a token
+     * @param maxSize Maximum number of verified tokens cached
+     * @param ttlSeconds Seconds after which a verified token is checked again
+     */
+    public TokenCheckService(JwtService jwtService, UserDetailsService userDetailsService,
+                             @Value("${auth.check.cache.max-size:100000}") long maxSize,
+                             @Value("${auth.check.cache.ttl-seconds:60}") long ttlSeconds) {
+        this.jwtService = jwtService;
+        this.userDetailsService = userDetailsService;
+        long ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(Expiry.<String, VerifiedToken>creating((token, verified) -> {
+                    long untilExpiryNanos = TimeUnit.MILLISECONDS.toNanos(verified.expiresAtMillis() - System.currentTimeMillis());
+                    return Duration.ofNanos(Math.max(0, Math.min(ttlNanos, untilExpiryNanos)));
+                }))
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Check the bearer token of a request forwarded by the gateway
+     * @param authorizationHeader Authorization header of the original request
+     * @return 200 with the identity and authorization headers, or 401 without a body
+     */
+    public ResponseEntity<Void> check(String authorizationHeader) {
+        if (authorizationHeader == null || !authorizationHeader.startsWith("Bearer "))
+            return UNAUTHORIZED;
+
+        String token = authorizationHeader.substring(7);
+        VerifiedToken verified = verifiedTokens.getIfPresent(token);
+        if (verified == null) {
+            verified = verify(token);
+            if (verified == null)
+                return UNAUTHORIZED;
+        }
+
+        //Expiry is enforced here too, the cache only drops entries approximately on time
+        if (verified.expiresAtMillis() <= System.currentTimeMillis()) {
+            verifiedTokens.invalidate(token);
+            return UNAUTHORIZED;
+        }
+
+        return new ResponseEntity<>(verified.headers(), HttpStatus.OK);
+    }
+
+    /**
+     * Verify a token and cache it with its identity headers
+     * @return {@link VerifiedToken}, null if the token should be rejected
+     */
+    private VerifiedToken verify(String token) {
+        long invalidationsBefore = invalidations.get();
+        try {
+            Claims claims = jwtService.extractClaim(token, c -> c, false);
+            if (claims.getSubject() == null || claims.getId() == null || claims.getExpiration() == null)
+                return null;
+
+            UserDetails userDetails = userDetailsService.loadUserByUsername(claims.getSubject());
+            if (!userDetails.isEnabled() || !userDetails.isAccountNonLocked())
+                return null;
+
+            VerifiedToken verified = null;
+            if (userDetails instanceof User user)
+                verified = new VerifiedToken(user.getId(), claims.getExpiration().getTime(),
+                        headers(user.getId(), user.getUsername(), user.getRole().name(), user.getAuthorizations()));
+            else if (userDetails instanceof ServiceAccount serviceAccount)
+                verified = new VerifiedToken(serviceAccount.getId(), claims.getExpiration().getTime(),
+                        headers(serviceAccount.getId(), serviceAccount.getClientId(), "SERVICE_ACCOUNT", serviceAccount.getAuthorizations()));
+
+            //The username may have been taken over by another account since the token was issued
+            if (verified == null || !verified.subjectId().toString().equals(claims.getId()))
+                return null;
+
+            verifiedTokens.put(token, verified);
+            if (invalidations.get() != invalidationsBefore)
+                verifiedTokens.invalidate(token);
+            return verified;
+        } catch (Exception ex) {
+            LOGGER.debug("Token check failed: {}", ex.getMessage());
+            return null;
+        }
+    }
+
+    private static HttpHeaders headers(UUID id, String username, String role, Set<String> authorizations) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(USER_ID_HEADER, id.toString());
+        headers.set(USERNAME_HEADER, username);
+        headers.set(ROLE_HEADER, role);
+        headers.set(AUTHORIZATIONS_HEADER, authorizations == null ? "" : String.join(",", authorizations));
+        return HttpHeaders.readOnlyHttpHeaders(headers);
+    }
+
+    @Override
+    public void invalidateUser(UUID userId) {
+        invalidations.incrementAndGet();
+        verifiedTokens.asMap().values().removeIf(verified -> verified.subjectId().equals(userId));
+    }
+
+    @Override
+    public void invalidateAll() {
+        invalidations.incrementAndGet();
+        verifiedTokens.invalidateAll();
+    }
+
+    /**
+     * Get the cache of verified tokens, for its statistics
+     */
+    public Cache<String, VerifiedToken> getCache() {
+        return verifiedTokens;
+    }
+
+    /**
+     * A verified token
+     * @param subjectId ID of the user or service account the token was issued to, which is also the token's ID
+     * @param expiresAtMillis Time the token expires, in milliseconds since the epoch
+     * @param headers Read-only identity headers returned to the gateway
+     */
+    public record VerifiedToken(UUID subjectId, long expiresAtMillis, HttpHeaders headers) {
+    }
+}
@@ -1,9 +1,16 @@
 package com.strangequark.authservice.config;
 
+import com.strangequark.authservice.auth.LoginAttemptService;
 import com.strangequark.authservice.serviceaccount.ServiceAccountRepository;
 import com.strangequark.authservice.user.UserRepository;
+import io.micrometer.context.ContextExecutorService;
+import io.micrometer.context.ContextRegistry;
+import io.micrometer.context.ContextSnapshotFactory;
+import io.micrometer.context.integration.Slf4jThreadLocalAccessor;
+import io.micrometer.observation.ObservationRegistry;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
@@ -14,10 +21,14 @@ import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
 /**
  * Spring {@link Configuration} for application settings
  */
 @Configuration
+@EnableScheduling
 public class ApplicationConfig {
 
     /**
@@ -30,15 +41,23 @@ public class ApplicationConfig {
      */
     private final ServiceAccountRepository serviceAccountRepository;
 
+    /**
+     * {@link ObservationRegistry} for timing password hashing
+     */
+    private final ObservationRegistry observationRegistry;
+
     /**
      * Constructs a new {@code ApplicationConfig} with the given dependencies.
      *
      * @param userRepository {@link UserRepository} for processing requests to the User database
      * @param serviceAccountRepository {@link ServiceAccountRepository} for processing requests to the Service Account database
+     * @param observationRegistry {@link ObservationRegistry} for timing password hashing
      */
-    public ApplicationConfig(UserRepository userRepository, ServiceAccountRepository serviceAccountRepository) {
+    public ApplicationConfig(UserRepository userRepository, ServiceAccountRepository serviceAccountRepository,
+                             ObservationRegistry observationRegistry) {
         this.userRepository = userRepository;
         this.serviceAccountRepository = serviceAccountRepository;
+        this.observationRegistry = observationRegistry;
     }
 
     /**
@@ -57,10 +76,12 @@ public class ApplicationConfig {
     /**
      * {@link Bean} data access object responsible for fetching
      * {@link org.springframework.security.core.userdetails.UserDetails} and encoding the password
-     * @return {@link DaoAuthenticationProvider} with {@link #userDetailsService()} and {@link #passwordEncoder()}
+     * @param loginAttemptService {@link LoginAttemptService} for locking out repeated failed logins
+     * @return {@link DaoAuthenticationProvider} with {@link #userDetailsService()} and {@link #passwordEncoder()},
+     *          wrapped so that locked usernames are rejected before the password is verified
      */
     @Bean
-    public AuthenticationProvider authenticationProvider() {
+    public AuthenticationProvider authenticationProvider(LoginAttemptService loginAttemptService) {
         DaoAuthenticationProvider daoAuthenticationProvider = new DaoAuthenticationProvider();
 
         //Service to use to fetch information about our user details
@@ -69,16 +90,28 @@ public class ApplicationConfig {
         //Provide the password encoder
         daoAuthenticationProvider.setPasswordEncoder(passwordEncoder());
 
-        return daoAuthenticationProvider;
+        return new LoginAttemptAuthenticationProvider(daoAuthenticationProvider, loginAttemptService);
     }
 
     /**
      * {@link Bean} for setting the password encoder
-     * @return new {@link org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder}
+     * @return new {@link org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder}, timed by an {@link ObservedPasswordEncoder}
      */
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return new ObservedPasswordEncoder(new BCryptPasswordEncoder(), observationRegistry);
+    }
+
+    /**
+     * {@link Bean} for running blocking calls to downstream services concurrently
+     * @return {@link ExecutorService} starting a new virtual thread per task, carrying the submitter's
+     *          observation, trace context and correlation id over to the task
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService downstreamExecutor() {
+        ContextRegistry.getInstance().registerThreadLocalAccessor(new Slf4jThreadLocalAccessor(CorrelationIdFilter.MDC_KEY));
+        ContextSnapshotFactory contextSnapshotFactory = ContextSnapshotFactory.builder().build();
+        return ContextExecutorService.wrap(Executors.newVirtualThreadPerTaskExecutor(), contextSnapshotFactory::captureAll);
     }
 
     /**
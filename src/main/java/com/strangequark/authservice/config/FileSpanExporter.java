@@ -0,0 +1,111 @@
+package com.strangequark.authservice.config;
+
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.json.JSONObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+
+/**
+ * {@link SpanExporter} appending finished spans to a local file, one JSON object per line
+ */
+public class FileSpanExporter implements SpanExporter {
+    private static final Logger LOGGER = LoggerFactory.getLogger(FileSpanExporter.class);
+
+    /**
+     * Writer for the span file, null once the exporter has shut down
+     */
+    private BufferedWriter writer;
+
+    /**
+     * Constructs a new {@code FileSpanExporter} appending to the given file.
+     *
+     * @param path File to append spans to, created with its parent directories if missing
+     * @throws IOException If the file cannot be opened
+     */
+    public FileSpanExporter(Path path) throws IOException {
+        if (path.getParent() != null)
+            Files.createDirectories(path.getParent());
+
+        this.writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    @Override
+    public synchronized CompletableResultCode export(Collection<SpanData> spans) {
+        if (writer == null)
+            return CompletableResultCode.ofFailure();
+
+        try {
+            for (SpanData span : spans) {
+                writer.write(toJson(span).toString());
+                writer.newLine();
+            }
+            writer.flush();
+            return CompletableResultCode.ofSuccess();
+        } catch (IOException ex) {
+            LOGGER.error("Failed to export spans: {}", ex.getMessage());
+            LOGGER.debug("Stack trace: ", ex);
+            return CompletableResultCode.ofFailure();
+        }
+    }
+
+    @Override
+    public synchronized CompletableResultCode flush() {
+        if (writer == null)
+            return CompletableResultCode.ofSuccess();
+
+        try {
+            writer.flush();
+            return CompletableResultCode.ofSuccess();
+        } catch (IOException ex) {
+            return CompletableResultCode.ofFailure();
+        }
+    }
+
+    @Override
+    public synchronized CompletableResultCode shutdown() {
+        if (writer == null)
+            return CompletableResultCode.ofSuccess();
+
+        try {
+            writer.close();
+            return CompletableResultCode.ofSuccess();
+        } catch (IOException ex) {
+            return CompletableResultCode.ofFailure();
+        } finally {
+            writer = null;
+        }
+    }
+
+    /**
+     * Convert a span to a flat JSON object
+     */
+    private JSONObject toJson(SpanData span) {
+        JSONObject attributes = new JSONObject();
+        span.getAttributes().forEach((AttributeKey<?> key, Object value) -> attributes.put(key.getKey(), value));
+
+        JSONObject json = new JSONObject();
+        json.put("traceId", span.getTraceId());
+        json.put("spanId", span.getSpanId());
+        json.put("parentSpanId", span.getParentSpanId());
+        json.put("name", span.getName());
+        json.put("kind", span.getKind().name());
+        json.put("startEpochNanos", span.getStartEpochNanos());
+        json.put("endEpochNanos", span.getEndEpochNanos());
+        json.put("durationMicros", (span.getEndEpochNanos() - span.getStartEpochNanos()) / 1000);
+        json.put("status", span.getStatus().getStatusCode().name());
+        json.put("attributes", attributes);
+        return json;
+    }
+}
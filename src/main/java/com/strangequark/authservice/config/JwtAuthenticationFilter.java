@@ -5,6 +5,8 @@ import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.strangequark.authservice.error.ErrorResponse;
 import io.jsonwebtoken.ExpiredJwtException;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -43,15 +45,23 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
      */
     private final UserDetailsService userDetailsService;
 
+    /**
+     * {@link ObservationRegistry} for tracing the token checks
+     */
+    private final ObservationRegistry observationRegistry;
+
     /**
      * Constructs a new {@code JwtAuthenticationFilter} with the given dependencies.
      *
      * @param jwtService {@link JwtService} for performing operations on the JWT in the request
      * @param userDetailsService {@link UserDetailsService} for loading user details
+     * @param observationRegistry {@link ObservationRegistry} for tracing the token checks
      */
-    public JwtAuthenticationFilter(JwtService jwtService, UserDetailsService userDetailsService) {
+    public JwtAuthenticationFilter(JwtService jwtService, UserDetailsService userDetailsService,
+                                   ObservationRegistry observationRegistry) {
         this.jwtService = jwtService;
         this.userDetailsService = userDetailsService;
+        this.observationRegistry = observationRegistry;
     }
 
     /**
@@ -65,6 +75,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         return path.matches("^/api/auth/register$") ||
                 path.matches("^/api/auth/authenticate$") ||
                 path.matches("^/api/auth/health$") ||
+                path.matches("^/api/auth/check(/.*)?$") ||
                 path.matches("^/api/auth/internal/bootstrap$") ||
                 path.matches("^/api/auth/service-account/authenticate$");
     }
@@ -91,7 +102,6 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
             final String authorizationHeader = request.getHeader("Authorization");
             final String jwtToken;
-            final String username;
             final boolean isRefreshToken;
 
             //Check if the authorizationHeader is null or does not start with "Bearer "
@@ -107,37 +117,48 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             //Insert the authorization header, excluding the "Bearer " substring
             jwtToken = authorizationHeader.substring(7);
 
-            //Extract the username from the JWT token
-            username = jwtService.extractUsername(jwtToken, isRefreshToken);
-            LOGGER.debug("Username successfully extracted from JWT token");
-
-            //SecurityContextHolder.getContext().getAuthentication() == null -> User is not yet authenticated (Connected)
-            if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                LOGGER.debug("Username and SecurityContextHolder are valid");
-
-                //Load the UserDetails of the user
-                UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
-
-                LOGGER.debug("Checking that JWT token is valid");
-                //Check if the JWT token is valid for the user
-                if (jwtService.isTokenValid(jwtToken, userDetails, isRefreshToken)) {
-                    LOGGER.debug("JWT token confirmed valid");
-
-                    //Create a new authentication token from the UserDetails
-                    UsernamePasswordAuthenticationToken authenticationToken = new UsernamePasswordAuthenticationToken(
-                            userDetails,
-                            null,
-                            userDetails.getAuthorities()
-                    );
-
-                    //Enforce the authentication token with the details from our request
-                    authenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-
-                    //Update the security context holder
-                    SecurityContextHolder.getContext().setAuthentication(authenticationToken);
-
-                    LOGGER.debug("Security context holder updated");
+            //Observe the token checks only, the rest of the chain has its own observations
+            Observation observation = Observation.createNotStarted("auth.jwt.filter", observationRegistry)
+                    .lowCardinalityKeyValue("token", isRefreshToken ? "refresh" : "access")
+                    .start();
+            try (Observation.Scope scope = observation.openScope()) {
+                //Extract the username from the JWT token
+                final String username = jwtService.extractUsername(jwtToken, isRefreshToken);
+                LOGGER.debug("Username successfully extracted from JWT token");
+
+                //SecurityContextHolder.getContext().getAuthentication() == null -> User is not yet authenticated (Connected)
+                if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+                    LOGGER.debug("Username and SecurityContextHolder are valid");
+
+                    //Load the UserDetails of the user
+                    UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
+
+                    LOGGER.debug("Checking that JWT token is valid");
+                    //Check if the JWT token is valid for the user
+                    if (jwtService.isTokenValid(jwtToken, userDetails, isRefreshToken)) {
+                        LOGGER.debug("JWT token confirmed valid");
+
+                        //Create a new authentication token from the UserDetails
+                        UsernamePasswordAuthenticationToken authenticationToken = new UsernamePasswordAuthenticationToken(
+                                userDetails,
+                                null,
+                                userDetails.getAuthorities()
+                        );
+
+                        //Enforce the authentication token with the details from our request
+                        authenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+
+                        //Update the security context holder
+                        SecurityContextHolder.getContext().setAuthentication(authenticationToken);
+
+                        LOGGER.debug("Security context holder updated");
+                    }
                 }
+            } catch (RuntimeException ex) {
+                observation.error(ex);
+                throw ex;
+            } finally {
+                observation.stop();
             }
 
             LOGGER.debug("doFilterInternal complete, passing request to next filter");
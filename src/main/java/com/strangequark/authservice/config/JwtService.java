@@ -1,5 +1,6 @@
 package com.strangequark.authservice.config;
 
+import com.strangequark.authservice.profiling.TokenVerificationEvent;
 import com.strangequark.authservice.serviceaccount.ServiceAccount;
 import com.strangequark.authservice.user.User;
 import io.jsonwebtoken.Claims;
@@ -7,6 +8,8 @@ import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseCookie;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -44,6 +47,20 @@ public class JwtService {
      */
     private final int REFRESH_TOKEN_EXPIRATION_TIME = 1000 * 60 * 60 * 24 * 14;//14 days
 
+    /**
+     * {@link ObservationRegistry} for timing token signing and verification
+     */
+    private final ObservationRegistry observationRegistry;
+
+    /**
+     * Constructs a new {@code JwtService} with the given dependencies.
+     *
+     * @param observationRegistry {@link ObservationRegistry} for timing token signing and verification
+     */
+    public JwtService(ObservationRegistry observationRegistry) {
+        this.observationRegistry = observationRegistry;
+    }
+
     /**
      * Extract the username from the JWT token
      * @param jwtToken The JWT token from which the username is to be extracted
@@ -74,12 +91,23 @@ public class JwtService {
      * @return The Claims contained in the JWT token
      */
     private Claims extractAllClaims(String jwtToken, boolean isRefreshToken) {
-        return Jwts
-                .parserBuilder()
-                .setSigningKey(getSigningKey(isRefreshToken))
-                .build()
-                .parseClaimsJws(jwtToken)
-                .getBody();
+        TokenVerificationEvent event = new TokenVerificationEvent();
+        event.tokenType = isRefreshToken ? "refresh" : "access";
+        event.begin();
+        try {
+            Claims claims = Observation.createNotStarted("auth.jwt.verify", observationRegistry)
+                    .lowCardinalityKeyValue("token", isRefreshToken ? "refresh" : "access")
+                    .observe(() -> Jwts
+                            .parserBuilder()
+                            .setSigningKey(getSigningKey(isRefreshToken))
+                            .build()
+                            .parseClaimsJws(jwtToken)
+                            .getBody());
+            event.valid = true;
+            return claims;
+        } finally {
+            event.commit();
+        }
     }
 
     /**
@@ -89,7 +117,9 @@ public class JwtService {
      * @return Generated JWT token
      */
     public String generateToken(User user, boolean isRefreshToken) {
-        return Jwts
+        return Observation.createNotStarted("auth.jwt.sign", observationRegistry)
+                .lowCardinalityKeyValue("token", isRefreshToken ? "refresh" : "access")
+                .observe(() -> Jwts
                 .builder()
                 .setClaims(null)
                 .setId(user.getId().toString())
@@ -100,7 +130,7 @@ public class JwtService {
                 ))
                 .setAudience(isRefreshToken ? null : user.getAuthorizations().toString())
                 .signWith(getSigningKey(isRefreshToken), SignatureAlgorithm.HS256)
-                .compact();
+                .compact());
     }
 
     /**
@@ -110,7 +140,9 @@ public class JwtService {
      * @return Generated JWT token
      */
     public String generateServiceAccountToken(ServiceAccount serviceAccount, boolean isRefreshToken) {
-        return Jwts
+        return Observation.createNotStarted("auth.jwt.sign", observationRegistry)
+                .lowCardinalityKeyValue("token", isRefreshToken ? "service-account-refresh" : "service-account-access")
+                .observe(() -> Jwts
                 .builder()
                 .setClaims(null)
                 .setId(serviceAccount.getId().toString())
@@ -121,7 +153,7 @@ public class JwtService {
                 ))
 //                .setAudience(serviceAccount.getAuthorizations().toString())
                 .signWith(getSigningKey(isRefreshToken), SignatureAlgorithm.HS256)
-                .compact();
+                .compact());
     }
 
     /**
@@ -0,0 +1,58 @@
+package com.strangequark.authservice.config;
+
+import com.strangequark.authservice.auth.LoginAttemptService;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.LockedException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+
+/**
+ * {@link AuthenticationProvider} that rejects locked usernames before the delegate loads the user or verifies the
+ * password, and records the outcome of every attempt with the {@link LoginAttemptService}
+ */
+public class LoginAttemptAuthenticationProvider implements AuthenticationProvider {
+    /**
+     * {@link AuthenticationProvider} doing the real authentication
+     */
+    private final AuthenticationProvider delegate;
+
+    /**
+     * {@link LoginAttemptService} tracking failed logins
+     */
+    private final LoginAttemptService loginAttemptService;
+
+    /**
+     * Constructs a new {@code LoginAttemptAuthenticationProvider} with the given dependencies.
+     *
+     * @param delegate {@link AuthenticationProvider} doing the real authentication
+     * @param loginAttemptService {@link LoginAttemptService} tracking failed logins
+     */
+    public LoginAttemptAuthenticationProvider(AuthenticationProvider delegate, LoginAttemptService loginAttemptService) {
+        this.delegate = delegate;
+        this.loginAttemptService = loginAttemptService;
+    }
+
+    @Override
+    public Authentication authenticate(Authentication authentication) throws AuthenticationException {
+        String username = authentication.getName();
+
+        //Skip the user lookup and BCrypt entirely for locked usernames
+        if (loginAttemptService.isLocked(username))
+            throw new LockedException("User account is locked");
+
+        try {
+            Authentication result = delegate.authenticate(authentication);
+            loginAttemptService.reset(username);
+            return result;
+        } catch (BadCredentialsException ex) {
+            loginAttemptService.recordFailure(username);
+            throw ex;
+        }
+    }
+
+    @Override
+    public boolean supports(Class<?> authentication) {
+        return delegate.supports(authentication);
+    }
+}
@@ -0,0 +1,163 @@
+package com.strangequark.authservice.config;
+
+import com.strangequark.authservice.auth.LoginAttemptService;
+import com.strangequark.authservice.check.TokenCheckService;
+import com.strangequark.authservice.invalidation.CacheInvalidator;
+import com.strangequark.authservice.user.UserChangePublisher;
+import com.strangequark.authservice.user.UserLookupCache;
+import com.strangequark.authservice.utility.EmailUtility; // Integration line: Email
+import com.strangequark.authservice.utility.RateLimiter;
+import com.strangequark.authservice.utility.TelemetryUtility; // Integration line: Telemetry
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Spring {@link Configuration} exposing the counters the application already keeps as Micrometer meters.
+ * Request, repository and outbound HTTP timers come from Spring Boot's own instrumentation, and the
+ * JWT, password hashing and service method timers from {@link io.micrometer.observation.Observation}s.
+ */
+@Configuration
+public class MetricsConfig {
+
+    /** Integration function start: Telemetry
+     * {@link MeterBinder} for the telemetry publisher's queue and event counts
+     */
+    @Bean
+    public MeterBinder telemetryMeterBinder(TelemetryUtility telemetryUtility) {
+        return registry -> {
+            Gauge.builder("auth.telemetry.queue.depth", telemetryUtility, TelemetryUtility::getQueueDepth)
+                    .description("Telemetry events waiting to be published")
+                    .register(registry);
+            FunctionCounter.builder("auth.telemetry.events", telemetryUtility, TelemetryUtility::getEnqueuedEventCount)
+                    .tag("state", "enqueued").register(registry);
+            FunctionCounter.builder("auth.telemetry.events", telemetryUtility, TelemetryUtility::getDroppedEventCount)
+                    .tag("state", "dropped").register(registry);
+            FunctionCounter.builder("auth.telemetry.events", telemetryUtility, TelemetryUtility::getAggregatedEventCount)
+                    .tag("state", "aggregated").register(registry);
+            FunctionCounter.builder("auth.telemetry.events", telemetryUtility, TelemetryUtility::getSentEventCount)
+                    .tag("state", "sent").register(registry);
+            FunctionCounter.builder("auth.telemetry.events", telemetryUtility, TelemetryUtility::getFailedEventCount)
+                    .tag("state", "failed").register(registry);
+        };
+    }
+    // Integration function end: Telemetry
+
+    /** Integration function start: Email
+     * {@link MeterBinder} for emails handed to Kafka
+     */
+    @Bean
+    public MeterBinder emailMeterBinder(EmailUtility emailUtility) {
+        return registry -> {
+            FunctionTimer.builder("auth.email.send", emailUtility,
+                            e -> e.getEmailsSentCount() + e.getEmailsFailedCount(),
+                            EmailUtility::getEmailSendLatencyTotalNanos, TimeUnit.NANOSECONDS)
+                    .description("Emails sent through Kafka")
+                    .register(registry);
+            Gauge.builder("auth.email.send.max", emailUtility, e -> e.getEmailSendMaxLatencyNanos() / 1e9)
+                    .baseUnit("seconds")
+                    .register(registry);
+            FunctionCounter.builder("auth.email.failures", emailUtility, EmailUtility::getEmailsFailedCount)
+                    .register(registry);
+        };
+    }
+    // Integration function end: Email
+
+    /**
+     * {@link MeterBinder} for rejections and bucket counts of every {@link RateLimiter}
+     */
+    @Bean
+    public MeterBinder rateLimitMeterBinder(List<RateLimiter> rateLimiters) {
+        return registry -> rateLimiters.forEach(rateLimiter -> {
+            FunctionCounter.builder("auth.ratelimit.rejected", rateLimiter, r -> r.getIpLimiter().getRejectedCount())
+                    .tags("route", rateLimiter.getRoute(), "key", "ip").register(registry);
+            FunctionCounter.builder("auth.ratelimit.rejected", rateLimiter, r -> r.getAccountLimiter().getRejectedCount())
+                    .tags("route", rateLimiter.getRoute(), "key", "account").register(registry);
+            Gauge.builder("auth.ratelimit.buckets", rateLimiter, r -> r.getIpLimiter().size())
+                    .tags("route", rateLimiter.getRoute(), "key", "ip").register(registry);
+            Gauge.builder("auth.ratelimit.buckets", rateLimiter, r -> r.getAccountLimiter().size())
+                    .tags("route", rateLimiter.getRoute(), "key", "account").register(registry);
+        });
+    }
+
+    /**
+     * {@link MeterBinder} for failed login lockouts
+     */
+    @Bean
+    public MeterBinder loginAttemptMeterBinder(LoginAttemptService loginAttemptService) {
+        return registry -> {
+            FunctionCounter.builder("auth.login.lockouts", loginAttemptService, LoginAttemptService::getLockCount)
+                    .register(registry);
+            Gauge.builder("auth.login.tracked", loginAttemptService, LoginAttemptService::getTrackedCount)
+                    .register(registry);
+        };
+    }
+
+    /**
+     * {@link MeterBinder} for the user change feed's queue and record counts
+     */
+    @Bean
+    public MeterBinder userChangeMeterBinder(UserChangePublisher userChangePublisher) {
+        return registry -> {
+            Gauge.builder("auth.user.changes.queue.depth", userChangePublisher, UserChangePublisher::getQueueDepth)
+                    .description("User changes waiting to be published")
+                    .register(registry);
+            FunctionCounter.builder("auth.user.changes", userChangePublisher, UserChangePublisher::getPublishedCount)
+                    .tag("state", "published").register(registry);
+            FunctionCounter.builder("auth.user.changes", userChangePublisher, UserChangePublisher::getFailedCount)
+                    .tag("state", "failed").register(registry);
+            FunctionCounter.builder("auth.user.changes", userChangePublisher, UserChangePublisher::getDroppedCount)
+                    .tag("state", "dropped").register(registry);
+        };
+    }
+
+    /**
+     * {@link MeterBinder} for hits, misses and evictions of the {@link UserLookupCache}
+     */
+    @Bean
+    public MeterBinder userLookupCacheMeterBinder(UserLookupCache userLookupCache) {
+        return registry -> CaffeineCacheMetrics.monitor(registry, userLookupCache.getCache(), "user-lookup");
+    }
+
+    /**
+     * {@link MeterBinder} for hits, misses and evictions of the verified tokens cached by the {@link TokenCheckService}
+     */
+    @Bean
+    public MeterBinder verifiedTokenCacheMeterBinder(TokenCheckService tokenCheckService) {
+        return registry -> CaffeineCacheMetrics.monitor(registry, tokenCheckService.getCache(), "verified-token");
+    }
+
+    /**
+     * {@link MeterBinder} for invalidations sent and received over the invalidation bus
+     */
+    @Bean
+    public MeterBinder cacheInvalidationMeterBinder(CacheInvalidator cacheInvalidator) {
+        return registry -> {
+            FunctionCounter.builder("auth.cache.invalidations", cacheInvalidator, CacheInvalidator::getPublishedCount)
+                    .tag("direction", "published").register(registry);
+            FunctionCounter.builder("auth.cache.invalidations", cacheInvalidator, CacheInvalidator::getReceivedCount)
+                    .tag("direction", "received").register(registry);
+        };
+    }
+
+    /**
+     * {@link MeterBinder} for virtual threads pinned to their carrier
+     */
+    @Bean
+    public MeterBinder virtualThreadPinningMeterBinder(VirtualThreadPinningMonitor pinningMonitor) {
+        return registry -> {
+            FunctionCounter.builder("jvm.threads.virtual.pinned", pinningMonitor, VirtualThreadPinningMonitor::getPinnedEventCount)
+                    .register(registry);
+            FunctionCounter.builder("jvm.threads.virtual.pinned.time", pinningMonitor, m -> m.getPinnedNanosTotal() / 1e9)
+                    .baseUnit("seconds")
+                    .register(registry);
+        };
+    }
+}
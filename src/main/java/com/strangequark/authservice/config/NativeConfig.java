@@ -0,0 +1,81 @@
+package com.strangequark.authservice.config;
+
+import com.strangequark.authservice.auth.AuthenticationResponse;
+import com.strangequark.authservice.auth.RegistrationResponse;
+import com.strangequark.authservice.error.ErrorResponse;
+import com.strangequark.authservice.profiling.RecordingResponse;
+import com.strangequark.authservice.user.UpdateUsernameResponse;
+import com.strangequark.authservice.user.UserDeletionJobResponse;
+import com.strangequark.authservice.user.UserPageResponse;
+import com.strangequark.authservice.user.UserResolveResponse;
+import com.strangequark.authservice.user.UserResponse;
+import com.strangequark.authservice.utility.RoleEncryptDecryptConverter;
+import com.strangequark.authservice.utility.StringEncryptDecryptConverter;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+/**
+ * Spring {@link Configuration} holding the reachability metadata for the native image.
+ * Response bodies are registered for Jackson because services return them as {@code ResponseEntity<?>}, which
+ * hides their types from Spring's ahead-of-time processing.
+ */
+@Configuration
+@ImportRuntimeHints(NativeConfig.AuthServiceRuntimeHints.class)
+@RegisterReflectionForBinding({
+        AuthenticationResponse.class,
+        RegistrationResponse.class,
+        ErrorResponse.class,
+        RecordingResponse.class,
+        UpdateUsernameResponse.class,
+        UserDeletionJobResponse.class,
+        UserPageResponse.class,
+        UserResolveResponse.class,
+        UserResponse.class
+})
+public class NativeConfig {
+
+    /**
+     * {@link RuntimeHintsRegistrar} for the classes that libraries load by name or instantiate reflectively
+     */
+    public static class AuthServiceRuntimeHints implements RuntimeHintsRegistrar {
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            //jjwt-api loads its implementation by class name, and jjwt-impl finds the serializers with a ServiceLoader
+            for (String type : new String[] {
+                    "io.jsonwebtoken.impl.DefaultJwtBuilder",
+                    "io.jsonwebtoken.impl.DefaultJwtParserBuilder",
+                    "io.jsonwebtoken.impl.DefaultJwtParser",
+                    "io.jsonwebtoken.jackson.io.JacksonSerializer",
+                    "io.jsonwebtoken.jackson.io.JacksonDeserializer"})
+                hints.reflection().registerType(TypeReference.of(type), MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+            hints.resources().registerPattern("META-INF/services/io.jsonwebtoken.io.*");
+
+            //Hibernate instantiates @Convert converters and resolves their attribute types from the method signatures
+            for (Class<?> converter : new Class<?>[] {StringEncryptDecryptConverter.class, RoleEncryptDecryptConverter.class})
+                hints.reflection().registerType(converter,
+                        MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS);
+
+            //Kafka clients create the configured serializers and the default metrics reporter from class names
+            for (String type : new String[] {
+                    "org.apache.kafka.common.serialization.StringSerializer",
+                    "org.apache.kafka.common.serialization.StringDeserializer",
+                    "org.apache.kafka.common.metrics.JmxReporter"})
+                hints.reflection().registerType(TypeReference.of(type), MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+            hints.resources().registerPattern("kafka/kafka-version.properties");
+
+            //org.json is only given strings and maps, which it handles without reflection, so it needs no hints.
+            //Passing it a bean would make it introspect the bean's getters, which would then need registering here
+
+            //logback-spring.xml wires the AsyncAppender up through its setters
+            hints.reflection().registerType(TypeReference.of("ch.qos.logback.classic.AsyncAppender"),
+                    MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS);
+            hints.resources().registerPattern("logback-spring.xml");
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.strangequark.authservice.config;
+
+import com.strangequark.authservice.profiling.PasswordHashEvent;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * {@link PasswordEncoder} that times every encode and match of its delegate as an {@link Observation}
+ * and a {@link PasswordHashEvent}
+ */
+public class ObservedPasswordEncoder implements PasswordEncoder {
+    /**
+     * {@link PasswordEncoder} doing the real hashing
+     */
+    private final PasswordEncoder delegate;
+
+    /**
+     * {@link ObservationRegistry} for timing hashing
+     */
+    private final ObservationRegistry observationRegistry;
+
+    /**
+     * Constructs a new {@code ObservedPasswordEncoder} with the given dependencies.
+     *
+     * @param delegate {@link PasswordEncoder} doing the real hashing
+     * @param observationRegistry {@link ObservationRegistry} for timing hashing
+     */
+    public ObservedPasswordEncoder(PasswordEncoder delegate, ObservationRegistry observationRegistry) {
+        this.delegate = delegate;
+        this.observationRegistry = observationRegistry;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        PasswordHashEvent event = new PasswordHashEvent();
+        event.operation = "encode";
+        event.begin();
+        try {
+            return Observation.createNotStarted("auth.password.encode", observationRegistry)
+                    .observe(() -> delegate.encode(rawPassword));
+        } finally {
+            event.commit();
+        }
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        PasswordHashEvent event = new PasswordHashEvent();
+        event.operation = "match";
+        event.begin();
+        Observation observation = Observation.createNotStarted("auth.password.match", observationRegistry).start();
+        try {
+            boolean matches = delegate.matches(rawPassword, encodedPassword);
+            observation.lowCardinalityKeyValue("result", matches ? "match" : "mismatch");
+            event.matched = matches;
+            return matches;
+        } catch (RuntimeException ex) {
+            observation.lowCardinalityKeyValue("result", "error");
+            observation.error(ex);
+            throw ex;
+        } finally {
+            observation.stop();
+            event.commit();
+        }
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+}
@@ -0,0 +1,122 @@
+package com.strangequark.authservice.config;
+
+import com.strangequark.authservice.profiling.OutboundHttpEventInterceptor;
+import com.strangequark.authservice.standin.StandIns;
+import io.micrometer.common.KeyValue;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.http.client.observation.ClientRequestObservationContext;
+import org.springframework.http.client.observation.DefaultClientRequestObservationConvention;
+import org.springframework.web.client.RestClient;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+
+/**
+ * Spring {@link Configuration} for the shared outbound HTTP clients.
+ * Each downstream dependency gets one long-lived {@link RestClient} backed by a JDK {@link HttpClient}, which keeps
+ * connections alive and reuses them across requests. Calls are recorded by the {@code http.client.requests}
+ * observation Spring Boot registers on the builder, with {@code client.name} set to the dependency.
+ */
+@Configuration
+public class OutboundClientConfig {
+    /**
+     * HTTP version preferred by the outbound clients. HTTP/2 is negotiated during the TLS handshake for https
+     * endpoints, but over plain http every new connection would first attempt an h2c upgrade
+     */
+    @Value("${outbound.http-version:HTTP_1_1}")
+    private HttpClient.Version httpVersion;
+
+    /**
+     * {@link StandIns} answering calls in-process, only present with the standin profile
+     */
+    @Autowired(required = false)
+    private StandIns standIns;
+
+    /** Integration function start: Email
+     * {@link RestClient} for the EmailService
+     */
+    @Bean
+    public RestClient emailRestClient(RestClient.Builder builder,
+                                      @Value("${outbound.email.base-url:http://email-service:6005}") String baseUrl,
+                                      @Value("${outbound.email.connect-timeout-ms:1000}") long connectTimeoutMs,
+                                      @Value("${outbound.email.read-timeout-ms:3000}") long readTimeoutMs) {
+        return buildRestClient(builder, "email", baseUrl, connectTimeoutMs, readTimeoutMs);
+    }
+    // Integration function end: Email
+    /** Integration function start: File
+     * {@link RestClient} for the FileService
+     */
+    @Bean
+    public RestClient fileRestClient(RestClient.Builder builder,
+                                     @Value("${outbound.file.base-url:http://file-service:6010}") String baseUrl,
+                                     @Value("${outbound.file.connect-timeout-ms:1000}") long connectTimeoutMs,
+                                     @Value("${outbound.file.read-timeout-ms:5000}") long readTimeoutMs) {
+        return buildRestClient(builder, "file", baseUrl, connectTimeoutMs, readTimeoutMs);
+    }
+    // Integration function end: File
+    /** Integration function start: Vault
+     * {@link RestClient} for the VaultService
+     */
+    @Bean
+    public RestClient vaultRestClient(RestClient.Builder builder,
+                                      @Value("${outbound.vault.base-url:http://vault-service:6020}") String baseUrl,
+                                      @Value("${outbound.vault.connect-timeout-ms:1000}") long connectTimeoutMs,
+                                      @Value("${outbound.vault.read-timeout-ms:5000}") long readTimeoutMs) {
+        return buildRestClient(builder, "vault", baseUrl, connectTimeoutMs, readTimeoutMs);
+    }
+    // Integration function end: Vault
+
+    /**
+     * Build a {@link RestClient} for a single dependency with its own connection pool, timeouts and metrics
+     * @param builder {@link RestClient.Builder} provided by Spring Boot
+     * @param dependency Name of the dependency, used for metrics
+     * @param baseUrl Base URL of the dependency
+     * @param connectTimeoutMs Connect timeout in milliseconds
+     * @param readTimeoutMs Time in milliseconds to wait for a response
+     * @return {@link RestClient} for the dependency
+     */
+    private RestClient buildRestClient(RestClient.Builder builder, String dependency, String baseUrl,
+                                       long connectTimeoutMs, long readTimeoutMs) {
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(httpVersion)
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .build();
+
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(Duration.ofMillis(readTimeoutMs));
+
+        builder
+                .baseUrl(baseUrl)
+                .requestFactory(requestFactory)
+                .observationConvention(new DependencyObservationConvention(dependency))
+                .requestInterceptor(new OutboundHttpEventInterceptor(dependency));
+
+        //Added last so the stand-in's latency is measured like a real call
+        if (standIns != null)
+            builder.requestInterceptor(standIns.httpInterceptor(dependency, readTimeoutMs));
+
+        return builder.build();
+    }
+
+    /**
+     * Default {@code http.client.requests} observation, with {@code client.name} set to the dependency instead of
+     * the host, so metrics keep the same tag whether calls go to the service, a stand-in or a local override
+     */
+    private static class DependencyObservationConvention extends DefaultClientRequestObservationConvention {
+        private final KeyValue clientName;
+
+        DependencyObservationConvention(String dependency) {
+            this.clientName = KeyValue.of("client.name", dependency);
+        }
+
+        @Override
+        protected KeyValue clientName(ClientRequestObservationContext context) {
+            return clientName;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.strangequark.authservice.config;
+
+import com.strangequark.authservice.utility.RateLimiter;
+import com.strangequark.authservice.utility.TokenBucketRateLimiter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Spring {@link Configuration} for the rate limits on public credential endpoints.
+ * Each route gets its own {@link RateLimiter} with a per-IP and a per-account budget.
+ */
+@Configuration
+public class RateLimitConfig {
+    /**
+     * Whether rate limiting is applied
+     */
+    @Value("${rate-limit.enabled:true}")
+    private boolean enabled;
+
+    /**
+     * Maximum number of buckets per limiter, buckets of rarely seen keys are evicted first
+     */
+    @Value("${rate-limit.max-keys:65536}")
+    private long maxKeys;
+
+    /**
+     * {@link RateLimiter} for /api/auth/authenticate, keyed by client IP and username
+     */
+    @Bean
+    public RateLimiter authenticateRateLimiter(
+            @Value("${rate-limit.authenticate.ip.capacity:30}") int ipCapacity,
+            @Value("${rate-limit.authenticate.ip.period-seconds:60}") long ipPeriodSeconds,
+            @Value("${rate-limit.authenticate.account.capacity:10}") int accountCapacity,
+            @Value("${rate-limit.authenticate.account.period-seconds:60}") long accountPeriodSeconds) {
+        return buildRateLimiter("authenticate", ipCapacity, ipPeriodSeconds, accountCapacity, accountPeriodSeconds);
+    }
+
+    /**
+     * {@link RateLimiter} for /api/auth/service-account/authenticate, keyed by client IP and client ID
+     */
+    @Bean
+    public RateLimiter serviceAccountAuthenticateRateLimiter(
+            @Value("${rate-limit.service-account-authenticate.ip.capacity:60}") int ipCapacity,
+            @Value("${rate-limit.service-account-authenticate.ip.period-seconds:60}") long ipPeriodSeconds,
+            @Value("${rate-limit.service-account-authenticate.account.capacity:30}") int accountCapacity,
+            @Value("${rate-limit.service-account-authenticate.account.period-seconds:60}") long accountPeriodSeconds) {
+        return buildRateLimiter("service-account-authenticate", ipCapacity, ipPeriodSeconds, accountCapacity, accountPeriodSeconds);
+    }
+
+    /** Integration function start: Email
+     * {@link RateLimiter} for /api/auth/user/send-password-reset-email, keyed by client IP and username or email
+     */
+    @Bean
+    public RateLimiter passwordResetEmailRateLimiter(
+            @Value("${rate-limit.password-reset-email.ip.capacity:10}") int ipCapacity,
+            @Value("${rate-limit.password-reset-email.ip.period-seconds:600}") long ipPeriodSeconds,
+            @Value("${rate-limit.password-reset-email.account.capacity:3}") int accountCapacity,
+            @Value("${rate-limit.password-reset-email.account.period-seconds:900}") long accountPeriodSeconds) {
+        return buildRateLimiter("password-reset-email", ipCapacity, ipPeriodSeconds, accountCapacity, accountPeriodSeconds);
+    }
+    // Integration function end: Email
+
+    /**
+     * Build the {@link RateLimiter} for a single route
+     * @param route Name of the route
+     * @param ipCapacity Requests allowed per client IP in a burst
+     * @param ipPeriodSeconds Seconds to refill a client IP's budget completely
+     * @param accountCapacity Requests allowed per account in a burst
+     * @param accountPeriodSeconds Seconds to refill an account's budget completely
+     * @return {@link RateLimiter} for the route
+     */
+    private RateLimiter buildRateLimiter(String route, int ipCapacity, long ipPeriodSeconds,
+                                         int accountCapacity, long accountPeriodSeconds) {
+        return new RateLimiter(route, enabled,
+                new TokenBucketRateLimiter(ipCapacity, Duration.ofSeconds(ipPeriodSeconds), maxKeys),
+                new TokenBucketRateLimiter(accountCapacity, Duration.ofSeconds(accountPeriodSeconds), maxKeys));
+    }
+}
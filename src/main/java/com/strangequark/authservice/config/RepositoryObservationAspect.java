@@ -0,0 +1,68 @@
+package com.strangequark.authservice.config;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+/**
+ * Observes every call to one of the application's Spring Data repositories, so each query shows up as a span
+ * under the service method that made it
+ */
+@Aspect
+@Component
+public class RepositoryObservationAspect {
+    /**
+     * {@link ObservationRegistry} for observing repository calls
+     */
+    private final ObservationRegistry observationRegistry;
+
+    /**
+     * Constructs a new {@code RepositoryObservationAspect} with the given dependencies.
+     *
+     * @param observationRegistry {@link ObservationRegistry} for observing repository calls
+     */
+    public RepositoryObservationAspect(ObservationRegistry observationRegistry) {
+        this.observationRegistry = observationRegistry;
+    }
+
+    /**
+     * Observe a repository call
+     * @param joinPoint The repository method being called
+     * @return The repository method's result
+     * @throws Throwable Anything the repository method throws, after it has been recorded
+     */
+    @Around("execution(* com.strangequark.authservice..*Repository+.*(..))")
+    public Object observe(ProceedingJoinPoint joinPoint) throws Throwable {
+        String repository = repositoryName(joinPoint);
+        String method = joinPoint.getSignature().getName();
+
+        Observation observation = Observation.createNotStarted("auth.repository", observationRegistry)
+                .contextualName(repository + "." + method)
+                .lowCardinalityKeyValue("repository", repository)
+                .lowCardinalityKeyValue("method", method)
+                .start();
+
+        try (Observation.Scope scope = observation.openScope()) {
+            return joinPoint.proceed();
+        } catch (Throwable ex) {
+            observation.error(ex);
+            throw ex;
+        } finally {
+            observation.stop();
+        }
+    }
+
+    /**
+     * Resolve the repository interface name, the target itself being a generated proxy
+     */
+    private String repositoryName(ProceedingJoinPoint joinPoint) {
+        for (Class<?> repositoryInterface : joinPoint.getThis().getClass().getInterfaces()) {
+            if (repositoryInterface.getName().startsWith("com.strangequark.authservice."))
+                return repositoryInterface.getSimpleName();
+        }
+        return joinPoint.getSignature().getDeclaringType().getSimpleName();
+    }
+}
@@ -0,0 +1,73 @@
+package com.strangequark.authservice.config;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+/**
+ * Times every public {@link org.springframework.stereotype.Service} method that answers a request with a
+ * {@link ResponseEntity}, tagged with the service, the method and the status it returned
+ */
+@Aspect
+@Component
+public class ServiceObservationAspect {
+    /**
+     * {@link ObservationRegistry} for timing service methods
+     */
+    private final ObservationRegistry observationRegistry;
+
+    /**
+     * Constructs a new {@code ServiceObservationAspect} with the given dependencies.
+     *
+     * @param observationRegistry {@link ObservationRegistry} for timing service methods
+     */
+    public ServiceObservationAspect(ObservationRegistry observationRegistry) {
+        this.observationRegistry = observationRegistry;
+    }
+
+    /**
+     * Observe a service method, recording the status of the {@link ResponseEntity} it returns
+     * @param joinPoint The service method being called
+     * @return The service method's result
+     * @throws Throwable Anything the service method throws, after it has been recorded
+     */
+    @Around("within(com.strangequark.authservice..*) && @within(org.springframework.stereotype.Service) " +
+            "&& execution(public org.springframework.http.ResponseEntity *(..))")
+    public Object observe(ProceedingJoinPoint joinPoint) throws Throwable {
+        String service = joinPoint.getSignature().getDeclaringType().getSimpleName();
+        String method = joinPoint.getSignature().getName();
+
+        Observation observation = Observation.createNotStarted("auth.service", observationRegistry)
+                .contextualName(service + "." + method)
+                .lowCardinalityKeyValue("service", service)
+                .lowCardinalityKeyValue("method", method)
+                .start();
+
+        try (Observation.Scope scope = observation.openScope()) {
+            Object result = joinPoint.proceed();
+
+            //Some internal paths return null instead of a response
+            if (result instanceof ResponseEntity<?> response) {
+                int status = response.getStatusCode().value();
+                observation.lowCardinalityKeyValue("status", String.valueOf(status));
+                observation.lowCardinalityKeyValue("outcome", status >= 500 ? "SERVER_ERROR" : status >= 400 ? "CLIENT_ERROR" : "SUCCESS");
+            } else {
+                observation.lowCardinalityKeyValue("status", "none");
+                observation.lowCardinalityKeyValue("outcome", "UNKNOWN");
+            }
+
+            return result;
+        } catch (Throwable ex) {
+            observation.lowCardinalityKeyValue("status", "exception");
+            observation.lowCardinalityKeyValue("outcome", "SERVER_ERROR");
+            observation.error(ex);
+            throw ex;
+        } finally {
+            observation.stop();
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.strangequark.authservice.config;
+
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Spring {@link Configuration} for exporting trace spans. Spans come from the application's
+ * {@link io.micrometer.observation.Observation}s, bridged to OpenTelemetry, and Spring Boot hands every
+ * {@link SpanExporter} bean to the tracer provider.
+ */
+@Configuration
+public class TracingConfig {
+
+    /**
+     * {@link Bean} writing spans to a local file, enabled by setting tracing.exporter.file.path
+     * @param path File to append spans to
+     * @return {@link FileSpanExporter} for the file
+     * @throws IOException If the file cannot be opened
+     */
+    @Bean
+    @ConditionalOnProperty(name = "tracing.exporter.file.path")
+    public SpanExporter fileSpanExporter(@Value("${tracing.exporter.file.path}") Path path) throws IOException {
+        return new FileSpanExporter(path);
+    }
+}
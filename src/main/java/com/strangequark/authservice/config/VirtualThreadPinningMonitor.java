@@ -0,0 +1,188 @@
+package com.strangequark.authservice.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Reports virtual threads that stay pinned to their carrier thread, using the JFR {@code jdk.VirtualThreadPinned} event.
+ * Each pinning site is logged once at WARN with its stack, and counted on every occurrence.
+ */
+@Component
+public class VirtualThreadPinningMonitor {
+    private static final Logger LOGGER = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+
+    /**
+     * Name of the JFR event emitted when a virtual thread parks while pinned
+     */
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    /**
+     * Number of stack frames logged from the pinning site outwards, after the JDK frames above it
+     */
+    private static final int LOGGED_FRAMES = 8;
+
+    /**
+     * Whether the monitor is running, defaults to on whenever virtual threads are enabled
+     */
+    @Value("${threads.pinning-monitor.enabled:false}")
+    private boolean enabled;
+
+    /**
+     * Minimum pinned duration in milliseconds that is reported
+     */
+    @Value("${threads.pinning-monitor.threshold-ms:20}")
+    private long thresholdMs;
+
+    /**
+     * Number of pinning events seen
+     */
+    private final LongAdder pinnedEvents = new LongAdder();
+
+    /**
+     * Sum of pinned durations in nanoseconds
+     */
+    private final LongAdder pinnedNanos = new LongAdder();
+
+    /**
+     * Number of pinning events per site, keyed by the top stack frame
+     */
+    private final Map<String, LongAdder> pinnedSites = new ConcurrentHashMap<>();
+
+    /**
+     * JFR stream delivering pinning events, null when the monitor is disabled
+     */
+    private RecordingStream recordingStream;
+
+    /**
+     * Start streaming pinning events if the monitor is enabled
+     */
+    @PostConstruct
+    public void start() {
+        if (!enabled)
+            return;
+
+        try {
+            recordingStream = new RecordingStream();
+            recordingStream.enable(PINNED_EVENT).withThreshold(Duration.ofMillis(thresholdMs)).withStackTrace();
+            recordingStream.onEvent(PINNED_EVENT, this::onPinned);
+            recordingStream.startAsync();
+
+            LOGGER.info("Virtual thread pinning monitor started with a threshold of {}ms", thresholdMs);
+        } catch (Exception ex) {
+            //JFR may be unavailable, for example in some native or restricted runtimes
+            LOGGER.warn("Unable to start virtual thread pinning monitor: {}", ex.getMessage());
+            LOGGER.debug("Stack trace: ", ex);
+            recordingStream = null;
+        }
+    }
+
+    /**
+     * Stop streaming pinning events
+     */
+    @PreDestroy
+    public void stop() {
+        if (recordingStream != null)
+            recordingStream.close();
+    }
+
+    /**
+     * Count a pinning event and log its site the first time it is seen
+     * @param event JFR {@code jdk.VirtualThreadPinned} event
+     */
+    private void onPinned(RecordedEvent event) {
+        pinnedEvents.increment();
+        pinnedNanos.add(event.getDuration().toNanos());
+
+        RecordedStackTrace stackTrace = event.getStackTrace();
+        List<RecordedFrame> frames = stackTrace == null ? List.of() : stackTrace.getFrames();
+        int siteIndex = siteIndex(frames);
+        String site = frames.isEmpty() ? "unknown" : describe(frames.get(siteIndex));
+
+        LongAdder siteCount = pinnedSites.get(site);
+        if (siteCount == null) {
+            LongAdder newCount = new LongAdder();
+            siteCount = pinnedSites.putIfAbsent(site, newCount);
+            if (siteCount == null) {
+                siteCount = newCount;
+                StringBuilder stack = new StringBuilder();
+                for (int i = 0; i < Math.min(siteIndex + LOGGED_FRAMES, frames.size()); i++)
+                    stack.append("\n\tat ").append(describe(frames.get(i)));
+
+                LOGGER.warn("Virtual thread pinned for {}ms{}", event.getDuration().toMillis(), stack);
+            }
+        }
+        siteCount.increment();
+    }
+
+    /**
+     * Find the frame that caused a pin. The top frames are JDK parking and continuation internals shared by every
+     * pin, so the site is the first application frame, or failing that the first frame outside the JDK
+     * @param frames Frames of the pinned thread, innermost first
+     * @return Index of the site frame, 0 if no better frame is found
+     */
+    private static int siteIndex(List<RecordedFrame> frames) {
+        int outsideJdk = -1;
+        for (int i = 0; i < frames.size(); i++) {
+            String type = typeName(frames.get(i));
+            if (type == null)
+                continue;
+            if (type.startsWith("com.strangequark."))
+                return i;
+            if (outsideJdk < 0 && !type.startsWith("java.") && !type.startsWith("javax.")
+                    && !type.startsWith("jdk.") && !type.startsWith("sun."))
+                outsideJdk = i;
+        }
+        return Math.max(outsideJdk, 0);
+    }
+
+    private static String typeName(RecordedFrame frame) {
+        return frame.getMethod() == null ? null : frame.getMethod().getType().getName();
+    }
+
+    /**
+     * Format a stack frame like a Java stack trace line
+     * @param frame {@link RecordedFrame} to describe
+     */
+    private static String describe(RecordedFrame frame) {
+        if (frame.getMethod() == null)
+            return "unknown";
+
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+    }
+
+    /**
+     * Get the number of pinning events seen
+     */
+    public long getPinnedEventCount() {
+        return pinnedEvents.sum();
+    }
+
+    /**
+     * Get the sum of pinned durations in nanoseconds
+     */
+    public long getPinnedNanosTotal() {
+        return pinnedNanos.sum();
+    }
+
+    /**
+     * Get the number of pinning events per site, keyed by the top stack frame
+     */
+    public Map<String, LongAdder> getPinnedSites() {
+        return Collections.unmodifiableMap(pinnedSites);
+    }
+}
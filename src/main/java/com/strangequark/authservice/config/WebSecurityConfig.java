@@ -63,9 +63,13 @@ public class WebSecurityConfig {
                                 "/api/auth/register",
                                 "/api/auth/authenticate",
                                 "/api/auth/health",
+                                "/api/auth/check",
+                                "/api/auth/check/**",
                                 "/api/auth/user/send-password-reset-email",
                                 "/api/auth/internal/bootstrap",
-                                "/api/auth/service-account/authenticate"
+                                "/api/auth/service-account/authenticate",
+                                "/actuator/health/**",
+                                "/actuator/prometheus"
                         ).permitAll()
                         .anyRequest().authenticated()
                 )
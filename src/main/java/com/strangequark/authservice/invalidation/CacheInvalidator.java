@@ -0,0 +1,126 @@
+package com.strangequark.authservice.invalidation;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Service;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * {@link Service} applying invalidations to every {@link InvalidationHandler} of this node and broadcasting them
+ * to the other nodes through the {@link InvalidationBus}.
+ * Writers call this after the change is saved; the local caches are cleared before the method returns, the other
+ * nodes as soon as the bus delivers the message.
+ */
+@Service
+public class CacheInvalidator {
+    private static final Logger LOGGER = LoggerFactory.getLogger(CacheInvalidator.class);
+
+    /**
+     * ID of this node, so it can skip the messages it sent itself
+     */
+    private final String nodeId = UUID.randomUUID().toString();
+
+    /**
+     * {@link InvalidationBus} connecting the nodes
+     */
+    private final InvalidationBus invalidationBus;
+
+    /**
+     * {@link InvalidationHandler}s of this node, resolved on use so caches may depend on this service
+     */
+    private final ObjectProvider<InvalidationHandler> invalidationHandlers;
+
+    /**
+     * Number of invalidations published by this node
+     */
+    private final LongAdder publishedCount = new LongAdder();
+
+    /**
+     * Number of invalidations received from other nodes
+     */
+    private final LongAdder receivedCount = new LongAdder();
+
+    /**
+     * Constructs a new {@code CacheInvalidator} with the given dependencies.
+     *
+     * @param invalidationBus {@link InvalidationBus} connecting the nodes
+     * @param invalidationHandlers {@link InvalidationHandler}s of this node
+     */
+    public CacheInvalidator(InvalidationBus invalidationBus, ObjectProvider<InvalidationHandler> invalidationHandlers) {
+        this.invalidationBus = invalidationBus;
+        this.invalidationHandlers = invalidationHandlers;
+    }
+
+    /**
+     * Start listening for the invalidations of other nodes
+     */
+    @PostConstruct
+    void subscribe() {
+        invalidationBus.subscribe(this::receive);
+    }
+
+    /**
+     * Drop everything cached about a user, on every node
+     * @param userId ID of the user
+     */
+    public void invalidateUser(UUID userId) {
+        applyUser(userId);
+        publish(InvalidationMessage.Type.USER, userId.toString());
+    }
+
+    /**
+     * Get the number of invalidations published by this node
+     */
+    public long getPublishedCount() {
+        return publishedCount.sum();
+    }
+
+    /**
+     * Get the number of invalidations received from other nodes
+     */
+    public long getReceivedCount() {
+        return receivedCount.sum();
+    }
+
+    private void publish(InvalidationMessage.Type type, String value) {
+        publishedCount.increment();
+        invalidationBus.publish(new InvalidationMessage(type, value, nodeId));
+    }
+
+    /**
+     * Apply a message from another node
+     */
+    private void receive(InvalidationMessage message) {
+        if (nodeId.equals(message.origin()))
+            return;
+
+        receivedCount.increment();
+        try {
+            switch (message.type()) {
+                case USER -> applyUser(UUID.fromString(message.value()));
+            }
+        } catch (IllegalArgumentException ex) {
+            LOGGER.warn("Skipping invalidation message: {}", ex.getMessage());
+        }
+    }
+
+    private void applyUser(UUID userId) {
+        forEachHandler(handler -> handler.invalidateUser(userId));
+    }
+
+    private void forEachHandler(Consumer<InvalidationHandler> action) {
+        invalidationHandlers.orderedStream().forEach(handler -> {
+            try {
+                action.accept(handler);
+            } catch (Exception ex) {
+                LOGGER.error("Failed to apply invalidation to {}: {}", handler.getClass().getSimpleName(), ex.getMessage());
+                LOGGER.debug("Stack trace: ", ex);
+            }
+        });
+    }
+}
@@ -0,0 +1,76 @@
+package com.strangequark.authservice.invalidation;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * {@link InvalidationBus} delivering messages to every node in the same JVM on the same channel, for single-node
+ * deployments and for tests running several application contexts side by side.
+ * Messages are delivered synchronously on the publishing thread
+ */
+@Component
+@ConditionalOnProperty(name = "invalidation.bus.type", havingValue = "memory", matchIfMissing = true)
+public class InMemoryInvalidationBus implements InvalidationBus {
+    private static final Logger LOGGER = LoggerFactory.getLogger(InMemoryInvalidationBus.class);
+
+    /**
+     * Listeners of every channel in the JVM, keyed by channel name
+     */
+    private static final Map<String, List<Consumer<InvalidationMessage>>> CHANNELS = new ConcurrentHashMap<>();
+
+    /**
+     * Listeners of the channel this bus is connected to
+     */
+    private final List<Consumer<InvalidationMessage>> channel;
+
+    /**
+     * Listeners registered through this bus, removed from the channel when the context closes
+     */
+    private final List<Consumer<InvalidationMessage>> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Constructs a new {@code InMemoryInvalidationBus} connected to the given channel.
+     *
+     * @param channelName Name of the channel, nodes only hear each other on the same channel
+     */
+    public InMemoryInvalidationBus(@Value("${invalidation.bus.memory.channel:default}") String channelName) {
+        this.channel = CHANNELS.computeIfAbsent(channelName, name -> new CopyOnWriteArrayList<>());
+    }
+
+    @Override
+    public void publish(InvalidationMessage message) {
+        for (Consumer<InvalidationMessage> listener : channel) {
+            try {
+                listener.accept(message);
+            } catch (Exception ex) {
+                LOGGER.error("Failed to apply invalidation message: {}", ex.getMessage());
+                LOGGER.debug("Stack trace: ", ex);
+            }
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<InvalidationMessage> listener) {
+        listeners.add(listener);
+        channel.add(listener);
+    }
+
+    /**
+     * Disconnect this node's listeners from the channel
+     */
+    @PreDestroy
+    void close() {
+        channel.removeAll(listeners);
+        listeners.clear();
+    }
+}
@@ -0,0 +1,22 @@
+package com.strangequark.authservice.invalidation;
+
+import java.util.function.Consumer;
+
+/**
+ * Broadcasts {@link InvalidationMessage}s between the nodes of a deployment.
+ * Delivery is best effort, cached entries also expire on their own, which bounds staleness after a missed message
+ */
+public interface InvalidationBus {
+
+    /**
+     * Send a message to every node, including the sender
+     * @param message {@link InvalidationMessage} to send
+     */
+    void publish(InvalidationMessage message);
+
+    /**
+     * Register the listener receiving every message published after this call
+     * @param listener Listener, called on a thread of the bus
+     */
+    void subscribe(Consumer<InvalidationMessage> listener);
+}
@@ -0,0 +1,20 @@
+package com.strangequark.authservice.invalidation;
+
+import java.util.UUID;
+
+/**
+ * Implemented by components holding cached state, so {@link CacheInvalidator} can apply invalidations to them
+ */
+public interface InvalidationHandler {
+
+    /**
+     * Drop everything cached about a user
+     * @param userId ID of the user
+     */
+    void invalidateUser(UUID userId);
+
+    /**
+     * Drop everything cached on this node
+     */
+    void invalidateAll();
+}
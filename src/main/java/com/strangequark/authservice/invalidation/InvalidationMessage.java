@@ -0,0 +1,53 @@
+package com.strangequark.authservice.invalidation;
+
+/**
+ * Compact message telling every node to drop cached state
+ * @param type {@link Type} of the invalidation
+ * @param value User ID, for a {@link Type#USER} message
+ * @param origin ID of the node that sent the message, so it can skip its own messages
+ */
+public record InvalidationMessage(Type type, String value, String origin) {
+
+    /**
+     * What a message invalidates
+     */
+    public enum Type {
+        /**
+         * Everything cached about one user, the value is the user ID
+         */
+        USER('U');
+
+        private final char code;
+
+        Type(char code) {
+            this.code = code;
+        }
+
+        static Type of(char code) {
+            for (Type type : values())
+                if (type.code == code)
+                    return type;
+            throw new IllegalArgumentException("Unknown invalidation type " + code);
+        }
+    }
+
+    /**
+     * Encode the type and value as a short string, such as {@code U:<user ID>}
+     */
+    public String encode() {
+        return type.code + ":" + value;
+    }
+
+    /**
+     * Decode a message encoded with {@link #encode()}
+     * @param encoded Encoded type and value
+     * @param origin ID of the node that sent the message
+     * @return Decoded {@link InvalidationMessage}
+     */
+    public static InvalidationMessage decode(String encoded, String origin) {
+        if (encoded == null || encoded.length() < 2 || encoded.charAt(1) != ':')
+            throw new IllegalArgumentException("Malformed invalidation message");
+
+        return new InvalidationMessage(Type.of(encoded.charAt(0)), encoded.substring(2), origin);
+    }
+}
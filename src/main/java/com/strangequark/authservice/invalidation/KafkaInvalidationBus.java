@@ -0,0 +1,301 @@
+package com.strangequark.authservice.invalidation;
+
+import jakarta.annotation.PreDestroy;
+import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.config.TopicConfig;
+import org.apache.kafka.common.errors.TopicExistsException;
+import org.apache.kafka.common.errors.WakeupException;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+
+/**
+ * {@link InvalidationBus} broadcasting messages through a Kafka topic.
+ * Every node reads every partition from the end of the topic without a consumer group, so each node sees each
+ * message once it is running and nothing is replayed on restart. After a consumer failure the node resumes from the
+ * offsets it had reached, so messages sent while it was reconnecting are not lost. Records are keyed by the sending node's ID with
+ * the encoded message as the value, and the consumer polls continuously so messages apply within milliseconds.
+ */
+@Component
+@ConditionalOnProperty(name = "invalidation.bus.type", havingValue = "kafka")
+public class KafkaInvalidationBus implements InvalidationBus {
+    private static final Logger LOGGER = LoggerFactory.getLogger(KafkaInvalidationBus.class);
+
+    /**
+     * How long to wait before connecting the consumer again after a failure
+     */
+    private static final long CONSUMER_RETRY_INTERVAL_MILLIS = 5_000;
+
+    /**
+     * Kafka bootstrap servers for the cluster carrying the invalidations
+     */
+    @Value("${invalidation.bus.kafka.bootstrap-servers:telemetry-kafka:9093}")
+    private String bootstrapServers;
+
+    /**
+     * Kafka topic invalidations are broadcast on
+     */
+    @Value("${invalidation.bus.kafka.topic:auth-cache-invalidation}")
+    private String topic;
+
+    /**
+     * Time in milliseconds invalidations are kept on the topic, they are useless once every node has applied them
+     */
+    @Value("${invalidation.bus.kafka.retention-ms:3600000}")
+    private long retentionMs;
+
+    /**
+     * Maximum time in milliseconds a publish may block waiting for metadata or buffer space
+     */
+    @Value("${invalidation.bus.kafka.max-block-ms:500}")
+    private long maxBlockMs;
+
+    /**
+     * Maximum time in milliseconds a consumer poll waits for records
+     */
+    @Value("${invalidation.bus.kafka.poll-timeout-ms:1000}")
+    private long pollTimeoutMs;
+
+    /**
+     * Listeners receiving the consumed messages
+     */
+    private final List<Consumer<InvalidationMessage>> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Producer for published messages, created on first use
+     */
+    private volatile Producer<String, String> producer;
+
+    /**
+     * Consumer of the topic, only touched by the consumer thread apart from {@link KafkaConsumer#wakeup()}
+     */
+    private volatile KafkaConsumer<String, String> consumer;
+
+    /**
+     * Offset of the next record to read on each partition, only touched by the consumer thread.
+     * Empty until the consumer first connects, which starts from the end of the topic.
+     */
+    private final Map<TopicPartition, Long> nextOffsets = new HashMap<>();
+
+    /**
+     * Thread polling the topic
+     */
+    private Thread consumerThread;
+
+    /**
+     * Flag controlling the consumer loop
+     */
+    private volatile boolean running;
+
+    @Override
+    public void publish(InvalidationMessage message) {
+        try {
+            getProducer().send(new ProducerRecord<>(topic, message.origin(), message.encode()), (metadata, exception) -> {
+                if (exception != null) {
+                    LOGGER.error("Failed to deliver invalidation message: {}", exception.getMessage());
+                    LOGGER.debug("Stack trace: ", exception);
+                }
+            });
+        } catch (Exception ex) {
+            LOGGER.error("Unable to publish invalidation message: {}", ex.getMessage());
+            LOGGER.debug("Stack trace: ", ex);
+        }
+    }
+
+    @Override
+    public synchronized void subscribe(Consumer<InvalidationMessage> listener) {
+        listeners.add(listener);
+
+        if (consumerThread == null) {
+            running = true;
+            consumerThread = Thread.ofPlatform().name("Invalidation-consumer").daemon(true).start(this::consumeLoop);
+        }
+    }
+
+    /**
+     * Poll the topic until stopped, reconnecting after failures
+     */
+    private void consumeLoop() {
+        while (running) {
+            try (KafkaConsumer<String, String> kafkaConsumer = createConsumer()) {
+                consumer = kafkaConsumer;
+                List<TopicPartition> partitions = new ArrayList<>();
+                for (PartitionInfo partition : kafkaConsumer.partitionsFor(topic))
+                    partitions.add(new TopicPartition(topic, partition.partition()));
+                kafkaConsumer.assign(partitions);
+                seekToNextOffsets(kafkaConsumer, partitions);
+                LOGGER.info("Listening for invalidation messages on {} partitions of {}", partitions.size(), topic);
+
+                while (running) {
+                    for (ConsumerRecord<String, String> record : kafkaConsumer.poll(Duration.ofMillis(pollTimeoutMs))) {
+                        deliver(record);
+                        nextOffsets.put(new TopicPartition(record.topic(), record.partition()), record.offset() + 1);
+                    }
+                }
+            } catch (WakeupException ex) {
+                //Woken up to stop
+            } catch (Exception ex) {
+                LOGGER.error("Invalidation consumer failed, reconnecting: {}", ex.getMessage());
+                LOGGER.debug("Stack trace: ", ex);
+                try {
+                    Thread.sleep(CONSUMER_RETRY_INTERVAL_MILLIS);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            } finally {
+                consumer = null;
+            }
+        }
+    }
+
+    /**
+     * Position the consumer where the previous connection stopped. Partitions not read before, such as all of them on
+     * first start, begin at the end of the topic and that position is remembered straight away, so a failure before
+     * the first message arrives does not skip what was sent in the meantime.
+     */
+    private void seekToNextOffsets(KafkaConsumer<String, String> kafkaConsumer, List<TopicPartition> partitions) {
+        List<TopicPartition> newPartitions = new ArrayList<>();
+        for (TopicPartition partition : partitions) {
+            Long nextOffset = nextOffsets.get(partition);
+            if (nextOffset != null)
+                kafkaConsumer.seek(partition, nextOffset);
+            else
+                newPartitions.add(partition);
+        }
+
+        if (newPartitions.isEmpty())
+            return;
+
+        kafkaConsumer.seekToEnd(newPartitions);
+        for (TopicPartition partition : newPartitions)
+            nextOffsets.put(partition, kafkaConsumer.position(partition));
+    }
+
+    private void deliver(ConsumerRecord<String, String> record) {
+        InvalidationMessage message;
+        try {
+            message = InvalidationMessage.decode(record.value(), record.key());
+        } catch (IllegalArgumentException ex) {
+            LOGGER.warn("Skipping invalidation message: {}", ex.getMessage());
+            return;
+        }
+
+        for (Consumer<InvalidationMessage> listener : listeners) {
+            try {
+                listener.accept(message);
+            } catch (Exception ex) {
+                LOGGER.error("Failed to apply invalidation message: {}", ex.getMessage());
+                LOGGER.debug("Stack trace: ", ex);
+            }
+        }
+    }
+
+    private KafkaConsumer<String, String> createConsumer() throws InterruptedException {
+        createTopic();
+
+        Properties props = new Properties();
+        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class.getName());
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class.getName());
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        //Only used when a remembered offset has already expired, replaying what is left only invalidates too much
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        return new KafkaConsumer<>(props);
+    }
+
+    /**
+     * Get the shared producer, creating it on first use
+     */
+    private Producer<String, String> getProducer() {
+        Producer<String, String> current = producer;
+        if (current != null)
+            return current;
+
+        synchronized (this) {
+            if (producer == null) {
+                Properties props = new Properties();
+                props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+                props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class.getName());
+                props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class.getName());
+                props.put(ProducerConfig.ACKS_CONFIG, "1");
+                props.put(ProducerConfig.LINGER_MS_CONFIG, 0);
+                props.put(ProducerConfig.MAX_BLOCK_MS_CONFIG, maxBlockMs);
+                producer = new KafkaProducer<>(props);
+            }
+            return producer;
+        }
+    }
+
+    /**
+     * Create the topic if it does not exist yet, with the broker's partition and replica defaults
+     */
+    private void createTopic() throws InterruptedException {
+        Properties props = new Properties();
+        props.put(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+
+        try (Admin admin = Admin.create(props)) {
+            admin.createTopics(List.of(new NewTopic(topic, Optional.empty(), Optional.empty())
+                            .configs(Map.of(TopicConfig.RETENTION_MS_CONFIG, String.valueOf(retentionMs)))))
+                    .all().get(pollTimeoutMs * 5, TimeUnit.MILLISECONDS);
+            LOGGER.info("Created topic {}", topic);
+        } catch (ExecutionException ex) {
+            if (!(ex.getCause() instanceof TopicExistsException))
+                throw new IllegalStateException("Unable to create topic " + topic, ex.getCause());
+        } catch (TimeoutException ex) {
+            throw new IllegalStateException("Timed out creating topic " + topic, ex);
+        }
+    }
+
+    /**
+     * Stop the consumer and close the producer
+     */
+    @PreDestroy
+    void close() {
+        running = false;
+
+        KafkaConsumer<String, String> current = consumer;
+        if (current != null)
+            current.wakeup();
+        if (consumerThread != null) {
+            consumerThread.interrupt();
+            try {
+                consumerThread.join(pollTimeoutMs * 2);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        if (producer != null) {
+            try {
+                producer.close(Duration.ofMillis(maxBlockMs));
+            } catch (Exception ex) {
+                LOGGER.error("Failed to close invalidation Kafka producer: {}", ex.getMessage());
+                LOGGER.debug("Stack trace: ", ex);
+            }
+        }
+    }
+}
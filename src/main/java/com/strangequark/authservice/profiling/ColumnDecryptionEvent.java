@@ -0,0 +1,32 @@
+package com.strangequark.authservice.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event for decrypting an encrypted column while an entity is loaded
+ */
+@Name("com.strangequark.authservice.ColumnDecryption")
+@Label("Column Decryption")
+@Category({"Auth Service", "Persistence"})
+@Description("Decryption of an encrypted column by an attribute converter")
+@StackTrace(false)
+public class ColumnDecryptionEvent extends Event {
+    /**
+     * Simple name of the converter that decrypted the column
+     */
+    @Label("Converter")
+    public String converter;
+
+    /**
+     * Size of the encrypted value
+     */
+    @Label("Encrypted Size")
+    @DataAmount
+    public int encryptedBytes;
+}
@@ -0,0 +1,44 @@
+package com.strangequark.authservice.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event for records handed to a Kafka producer
+ */
+@Name("com.strangequark.authservice.KafkaSend")
+@Label("Kafka Send")
+@Category({"Auth Service", "Outbound"})
+@Description("Records sent to a Kafka topic, until acknowledged or handed to the producer")
+@StackTrace(false)
+public class KafkaSendEvent extends Event {
+    /**
+     * Topic the records were sent to
+     */
+    @Label("Topic")
+    public String topic;
+
+    /**
+     * Number of records sent
+     */
+    @Label("Records")
+    public int records;
+
+    /**
+     * Size of the serialized record values
+     */
+    @Label("Size")
+    @DataAmount
+    public long bytes;
+
+    /**
+     * Whether the send succeeded
+     */
+    @Label("Succeeded")
+    public boolean succeeded;
+}
@@ -0,0 +1,42 @@
+package com.strangequark.authservice.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event for an HTTP call to a downstream service
+ */
+@Name("com.strangequark.authservice.OutboundHttp")
+@Label("Outbound HTTP Call")
+@Category({"Auth Service", "Outbound"})
+@Description("HTTP call to a downstream service")
+@StackTrace(false)
+public class OutboundHttpEvent extends Event {
+    /**
+     * Name of the downstream dependency
+     */
+    @Label("Dependency")
+    public String dependency;
+
+    /**
+     * HTTP method of the call
+     */
+    @Label("Method")
+    public String method;
+
+    /**
+     * Path called, without the query string
+     */
+    @Label("Path")
+    public String path;
+
+    /**
+     * Response status, or 0 if no response was received
+     */
+    @Label("Status")
+    public int status;
+}
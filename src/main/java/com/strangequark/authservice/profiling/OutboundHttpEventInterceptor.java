@@ -0,0 +1,49 @@
+package com.strangequark.authservice.profiling;
+
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+
+/**
+ * {@link ClientHttpRequestInterceptor} emitting an {@link OutboundHttpEvent} for every call made through it
+ */
+public class OutboundHttpEventInterceptor implements ClientHttpRequestInterceptor {
+    /**
+     * Name of the downstream dependency
+     */
+    private final String dependency;
+
+    /**
+     * Constructs a new {@code OutboundHttpEventInterceptor} for the given dependency.
+     *
+     * @param dependency Name of the downstream dependency
+     */
+    public OutboundHttpEventInterceptor(String dependency) {
+        this.dependency = dependency;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+        OutboundHttpEvent event = new OutboundHttpEvent();
+        if (!event.isEnabled())
+            return execution.execute(request, body);
+
+        event.begin();
+        try {
+            ClientHttpResponse response = execution.execute(request, body);
+            event.status = response.getStatusCode().value();
+            return response;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.dependency = dependency;
+                event.method = request.getMethod().name();
+                event.path = request.getURI().getPath();
+                event.commit();
+            }
+        }
+    }
+}
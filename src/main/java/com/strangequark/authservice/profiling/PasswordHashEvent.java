@@ -0,0 +1,28 @@
+package com.strangequark.authservice.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event for hashing a new password or matching one against its stored hash
+ */
+@Name("com.strangequark.authservice.PasswordHash")
+@Label("Password Hash")
+@Category({"Auth Service", "Security"})
+@Description("Password encode or match by the password encoder")
+public class PasswordHashEvent extends Event {
+    /**
+     * Operation performed, encode or match
+     */
+    @Label("Operation")
+    public String operation;
+
+    /**
+     * Whether the password matched, always false for encodes
+     */
+    @Label("Matched")
+    public boolean matched;
+}
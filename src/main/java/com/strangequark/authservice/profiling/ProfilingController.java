@@ -0,0 +1,53 @@
+package com.strangequark.authservice.profiling;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * {@link RestController} for on-demand JFR recordings
+ */
+@RestController
+@RequestMapping("/api/auth/profiling")
+public class ProfilingController {
+    /**
+     * {@link ProfilingService} for managing recordings
+     */
+    private final ProfilingService profilingService;
+
+    /**
+     * Constructs a new {@code ProfilingController} with the given dependencies.
+     *
+     * @param profilingService {@link ProfilingService} for managing recordings
+     */
+    public ProfilingController(ProfilingService profilingService) {
+        this.profilingService = profilingService;
+    }
+
+    /**
+     * Post request endpoint for starting a recording
+     * @param durationSeconds Seconds to record for, defaults to the configured maximum
+     * @return {@link ResponseEntity}
+     */
+    @PostMapping("/start-recording")
+    public ResponseEntity<?> startRecording(@RequestParam(required = false) Long durationSeconds) {
+        return profilingService.startRecording(durationSeconds);
+    }
+
+    /**
+     * Get request endpoint for describing the current recording
+     * @return {@link ResponseEntity}
+     */
+    @GetMapping("/recording")
+    public ResponseEntity<?> getRecording() {
+        return profilingService.getRecording();
+    }
+
+    /**
+     * Post request endpoint for stopping the recording and downloading the .jfr file
+     * @return {@link ResponseEntity}
+     */
+    @PostMapping("/stop-recording")
+    public ResponseEntity<?> stopRecording() {
+        return profilingService.stopRecording();
+    }
+}
@@ -0,0 +1,224 @@
+package com.strangequark.authservice.profiling;
+
+import com.strangequark.authservice.config.JwtService;
+import com.strangequark.authservice.error.ErrorResponse;
+import com.strangequark.authservice.user.Role;
+import com.strangequark.authservice.user.User;
+import com.strangequark.authservice.user.UserRepository;
+import jdk.jfr.Configuration;
+import jdk.jfr.Event;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * {@link Service} managing a single bounded, on-demand JFR {@link Recording} that includes the application's
+ * own events alongside the JDK's profiling events
+ */
+@Service
+public class ProfilingService {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ProfilingService.class);
+
+    /**
+     * Application events enabled in every recording
+     */
+    private static final List<Class<? extends Event>> APPLICATION_EVENTS = List.of(
+            TokenVerificationEvent.class,
+            PasswordHashEvent.class,
+            ColumnDecryptionEvent.class,
+            RepositoryCallEvent.class,
+            OutboundHttpEvent.class,
+            KafkaSendEvent.class);
+
+    /**
+     * {@link UserRepository} for fetching the requesting user
+     */
+    private final UserRepository userRepository;
+
+    /**
+     * {@link JwtService} for extracting the username from the request token
+     */
+    private final JwtService jwtService;
+
+    /**
+     * Longest a recording may run before it stops by itself, in seconds
+     */
+    @Value("${profiling.recording.max-duration-seconds:300}")
+    private long maxDurationSeconds;
+
+    /**
+     * Largest a recording may grow before the oldest data is discarded, in megabytes
+     */
+    @Value("${profiling.recording.max-size-mb:64}")
+    private long maxSizeMb;
+
+    /**
+     * Name of the JDK settings the recording starts from, "default" or "profile"
+     */
+    @Value("${profiling.recording.settings:profile}")
+    private String settings;
+
+    /**
+     * The recording in progress or waiting to be collected, if any
+     */
+    private final AtomicReference<Recording> activeRecording = new AtomicReference<>();
+
+    /**
+     * Constructs a new {@code ProfilingService} with the given dependencies.
+     *
+     * @param userRepository {@link UserRepository} for fetching the requesting user
+     * @param jwtService {@link JwtService} for extracting the username from the request token
+     */
+    public ProfilingService(UserRepository userRepository, JwtService jwtService) {
+        this.userRepository = userRepository;
+        this.jwtService = jwtService;
+    }
+
+    /**
+     * Business logic for starting a recording
+     * @param durationSeconds Seconds to record for, capped at the configured maximum
+     * @return {@link ResponseEntity} with a {@link RecordingResponse} if successful, otherwise return with an {@link ErrorResponse}
+     */
+    public ResponseEntity<?> startRecording(Long durationSeconds) {
+        LOGGER.info("Attempting to start JFR recording");
+
+        try {
+            requireAdmin();
+
+            long duration = durationSeconds == null ? maxDurationSeconds
+                    : Math.min(Math.max(1, durationSeconds), maxDurationSeconds);
+
+            Recording recording = new Recording(Configuration.getConfiguration(settings));
+            recording.setName("authservice-on-demand");
+            recording.setToDisk(true);
+            recording.setMaxSize(maxSizeMb * 1024 * 1024);
+            recording.setDuration(Duration.ofSeconds(duration));
+            APPLICATION_EVENTS.forEach(recording::enable);
+
+            if (!activeRecording.compareAndSet(null, recording)) {
+                recording.close();
+                LOGGER.error("Failed to start JFR recording: A recording is already in progress");
+                return ResponseEntity.status(409).body(new ErrorResponse("A recording is already in progress"));
+            }
+
+            recording.start();
+
+            LOGGER.info("JFR recording started for {}s", duration);
+            return ResponseEntity.ok(new RecordingResponse(recording));
+        } catch (AccessDeniedException ex) {
+            LOGGER.error("Failed to start JFR recording: {}", ex.getMessage());
+            return ResponseEntity.status(403).body(new ErrorResponse(ex.getMessage()));
+        } catch (Exception ex) {
+            LOGGER.error("Failed to start JFR recording: {}", ex.getMessage());
+            LOGGER.debug("Stack trace: ", ex);
+            return ResponseEntity.status(400).body(new ErrorResponse(ex.getMessage()));
+        }
+    }
+
+    /**
+     * Business logic for describing the current recording
+     * @return {@link ResponseEntity} with a {@link RecordingResponse} if successful, otherwise return with an {@link ErrorResponse}
+     */
+    public ResponseEntity<?> getRecording() {
+        LOGGER.info("Attempting to get JFR recording");
+
+        try {
+            requireAdmin();
+
+            Recording recording = activeRecording.get();
+            if (recording == null)
+                return ResponseEntity.status(404).body(new ErrorResponse("No recording in progress"));
+
+            LOGGER.info("JFR recording retrieval success");
+            return ResponseEntity.ok(new RecordingResponse(recording));
+        } catch (AccessDeniedException ex) {
+            LOGGER.error("Failed to get JFR recording: {}", ex.getMessage());
+            return ResponseEntity.status(403).body(new ErrorResponse(ex.getMessage()));
+        } catch (Exception ex) {
+            LOGGER.error("Failed to get JFR recording: {}", ex.getMessage());
+            LOGGER.debug("Stack trace: ", ex);
+            return ResponseEntity.status(400).body(new ErrorResponse(ex.getMessage()));
+        }
+    }
+
+    /**
+     * Business logic for stopping the recording and returning its contents as a .jfr file.
+     * The file is written to a temporary location and deleted once the response stream is closed.
+     * @return {@link ResponseEntity} streaming the .jfr file if successful, otherwise return with an {@link ErrorResponse}
+     */
+    public ResponseEntity<?> stopRecording() {
+        LOGGER.info("Attempting to stop JFR recording");
+
+        try {
+            requireAdmin();
+
+            Recording recording = activeRecording.getAndSet(null);
+            if (recording == null)
+                return ResponseEntity.status(404).body(new ErrorResponse("No recording in progress"));
+
+            Path file = Files.createTempFile("authservice-", ".jfr");
+            try {
+                if (recording.getState() == RecordingState.RUNNING)
+                    recording.stop();
+                recording.dump(file);
+            } catch (Exception ex) {
+                Files.deleteIfExists(file);
+                throw ex;
+            } finally {
+                recording.close();
+            }
+
+            long size = Files.size(file);
+            InputStreamResource body = new InputStreamResource(Files.newInputStream(file, StandardOpenOption.DELETE_ON_CLOSE));
+
+            LOGGER.info("JFR recording stopped, returning {} bytes", size);
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                    .contentLength(size)
+                    .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                            .filename("authservice-" + recording.getId() + ".jfr").build().toString())
+                    .body(body);
+        } catch (AccessDeniedException ex) {
+            LOGGER.error("Failed to stop JFR recording: {}", ex.getMessage());
+            return ResponseEntity.status(403).body(new ErrorResponse(ex.getMessage()));
+        } catch (Exception ex) {
+            LOGGER.error("Failed to stop JFR recording: {}", ex.getMessage());
+            LOGGER.debug("Stack trace: ", ex);
+            return ResponseEntity.status(400).body(new ErrorResponse(ex.getMessage()));
+        }
+    }
+
+    /**
+     * Ensure the requesting user is an ADMIN or SUPER user
+     */
+    private void requireAdmin() {
+        String authToken = ((ServletRequestAttributes) RequestContextHolder.getRequestAttributes()).getRequest()
+                .getHeader("Authorization").substring(7);
+
+        //Get the user, throw an exception if the username is not found
+        User requestingUser = userRepository.findByUsername(jwtService.extractUsername(authToken, false))
+                .orElseThrow(() -> new UsernameNotFoundException("Requesting user not found"));
+
+        if (requestingUser.getRole() != Role.SUPER && requestingUser.getRole() != Role.ADMIN)
+            throw new AccessDeniedException("Only ADMIN or SUPER users can manage recordings");
+    }
+}
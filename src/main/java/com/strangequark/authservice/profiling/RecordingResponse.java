@@ -0,0 +1,83 @@
+package com.strangequark.authservice.profiling;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import jdk.jfr.Recording;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Response object describing the on-demand JFR {@link Recording}
+ */
+public class RecordingResponse {
+    /**
+     * Timestamp of the response
+     */
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "dd-MM-yyyy hh:mm:ss")
+    private final LocalDateTime timestamp;
+
+    /**
+     * ID of the recording
+     */
+    private final long id;
+
+    /**
+     * State of the recording, for example RUNNING or STOPPED
+     */
+    private final String state;
+
+    /**
+     * When the recording started
+     */
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "dd-MM-yyyy hh:mm:ss")
+    private final LocalDateTime startTime;
+
+    /**
+     * Seconds after which the recording stops by itself
+     */
+    private final long durationSeconds;
+
+    /**
+     * Maximum size the recording is allowed to reach in bytes
+     */
+    private final long maxSizeBytes;
+
+    /**
+     * Constructs a new {@code RecordingResponse} from a recording
+     *
+     * @param recording {@link Recording} to describe
+     */
+    public RecordingResponse(Recording recording) {
+        this.timestamp = LocalDateTime.now();
+        this.id = recording.getId();
+        this.state = recording.getState().name();
+        this.startTime = recording.getStartTime() == null ? null
+                : LocalDateTime.ofInstant(recording.getStartTime(), ZoneId.systemDefault());
+        this.durationSeconds = recording.getDuration() == null ? 0 : recording.getDuration().toSeconds();
+        this.maxSizeBytes = recording.getMaxSize();
+    }
+
+    public LocalDateTime getTimestamp() {
+        return timestamp;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public String getState() {
+        return state;
+    }
+
+    public LocalDateTime getStartTime() {
+        return startTime;
+    }
+
+    public long getDurationSeconds() {
+        return durationSeconds;
+    }
+
+    public long getMaxSizeBytes() {
+        return maxSizeBytes;
+    }
+}
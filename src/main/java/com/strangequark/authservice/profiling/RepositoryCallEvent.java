@@ -0,0 +1,34 @@
+package com.strangequark.authservice.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event for a call to a Spring Data repository, including the query and entity conversion
+ */
+@Name("com.strangequark.authservice.RepositoryCall")
+@Label("Repository Call")
+@Category({"Auth Service", "Persistence"})
+@Description("Call to a Spring Data repository method")
+public class RepositoryCallEvent extends Event {
+    /**
+     * Simple name of the repository interface
+     */
+    @Label("Repository")
+    public String repository;
+
+    /**
+     * Name of the repository method
+     */
+    @Label("Method")
+    public String method;
+
+    /**
+     * Whether the call returned without throwing
+     */
+    @Label("Succeeded")
+    public boolean succeeded;
+}
@@ -0,0 +1,52 @@
+package com.strangequark.authservice.profiling;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+/**
+ * Emits a {@link RepositoryCallEvent} around every call to one of the application's Spring Data repositories
+ */
+@Aspect
+@Component
+public class RepositoryCallEventAspect {
+
+    /**
+     * Record a repository call while a recording has the event enabled
+     * @param joinPoint The repository method being called
+     * @return The repository method's result
+     * @throws Throwable Anything the repository method throws
+     */
+    @Around("execution(* com.strangequark.authservice..*Repository+.*(..))")
+    public Object record(ProceedingJoinPoint joinPoint) throws Throwable {
+        RepositoryCallEvent event = new RepositoryCallEvent();
+        if (!event.isEnabled())
+            return joinPoint.proceed();
+
+        event.begin();
+        try {
+            Object result = joinPoint.proceed();
+            event.succeeded = true;
+            return result;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.repository = repositoryName(joinPoint);
+                event.method = joinPoint.getSignature().getName();
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * Resolve the repository interface name, the target itself being a generated proxy
+     */
+    private String repositoryName(ProceedingJoinPoint joinPoint) {
+        for (Class<?> repositoryInterface : joinPoint.getThis().getClass().getInterfaces()) {
+            if (repositoryInterface.getName().startsWith("com.strangequark.authservice."))
+                return repositoryInterface.getSimpleName();
+        }
+        return joinPoint.getSignature().getDeclaringType().getSimpleName();
+    }
+}
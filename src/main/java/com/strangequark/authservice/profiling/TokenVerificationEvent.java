@@ -0,0 +1,30 @@
+package com.strangequark.authservice.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event for parsing and verifying the signature of a JWT
+ */
+@Name("com.strangequark.authservice.TokenVerification")
+@Label("Token Verification")
+@Category({"Auth Service", "Security"})
+@Description("Parsing and signature verification of a JWT")
+@StackTrace(false)
+public class TokenVerificationEvent extends Event {
+    /**
+     * Type of token verified, access or refresh
+     */
+    @Label("Token Type")
+    public String tokenType;
+
+    /**
+     * Whether the token was valid
+     */
+    @Label("Valid")
+    public boolean valid;
+}
@@ -23,6 +23,8 @@ public class ServiceAccount implements UserDetails {
 
     private String clientPassword;
 
+    private String clientSecretDigest;
+
     @Convert(converter = StringEncryptDecryptConverter.class)
     private Set<String> authorizations;
 
@@ -50,6 +52,14 @@ public class ServiceAccount implements UserDetails {
         this.clientPassword = clientPassword;
     }
 
+    public String getClientSecretDigest() {
+        return clientSecretDigest;
+    }
+
+    public void setClientSecretDigest(String clientSecretDigest) {
+        this.clientSecretDigest = clientSecretDigest;
+    }
+
     public Set<String> getAuthorizations() {
         return authorizations;
     }
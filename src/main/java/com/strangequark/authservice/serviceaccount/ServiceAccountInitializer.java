@@ -1,5 +1,6 @@
 package com.strangequark.authservice.serviceaccount;
 
+import com.strangequark.authservice.utility.EncryptionUtility;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.boot.ApplicationArguments;
@@ -8,6 +9,24 @@ import org.springframework.core.env.Environment;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Creates the service accounts listed in SERVICE_ACCOUNTS on startup, and updates those whose secret has changed.
+ * A keyed digest of each secret is stored alongside its hash, so unchanged secrets are skipped without running
+ * BCrypt, and the remaining secrets are hashed in parallel.
+ */
 @Component
 public class ServiceAccountInitializer implements ApplicationRunner {
     private final static Logger LOGGER = LoggerFactory.getLogger(ServiceAccountInitializer.class);
@@ -23,27 +42,81 @@ public class ServiceAccountInitializer implements ApplicationRunner {
     }
 
     @Override
-    public void run(ApplicationArguments applicationArguments) {
+    public void run(ApplicationArguments applicationArguments) throws InterruptedException {
         LOGGER.info("Initializing service accounts");
 
-        String[] serviceIds = environment.getProperty("SERVICE_ACCOUNTS").split(",");
+        Set<String> serviceIds = new LinkedHashSet<>();
+        for (String serviceId : environment.getProperty("SERVICE_ACCOUNTS").split(","))
+            serviceIds.add(serviceId.trim());
+
+        //One query for all accounts rather than one per ID
+        Map<String, ServiceAccount> existingAccounts = serviceAccountRepository.findAll().stream()
+                .collect(Collectors.toMap(ServiceAccount::getClientId, Function.identity(), (first, second) -> first));
+
+        List<ServiceAccount> accountsToHash = new ArrayList<>();
+        List<String> secretsToHash = new ArrayList<>();
 
-        for(String serviceId : serviceIds) {
-            LOGGER.debug("Attempting to initialize service account with ID: " + serviceId);
-            String trimmedId = serviceId.trim();
+        for (String serviceId : serviceIds) {
+            LOGGER.debug("Attempting to initialize service account with ID: {}", serviceId);
 
-            if (serviceAccountRepository.findByClientId(trimmedId).isPresent()) {
-                LOGGER.debug("Service account already exists: " + trimmedId);
+            String clientSecret = environment.getProperty("SERVICE_SECRET_" + serviceId.toUpperCase());
+            if (clientSecret == null) {
+                LOGGER.error("No secret configured for service account: {}", serviceId);
                 continue;
             }
 
-            String clientPassword = environment.getProperty("SERVICE_SECRET_" + trimmedId.toUpperCase());
-            ServiceAccount serviceAccount = new ServiceAccount();
-            serviceAccount.setClientId(trimmedId);
-            serviceAccount.setClientPassword(passwordEncoder.encode(clientPassword));
+            String clientSecretDigest = EncryptionUtility.digest(clientSecret);
+            ServiceAccount serviceAccount = existingAccounts.get(serviceId);
+
+            if (serviceAccount != null && Objects.equals(serviceAccount.getClientSecretDigest(), clientSecretDigest)) {
+                LOGGER.debug("Service account already up to date: {}", serviceId);
+                continue;
+            }
+
+            if (serviceAccount == null) {
+                serviceAccount = new ServiceAccount();
+                serviceAccount.setClientId(serviceId);
+            }
+            serviceAccount.setClientSecretDigest(clientSecretDigest);
+
+            accountsToHash.add(serviceAccount);
+            secretsToHash.add(clientSecret);
+        }
+
+        if (accountsToHash.isEmpty()) {
+            LOGGER.info("All service accounts up to date");
+            return;
+        }
+
+        hashSecrets(accountsToHash, secretsToHash);
+        serviceAccountRepository.saveAll(accountsToHash);
+
+        for (ServiceAccount serviceAccount : accountsToHash)
+            LOGGER.info("Service account successfully initialized: {}", serviceAccount.getClientId());
+    }
+
+    /**
+     * Hash each secret onto its account, spreading the BCrypt work across the available processors
+     * @param accounts Accounts to set the hashed secret on
+     * @param secrets Secret for each account, in the same order
+     */
+    private void hashSecrets(List<ServiceAccount> accounts, List<String> secrets) throws InterruptedException {
+        int threads = Math.min(accounts.size(), Runtime.getRuntime().availableProcessors());
+        if (threads <= 1) {
+            for (int i = 0; i < accounts.size(); i++)
+                accounts.get(i).setClientPassword(passwordEncoder.encode(secrets.get(i)));
+            return;
+        }
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+            List<Future<String>> hashes = new ArrayList<>();
+            for (String secret : secrets)
+                hashes.add(executor.submit(() -> passwordEncoder.encode(secret)));
 
-            serviceAccountRepository.save(serviceAccount);
-            LOGGER.info("Service account successfully initialized: " + trimmedId);
+            for (int i = 0; i < accounts.size(); i++)
+                accounts.get(i).setClientPassword(hashes.get(i).get());
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException("Failed to hash service account secret", ex.getCause());
         }
     }
 }
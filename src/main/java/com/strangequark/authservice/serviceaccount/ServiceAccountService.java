@@ -3,10 +3,13 @@ package com.strangequark.authservice.serviceaccount;
 import com.strangequark.authservice.auth.AuthenticationResponse;
 import com.strangequark.authservice.config.JwtService;
 import com.strangequark.authservice.error.ErrorResponse;
+import com.strangequark.authservice.utility.RateLimiter;
+import com.strangequark.authservice.utility.SampledLogger;
 import com.strangequark.authservice.utility.TelemetryUtility; // Integration line: Telemetry
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Autowired; // Integration line: Telemetry
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -18,11 +21,23 @@ import java.util.Map; // Integration line: Telemetry
 public class ServiceAccountService {
     private static final Logger LOGGER = LoggerFactory.getLogger(ServiceAccountService.class);
 
+    /**
+     * {@link SampledLogger} for routine success messages on hot paths
+     */
+    private static final SampledLogger SAMPLED_LOGGER = SampledLogger.of(LOGGER);
+
     private final ServiceAccountRepository serviceAccountRepository;
 
     private final PasswordEncoder passwordEncoder;
 
     private final JwtService jwtService;
+
+    /**
+     * {@link RateLimiter} applied to service account authentication before the secret is hashed
+     */
+    @Autowired
+    @Qualifier("serviceAccountAuthenticateRateLimiter")
+    private RateLimiter serviceAccountAuthenticateRateLimiter;
     /** Integration function start: Telemetry
      * {@link TelemetryUtility} for sending telemetry events to the Kafka
      */
@@ -38,7 +53,14 @@ public class ServiceAccountService {
     }
 
     public ResponseEntity<?> authenticate(ServiceAccountRequest serviceAccountRequest) {
-        LOGGER.info("Attempting to authenticate service account request");
+        LOGGER.debug("Attempting to authenticate service account request");
+
+        //Reject over-limit clients before spending a BCrypt verification on them
+        ResponseEntity<?> rateLimited = serviceAccountAuthenticateRateLimiter.limit(serviceAccountRequest.getClientId());
+        if (rateLimited != null) {
+            LOGGER.warn("Service account authentication request rate limited");
+            return rateLimited;
+        }
 
         try {
             //Get the service account, throw an exception if the clientId is not found
@@ -56,10 +78,10 @@ public class ServiceAccountService {
             telemetryUtility.sendTelemetryEvent("service-account-authenticate", Map.of("serviceAccountId", serviceAccount.getId())); // Integration line: Telemetry
 
             //Return a 200 response with the JWT refresh token
-            LOGGER.info("Service account authentication successful");
+            SAMPLED_LOGGER.info("Service account authentication successful");
             return ResponseEntity.ok(new AuthenticationResponse(accessToken));
         } catch (Exception ex) {
-            LOGGER.error("Failed to authenticate service account: " + ex.getMessage());
+            LOGGER.error("Failed to authenticate service account: {}", ex.getMessage());
             LOGGER.debug("Stack trace: ", ex);
             return ResponseEntity.status(401).body(new ErrorResponse(ex.getMessage()));
         }
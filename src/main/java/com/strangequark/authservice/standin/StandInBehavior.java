@@ -0,0 +1,89 @@
+package com.strangequark.authservice.standin;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * How a stand-in dependency responds: a log-normal latency distribution described by its median and 99th percentile,
+ * plus the fraction of calls that fail outright and the fraction that never answer.
+ */
+public class StandInBehavior {
+    /**
+     * z-score of the 99th percentile of a standard normal distribution
+     */
+    private static final double Z_99 = 2.3263;
+
+    /**
+     * Outcome of a single call
+     */
+    public enum Outcome { SUCCESS, ERROR, TIMEOUT }
+
+    /**
+     * Median latency in milliseconds
+     */
+    private final double medianMs;
+
+    /**
+     * Shape of the latency distribution, derived from the median and 99th percentile
+     */
+    private final double sigma;
+
+    /**
+     * Fraction of calls that fail, between 0 and 1
+     */
+    private final double errorRate;
+
+    /**
+     * Fraction of calls that never answer, between 0 and 1
+     */
+    private final double timeoutRate;
+
+    /**
+     * Constructs a new {@code StandInBehavior}.
+     *
+     * @param medianMs Median latency in milliseconds
+     * @param p99Ms 99th percentile latency in milliseconds, at least the median
+     * @param errorRate Fraction of calls that fail, between 0 and 1
+     * @param timeoutRate Fraction of calls that never answer, between 0 and 1
+     */
+    public StandInBehavior(double medianMs, double p99Ms, double errorRate, double timeoutRate) {
+        if (medianMs < 0 || p99Ms < medianMs)
+            throw new IllegalArgumentException("Stand-in latency needs 0 <= median <= p99");
+        if (errorRate < 0 || timeoutRate < 0 || errorRate + timeoutRate > 1)
+            throw new IllegalArgumentException("Stand-in error and timeout rates must be between 0 and 1");
+
+        this.medianMs = medianMs;
+        this.sigma = medianMs == 0 || p99Ms == medianMs ? 0 : Math.log(p99Ms / medianMs) / Z_99;
+        this.errorRate = errorRate;
+        this.timeoutRate = timeoutRate;
+    }
+
+    /**
+     * Draw the latency of a single call
+     * @return Latency in milliseconds
+     */
+    public long sampleLatencyMs() {
+        if (sigma == 0)
+            return Math.round(medianMs);
+
+        return Math.round(medianMs * Math.exp(sigma * ThreadLocalRandom.current().nextGaussian()));
+    }
+
+    /**
+     * Draw the outcome of a single call
+     * @return {@link Outcome} of the call
+     */
+    public Outcome sampleOutcome() {
+        double roll = ThreadLocalRandom.current().nextDouble();
+        if (roll < timeoutRate)
+            return Outcome.TIMEOUT;
+        if (roll < timeoutRate + errorRate)
+            return Outcome.ERROR;
+        return Outcome.SUCCESS;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("median %.0fms, p99 %.0fms, errors %.2f%%, timeouts %.2f%%",
+                medianMs, medianMs * Math.exp(sigma * Z_99), errorRate * 100, timeoutRate * 100);
+    }
+}
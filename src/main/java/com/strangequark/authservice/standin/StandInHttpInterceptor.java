@@ -0,0 +1,114 @@
+package com.strangequark.authservice.standin;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * {@link ClientHttpRequestInterceptor} answering requests in-process instead of sending them, after the latency
+ * drawn from a {@link StandInBehavior}. It must be the last interceptor so metrics and events around it still apply.
+ */
+public class StandInHttpInterceptor implements ClientHttpRequestInterceptor {
+    /**
+     * Name of the dependency being stood in for
+     */
+    private final String dependency;
+
+    /**
+     * {@link StandInBehavior} of the dependency
+     */
+    private final StandInBehavior behavior;
+
+    /**
+     * Read timeout of the client in milliseconds, after which a slow or unanswered call fails
+     */
+    private final long readTimeoutMs;
+
+    /**
+     * Constructs a new {@code StandInHttpInterceptor}.
+     *
+     * @param dependency Name of the dependency being stood in for
+     * @param behavior {@link StandInBehavior} of the dependency
+     * @param readTimeoutMs Read timeout of the client in milliseconds
+     */
+    public StandInHttpInterceptor(String dependency, StandInBehavior behavior, long readTimeoutMs) {
+        this.dependency = dependency;
+        this.behavior = behavior;
+        this.readTimeoutMs = readTimeoutMs;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+        StandInBehavior.Outcome outcome = behavior.sampleOutcome();
+        long latencyMs = outcome == StandInBehavior.Outcome.TIMEOUT ? readTimeoutMs : behavior.sampleLatencyMs();
+
+        sleep(Math.min(latencyMs, readTimeoutMs));
+        if (latencyMs >= readTimeoutMs)
+            throw new HttpTimeoutException("Stand-in " + dependency + " did not answer within " + readTimeoutMs + "ms");
+
+        return outcome == StandInBehavior.Outcome.ERROR
+                ? new StandInResponse(HttpStatus.SERVICE_UNAVAILABLE, "{\"errorMessage\":\"Stand-in " + dependency + " failure\"}")
+                : new StandInResponse(HttpStatus.OK, "{}");
+    }
+
+    private void sleep(long millis) throws IOException {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for stand-in " + dependency);
+        }
+    }
+
+    /**
+     * Fixed JSON {@link ClientHttpResponse}
+     */
+    private static class StandInResponse implements ClientHttpResponse {
+        private final HttpStatus status;
+        private final byte[] body;
+        private final HttpHeaders headers = new HttpHeaders();
+
+        StandInResponse(HttpStatus status, String body) {
+            this.status = status;
+            this.body = body.getBytes(StandardCharsets.UTF_8);
+            headers.setContentType(MediaType.APPLICATION_JSON);
+            headers.setContentLength(this.body.length);
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() {
+            return status;
+        }
+
+        @Override
+        public String getStatusText() {
+            return status.getReasonPhrase();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+
+        @Override
+        public InputStream getBody() {
+            return new ByteArrayInputStream(body);
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
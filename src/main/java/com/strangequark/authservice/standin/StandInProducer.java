@@ -0,0 +1,148 @@
+package com.strangequark.authservice.standin;
+
+import org.apache.kafka.clients.producer.Callback;
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.KafkaException;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.TimeoutException;
+import org.apache.kafka.common.record.RecordBatch;
+import org.apache.kafka.common.serialization.StringSerializer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process producer standing in for a Kafka cluster. Sends are acknowledged, or fail, on a background thread
+ * after the latency drawn from a {@link StandInBehavior}, the same way the real producer completes its callbacks.
+ */
+public class StandInProducer extends MockProducer<String, String> {
+    /**
+     * Name of the cluster being stood in for
+     */
+    private final String dependency;
+
+    /**
+     * {@link StandInBehavior} of the cluster
+     */
+    private final StandInBehavior behavior;
+
+    /**
+     * Time in milliseconds after which an unacknowledged record expires
+     */
+    private final long deliveryTimeoutMs;
+
+    /**
+     * Thread completing sends, in the role of the producer's network thread
+     */
+    private final ScheduledExecutorService completionThread;
+
+    /**
+     * Sends not yet acknowledged or failed, waited on by {@link #flush()}
+     */
+    private final Set<CompletableFuture<RecordMetadata>> pending = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Next offset handed out
+     */
+    private final AtomicLong nextOffset = new AtomicLong();
+
+    /**
+     * Constructs a new {@code StandInProducer}.
+     *
+     * @param dependency Name of the cluster being stood in for
+     * @param behavior {@link StandInBehavior} of the cluster
+     * @param deliveryTimeoutMs Time in milliseconds after which an unacknowledged record expires
+     */
+    public StandInProducer(String dependency, StandInBehavior behavior, long deliveryTimeoutMs) {
+        super(false, new StringSerializer(), new StringSerializer());
+        this.dependency = dependency;
+        this.behavior = behavior;
+        this.deliveryTimeoutMs = deliveryTimeoutMs;
+        this.completionThread = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("StandIn-" + dependency).daemon(true).factory());
+    }
+
+    @Override
+    public Future<RecordMetadata> send(ProducerRecord<String, String> record) {
+        return send(record, null);
+    }
+
+    @Override
+    public Future<RecordMetadata> send(ProducerRecord<String, String> record, Callback callback) {
+        if (closed())
+            throw new IllegalStateException("Stand-in producer for " + dependency + " is closed");
+
+        StandInBehavior.Outcome outcome = behavior.sampleOutcome();
+        long latencyMs = outcome == StandInBehavior.Outcome.TIMEOUT ? deliveryTimeoutMs : behavior.sampleLatencyMs();
+
+        CompletableFuture<RecordMetadata> future = new CompletableFuture<>();
+        pending.add(future);
+        completionThread.schedule(() -> complete(record, callback, future,
+                        latencyMs >= deliveryTimeoutMs ? StandInBehavior.Outcome.TIMEOUT : outcome),
+                Math.min(latencyMs, deliveryTimeoutMs), TimeUnit.MILLISECONDS);
+        return future;
+    }
+
+    private void complete(ProducerRecord<String, String> record, Callback callback,
+                          CompletableFuture<RecordMetadata> future, StandInBehavior.Outcome outcome) {
+        TopicPartition partition = new TopicPartition(record.topic(), record.partition() == null ? 0 : record.partition());
+        RuntimeException exception = switch (outcome) {
+            case SUCCESS -> null;
+            case ERROR -> new KafkaException("Stand-in " + dependency + " rejected the record");
+            case TIMEOUT -> new TimeoutException("Expiring record for " + partition + ": "
+                    + deliveryTimeoutMs + " ms has passed since it was sent to the stand-in " + dependency);
+        };
+
+        RecordMetadata metadata = exception == null
+                ? new RecordMetadata(partition, nextOffset.getAndIncrement(), 0, System.currentTimeMillis(),
+                        size(record.key()), size(record.value()))
+                : new RecordMetadata(partition, -1, -1, RecordBatch.NO_TIMESTAMP, -1, -1);
+
+        try {
+            if (callback != null)
+                callback.onCompletion(metadata, exception);
+        } finally {
+            if (exception == null)
+                future.complete(metadata);
+            else
+                future.completeExceptionally(exception);
+            pending.remove(future);
+        }
+    }
+
+    private static int size(String value) {
+        return value == null ? -1 : value.getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    /**
+     * Wait for every outstanding send to be acknowledged or fail
+     */
+    @Override
+    public void flush() {
+        awaitPending(Long.MAX_VALUE);
+    }
+
+    @Override
+    public void close(Duration timeout) {
+        awaitPending(timeout.toMillis());
+        completionThread.shutdownNow();
+        super.close(timeout);
+    }
+
+    private void awaitPending(long timeoutMs) {
+        try {
+            CompletableFuture.allOf(pending.toArray(CompletableFuture[]::new))
+                    .exceptionally(ex -> null)
+                    .get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | java.util.concurrent.TimeoutException ex) {
+            //Outstanding sends fail on their own once they reach the delivery timeout
+        }
+    }
+}
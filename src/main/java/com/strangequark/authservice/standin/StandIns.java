@@ -0,0 +1,81 @@
+package com.strangequark.authservice.standin;
+
+import jakarta.annotation.PostConstruct;
+import org.apache.kafka.clients.producer.Producer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * In-process stand-ins for the EmailService, FileService, VaultService and the Kafka clusters, active with the
+ * {@code standin} profile. Each dependency's latency distribution, error rate and timeout rate is configured under
+ * {@code standin.<dependency>}, see application-standin.properties.
+ */
+@Component
+@Profile("standin")
+public class StandIns {
+    private static final Logger LOGGER = LoggerFactory.getLogger(StandIns.class);
+
+    /**
+     * Dependencies that can be stood in for
+     */
+    private static final List<String> DEPENDENCIES = List.of("email", "file", "vault", "email-kafka", "telemetry-kafka",
+            "user-changes-kafka");
+
+    /**
+     * {@link Environment} holding the stand-in settings
+     */
+    private final Environment environment;
+
+    /**
+     * Constructs a new {@code StandIns} with the given dependencies.
+     *
+     * @param environment {@link Environment} holding the stand-in settings
+     */
+    public StandIns(Environment environment) {
+        this.environment = environment;
+    }
+
+    @PostConstruct
+    void logBehaviors() {
+        for (String dependency : DEPENDENCIES)
+            LOGGER.warn("Using in-process stand-in for {}: {}", dependency, behavior(dependency));
+    }
+
+    /**
+     * Build the {@link ClientHttpRequestInterceptor} answering calls to an HTTP dependency
+     * @param dependency Name of the dependency
+     * @param readTimeoutMs Read timeout of the client in milliseconds
+     * @return {@link StandInHttpInterceptor} for the dependency
+     */
+    public ClientHttpRequestInterceptor httpInterceptor(String dependency, long readTimeoutMs) {
+        return new StandInHttpInterceptor(dependency, behavior(dependency), readTimeoutMs);
+    }
+
+    /**
+     * Build a producer standing in for a Kafka cluster
+     * @param dependency Name of the cluster
+     * @param deliveryTimeoutMs Time in milliseconds after which an unacknowledged record expires
+     * @return {@link StandInProducer} for the cluster
+     */
+    public Producer<String, String> producer(String dependency, long deliveryTimeoutMs) {
+        return new StandInProducer(dependency, behavior(dependency), deliveryTimeoutMs);
+    }
+
+    /**
+     * Read the {@link StandInBehavior} configured for a dependency
+     */
+    private StandInBehavior behavior(String dependency) {
+        String prefix = "standin." + dependency + ".";
+        return new StandInBehavior(
+                environment.getProperty(prefix + "latency.median-ms", Double.class, 20.0),
+                environment.getProperty(prefix + "latency.p99-ms", Double.class, 200.0),
+                environment.getProperty(prefix + "error-rate", Double.class, 0.0),
+                environment.getProperty(prefix + "timeout-rate", Double.class, 0.0));
+    }
+}
@@ -0,0 +1,47 @@
+package com.strangequark.authservice.user;
+
+import com.strangequark.authservice.utility.EncryptionUtility;
+import jakarta.persistence.Tuple;
+
+import java.nio.ByteBuffer;
+import java.util.UUID;
+
+/**
+ * A user's ID, username and email as stored, before decryption, read from a native query row.
+ * Selecting only these columns skips the entity's other encrypted fields, and leaves the decryption to the caller
+ * @param id ID of the user
+ * @param username Encrypted username of the user
+ * @param email Encrypted email of the user
+ */
+public record EncryptedUserLookup(UUID id, String username, String email) {
+
+    /**
+     * Read a row selecting the {@code id}, {@code username} and {@code email} columns
+     * @param row {@link Tuple} of a native query
+     * @return {@link EncryptedUserLookup} of the row
+     */
+    public static EncryptedUserLookup of(Tuple row) {
+        return new EncryptedUserLookup(toUuid(row.get("id")), row.get("username", String.class), row.get("email", String.class));
+    }
+
+    /**
+     * Decrypt the row
+     * @return {@link UserLookup} of the user
+     */
+    public UserLookup decrypt() {
+        return new UserLookup(id, EncryptionUtility.decrypt(username), EncryptionUtility.decrypt(email));
+    }
+
+    /**
+     * Native queries return the ID as the driver reads it, a {@link UUID} on Postgres but raw bytes on H2
+     */
+    private static UUID toUuid(Object id) {
+        if (id instanceof UUID uuid)
+            return uuid;
+        if (id instanceof byte[] bytes) {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            return new UUID(buffer.getLong(), buffer.getLong());
+        }
+        return UUID.fromString(id.toString());
+    }
+}
@@ -7,6 +7,7 @@ import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
+import java.time.Instant;
 import java.util.*;
 
 /**
@@ -94,6 +95,11 @@ public class User implements UserDetails {
     @Convert(converter = StringEncryptDecryptConverter.class)
     private Set<String> authorizations;
 
+    /**
+     * When the lock from too many failed logins expires, null if the account has never been locked
+     */
+    private Instant lockedUntil;
+
     /**
      * Returns all the authorities granted to this user
      * @return The list of authorities granted to this user, depending on which role the user is assigned
@@ -118,7 +124,7 @@ public class User implements UserDetails {
      */
     @Override
     public boolean isAccountNonLocked() {
-        return true;
+        return lockedUntil == null || !lockedUntil.isAfter(Instant.now());
     }
 
     /**
@@ -259,4 +265,18 @@ public class User implements UserDetails {
     public void setRefreshToken(String refreshToken) {
         this.refreshToken = refreshToken;
     }
+
+    /**
+     * Get when the user's login lock expires
+     */
+    public Instant getLockedUntil() {
+        return lockedUntil;
+    }
+
+    /**
+     * Set when the user's login lock expires, null to unlock
+     */
+    public void setLockedUntil(Instant lockedUntil) {
+        this.lockedUntil = lockedUntil;
+    }
 }
@@ -0,0 +1,371 @@
+package com.strangequark.authservice.user;
+
+import com.strangequark.authservice.profiling.KafkaSendEvent;
+import com.strangequark.authservice.standin.StandIns;
+import com.strangequark.authservice.utility.KafkaSendObservation;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import jakarta.annotation.PreDestroy;
+import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.config.TopicConfig;
+import org.apache.kafka.common.errors.TopicExistsException;
+import org.apache.kafka.common.header.internals.RecordHeader;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.json.JSONObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link Service} publishing a keyed {@code user-changed} record to a compacted Kafka topic whenever a user is
+ * created, changed or deleted, so other services can keep a local replica of the users instead of looking them up.
+ * Each record carries the user's full replicated state keyed by user ID, so compaction keeps the latest state of
+ * every user, and a deletion is a tombstone. Records are sent in order from a single publisher thread, which keeps
+ * Kafka outages off the request threads.
+ * A new replica records the end offsets of the topic, loads {@link UserService#snapshotUsers()}, then consumes from
+ * the recorded offsets.
+ */
+@Service
+public class UserChangePublisher {
+    private static final Logger LOGGER = LoggerFactory.getLogger(UserChangePublisher.class);
+
+    /**
+     * How long to wait before trying to create the Kafka producer again after a failure
+     */
+    private static final long PRODUCER_RETRY_INTERVAL_MILLIS = 30_000;
+
+    /**
+     * Record header naming the {@link Change}
+     */
+    static final String CHANGE_HEADER = "change";
+
+    /**
+     * What changed about a user
+     */
+    public enum Change {
+        CREATED,
+        USERNAME,
+        EMAIL,
+        ROLE,
+        ENABLED,
+        AUTHORIZATIONS,
+        DELETED,
+        /**
+         * Not a change, marks the lines of a snapshot
+         */
+        SNAPSHOT
+    }
+
+    /**
+     * {@link ObservationRegistry} for tracing Kafka sends
+     */
+    @Autowired
+    private ObservationRegistry observationRegistry;
+
+    /**
+     * {@link StandIns} replacing the Kafka cluster, only present with the standin profile
+     */
+    @Autowired(required = false)
+    private StandIns standIns;
+
+    /**
+     * Flag to turn the change feed off
+     */
+    @Value("${user.changes.enabled:true}")
+    private boolean enabled;
+
+    /**
+     * Kafka bootstrap servers for the cluster holding the change feed
+     */
+    @Value("${user.changes.kafka.bootstrap-servers:telemetry-kafka:9093}")
+    private String bootstrapServers;
+
+    /**
+     * Compacted Kafka topic user changes are published to
+     */
+    @Value("${user.changes.kafka.topic:user-changed}")
+    private String topic;
+
+    /**
+     * Upper bound in milliseconds for a record to be acknowledged, including retries
+     */
+    @Value("${user.changes.kafka.delivery-timeout-ms:120000}")
+    private int deliveryTimeoutMs;
+
+    /**
+     * Maximum time in milliseconds a send may block waiting for metadata or buffer space
+     */
+    @Value("${user.changes.kafka.max-block-ms:5000}")
+    private long maxBlockMs;
+
+    /**
+     * Maximum number of changes waiting for the publisher thread
+     */
+    @Value("${user.changes.queue.capacity:10000}")
+    private int queueCapacity;
+
+    /**
+     * Maximum time in milliseconds spent publishing queued changes on shutdown
+     */
+    @Value("${user.changes.shutdown.timeout-ms:5000}")
+    private long shutdownTimeoutMs;
+
+    /**
+     * Single publisher thread, keeping the records of a user in the order of its changes
+     */
+    private ThreadPoolExecutor publisher;
+
+    /**
+     * Counter of records acknowledged by Kafka
+     */
+    private final LongAdder published = new LongAdder();
+
+    /**
+     * Counter of records that could not be delivered to Kafka
+     */
+    private final LongAdder failed = new LongAdder();
+
+    /**
+     * Counter of changes dropped because the queue was full
+     */
+    private final AtomicLong dropped = new AtomicLong();
+
+    // The fields below are only touched by the publisher thread
+    private Producer<String, String> producer;
+    private long nextProducerAttemptMillis = 0;
+
+    /**
+     * Publish a user's current state after a change has been saved. Never throws and never blocks the caller
+     * @param user {@link User} as saved
+     * @param change {@link Change} that was made
+     */
+    public void publish(User user, Change change) {
+        //Serialized on the caller's thread, the entity may change once the request moves on
+        enqueue(user.getId(), toJson(user, change), change);
+    }
+
+    /**
+     * Publish the tombstone of a deleted user. Never throws and never blocks the caller
+     * @param userId ID of the deleted user
+     */
+    public void publishDeleted(UUID userId) {
+        enqueue(userId, null, Change.DELETED);
+    }
+
+    /**
+     * Serialize a user's replicated state, the value of its records and the lines of a snapshot
+     * @param user {@link User} to serialize
+     * @param change {@link Change} the state follows
+     * @return JSON object of the state
+     */
+    public String toJson(User user, Change change) {
+        JSONObject json = new JSONObject();
+        json.put("userId", user.getId().toString());
+        json.put("change", change.name());
+        json.put("username", user.getUsername());
+        json.put("email", user.getEmail());
+        json.put("role", user.getRole() == null ? JSONObject.NULL : user.getRole().name());
+        json.put("enabled", user.isEnabled());
+        json.put("authorizations", user.getAuthorizations() == null ? List.of() : new TreeSet<>(user.getAuthorizations()));
+        json.put("timestamp", Instant.now().toString());
+        return json.toString();
+    }
+
+    /**
+     * Number of records acknowledged by Kafka
+     */
+    public long getPublishedCount() {
+        return published.sum();
+    }
+
+    /**
+     * Number of records that failed to be delivered to Kafka
+     */
+    public long getFailedCount() {
+        return failed.sum();
+    }
+
+    /**
+     * Number of changes dropped before reaching Kafka because the queue was full
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    /**
+     * Number of changes waiting for the publisher thread
+     */
+    public int getQueueDepth() {
+        return publisher == null ? 0 : publisher.getQueue().size();
+    }
+
+    private void enqueue(UUID userId, String value, Change change) {
+        if (!enabled)
+            return;
+
+        try {
+            getPublisher().execute(() -> send(userId.toString(), value, change));
+        } catch (RejectedExecutionException ex) {
+            long count = dropped.incrementAndGet();
+            if (count == 1 || count % 1000 == 0)
+                LOGGER.warn("User change queue is full or stopped, dropped {} changes so far", count);
+        }
+    }
+
+    /**
+     * Hand a record to the producer, only ever called from the publisher thread
+     */
+    private void send(String key, String value, Change change) {
+        Producer<String, String> kafkaProducer = getProducer();
+        if (kafkaProducer == null) {
+            failed.increment();
+            return;
+        }
+
+        ProducerRecord<String, String> record = new ProducerRecord<>(topic, null, key, value,
+                List.of(new RecordHeader(CHANGE_HEADER, change.name().getBytes(StandardCharsets.UTF_8))));
+
+        KafkaSendEvent sendEvent = new KafkaSendEvent();
+        sendEvent.topic = topic;
+        sendEvent.records = 1;
+        sendEvent.bytes = value == null ? 0 : value.length();
+        sendEvent.begin();
+
+        Observation sendObservation = KafkaSendObservation.start(observationRegistry, record, null);
+        try {
+            kafkaProducer.send(record, (metadata, exception) -> {
+                sendEvent.succeeded = exception == null;
+                sendEvent.commit();
+                KafkaSendObservation.stop(sendObservation, exception);
+
+                if (exception == null) {
+                    published.increment();
+                } else {
+                    failed.increment();
+                    LOGGER.error("Failed to deliver user change to Kafka: {}", exception.getMessage());
+                    LOGGER.debug("Stack trace: ", exception);
+                }
+            });
+        } catch (Exception ex) {
+            KafkaSendObservation.stop(sendObservation, ex);
+            failed.increment();
+            LOGGER.error("Unable to publish user change to Kafka: {}", ex.getMessage());
+            LOGGER.debug("Stack trace: ", ex);
+        }
+    }
+
+    /**
+     * Get the publisher thread, starting it on the first change
+     */
+    private synchronized ThreadPoolExecutor getPublisher() {
+        if (publisher == null)
+            publisher = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                    new LinkedBlockingQueue<>(queueCapacity),
+                    Thread.ofPlatform().name("User-change-publisher").daemon(true).factory());
+        return publisher;
+    }
+
+    /**
+     * Lazily create the long-lived producer and the compacted topic, backing off after a failed attempt
+     */
+    private Producer<String, String> getProducer() {
+        if (producer == null && standIns != null)
+            producer = standIns.producer("user-changes-kafka", deliveryTimeoutMs);
+
+        if (producer == null && System.currentTimeMillis() >= nextProducerAttemptMillis) {
+            try {
+                createTopic();
+
+                Properties props = new Properties();
+                props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+                props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class.getName());
+                props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class.getName());
+                props.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+                props.put(ProducerConfig.ACKS_CONFIG, "all");
+                props.put(ProducerConfig.RETRIES_CONFIG, Integer.MAX_VALUE);
+                props.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, 5);
+                props.put(ProducerConfig.DELIVERY_TIMEOUT_MS_CONFIG, deliveryTimeoutMs);
+                props.put(ProducerConfig.MAX_BLOCK_MS_CONFIG, maxBlockMs);
+                producer = new KafkaProducer<>(props);
+            } catch (Exception ex) {
+                nextProducerAttemptMillis = System.currentTimeMillis() + PRODUCER_RETRY_INTERVAL_MILLIS;
+                LOGGER.error("Unable to create user change Kafka producer: {}", ex.getMessage());
+                LOGGER.debug("Stack trace: ", ex);
+            }
+        }
+        return producer;
+    }
+
+    /**
+     * Create the topic with compaction if it does not exist yet, with the broker's partition and replica defaults
+     */
+    private void createTopic() throws InterruptedException {
+        Properties props = new Properties();
+        props.put(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(AdminClientConfig.DEFAULT_API_TIMEOUT_MS_CONFIG, (int) maxBlockMs);
+
+        try (Admin admin = Admin.create(props)) {
+            admin.createTopics(List.of(new NewTopic(topic, Optional.empty(), Optional.empty())
+                            .configs(Map.of(TopicConfig.CLEANUP_POLICY_CONFIG, TopicConfig.CLEANUP_POLICY_COMPACT))))
+                    .all().get(maxBlockMs, TimeUnit.MILLISECONDS);
+            LOGGER.info("Created compacted topic {}", topic);
+        } catch (ExecutionException ex) {
+            if (!(ex.getCause() instanceof TopicExistsException))
+                throw new IllegalStateException("Unable to create topic " + topic, ex.getCause());
+        } catch (TimeoutException ex) {
+            throw new IllegalStateException("Timed out creating topic " + topic, ex);
+        }
+    }
+
+    /**
+     * Publish what is queued and close the producer
+     */
+    @PreDestroy
+    void stop() {
+        ThreadPoolExecutor current;
+        synchronized (this) {
+            current = publisher;
+        }
+        if (current == null)
+            return;
+
+        LOGGER.info("Stopping user change publisher, {} changes queued", current.getQueue().size());
+        current.shutdown();
+        try {
+            if (!current.awaitTermination(shutdownTimeoutMs, TimeUnit.MILLISECONDS))
+                LOGGER.warn("User change publisher did not finish in time, {} changes left", current.shutdownNow().size());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+
+        if (producer != null) {
+            try {
+                producer.close(Duration.ofMillis(shutdownTimeoutMs));
+            } catch (Exception ex) {
+                LOGGER.error("Failed to close user change Kafka producer: {}", ex.getMessage());
+                LOGGER.debug("Stack trace: ", ex);
+            }
+        }
+    }
+}
@@ -99,13 +99,28 @@ public class UserController {
     /**
      * Post request endpoint for deleting a user
      * @param {@link UserRequest} containing the user's credentials
+     * @param async Queue the deletion and return 202 with a job ID instead of waiting for it
      * @return {@link ResponseEntity}
      */
     @PostMapping("/delete-user")
-    public ResponseEntity<?> deleteUser(@RequestBody UserRequest userRequest) {
+    public ResponseEntity<?> deleteUser(@RequestBody UserRequest userRequest,
+                                        @RequestParam(defaultValue = "false") boolean async) {
+        if (async)
+            return userService.deleteUserAsync(userRequest);
+
         return userService.deleteUser(userRequest);
     }
 
+    /**
+     * Get request endpoint for the progress of a queued user deletion
+     * @param jobId ID of the job returned by an async delete-user request
+     * @return {@link ResponseEntity}
+     */
+    @GetMapping("/delete-user-jobs/{jobId}")
+    public ResponseEntity<?> getDeleteUserJob(@PathVariable UUID jobId) {
+        return userService.getDeleteUserJob(jobId);
+    }
+
     /**
      * Post request endpoint for updating a user's email
      * @param {@link UserRequest} containing the user's credentials
@@ -165,4 +180,45 @@ public class UserController {
     public ResponseEntity<?> getUserDetailsByIds(@RequestBody List<UUID> ids) {
         return userService.getUserDetailsByIds(ids);
     }
+
+    /**
+     * Post request endpoint for resolving several usernames and emails to user IDs at once
+     * @param request {@link UserResolveRequest} with the usernames and emails
+     * @return {@link ResponseEntity}
+     */
+    @PostMapping("/resolve-user-ids")
+    public ResponseEntity<?> resolveUserIds(@RequestBody UserResolveRequest request) {
+        return userService.resolveUserIds(request);
+    }
+
+    /**
+     * Get request endpoint for listing users a page at a time, restricted to SUPER and ADMIN users
+     * @param after ID of the last user on the previous page, omitted for the first page
+     * @param limit maximum number of users on the page
+     * @return {@link ResponseEntity}
+     */
+    @GetMapping("/list-users")
+    public ResponseEntity<?> listUsers(@RequestParam(required = false) UUID after,
+                                       @RequestParam(defaultValue = "100") int limit) {
+        return userService.listUsers(after, limit);
+    }
+
+    /**
+     * Get request endpoint for exporting every user as newline-delimited JSON, restricted to SUPER and ADMIN users
+     * @return {@link ResponseEntity}
+     */
+    @GetMapping("/export-users")
+    public ResponseEntity<?> exportUsers() {
+        return userService.exportUsers();
+    }
+
+    /**
+     * Get request endpoint for a snapshot of every user in the format of the user change feed, for bootstrapping
+     * a replica. Restricted to SUPER and ADMIN users and service accounts
+     * @return {@link ResponseEntity}
+     */
+    @GetMapping("/changes/snapshot")
+    public ResponseEntity<?> snapshotUsers() {
+        return userService.snapshotUsers();
+    }
 }
@@ -0,0 +1,188 @@
+package com.strangequark.authservice.user;
+
+import com.strangequark.authservice.utility.StringEncryptDecryptConverter;
+import jakarta.persistence.*;
+
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * A user deletion running in the background, stored in the "user_deletion_jobs" table so it survives restarts
+ */
+@Entity
+@Table(name = "user_deletion_jobs")
+public class UserDeletionJob {
+
+    /**
+     * Default constructor, leave all fields unset
+     */
+    public UserDeletionJob() {
+    }
+
+    /**
+     * Constructs a new pending {@code UserDeletionJob}
+     *
+     * @param userId ID of the {@link User} to delete
+     * @param username Username of the {@link User} to delete
+     * @param requestedBy ID of the {@link User} who asked for the deletion
+     */
+    public UserDeletionJob(UUID userId, String username, UUID requestedBy) {
+        this.userId = userId;
+        this.username = username;
+        this.requestedBy = requestedBy;
+        this.status = UserDeletionJobStatus.PENDING;
+        this.createdAt = Instant.now();
+        this.updatedAt = this.createdAt;
+        this.nextAttemptAt = this.createdAt;
+    }
+
+    /**
+     * A unique auto-generated {@link UUID} for each job
+     */
+    @Id
+    @GeneratedValue
+    private UUID id;
+
+    /**
+     * Version for optimistic locking, so only one worker can claim a job
+     */
+    @Version
+    private long version;
+
+    /**
+     * ID of the user to delete
+     */
+    @Column(nullable = false)
+    private UUID userId;
+
+    /**
+     * Username of the user to delete, sent to the downstream services
+     */
+    @Column(nullable = false)
+    @Convert(converter = StringEncryptDecryptConverter.class)
+    private String username;
+
+    /**
+     * ID of the user who asked for the deletion
+     */
+    @Column(nullable = false)
+    private UUID requestedBy;
+
+    /**
+     * {@link UserDeletionJobStatus} of the job
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private UserDeletionJobStatus status;
+
+    /**
+     * Number of attempts made so far
+     */
+    private int attempts;
+
+    /**
+     * Comma separated downstream services that have already removed the user
+     */
+    private String completedServices;
+
+    /**
+     * Error from the most recent attempt
+     */
+    @Column(length = 2048)
+    private String lastError;
+
+    /**
+     * When a pending job may next be attempted, or when a running job's claim expires
+     */
+    @Column(nullable = false)
+    private Instant nextAttemptAt;
+
+    /**
+     * When the job was created
+     */
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    /**
+     * When the job last changed
+     */
+    @Column(nullable = false)
+    private Instant updatedAt;
+
+    public UUID getId() {
+        return id;
+    }
+
+    public UUID getUserId() {
+        return userId;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public UUID getRequestedBy() {
+        return requestedBy;
+    }
+
+    public UserDeletionJobStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(UserDeletionJobStatus status) {
+        this.status = status;
+        this.updatedAt = Instant.now();
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    /**
+     * Get the downstream services that have already removed the user
+     */
+    public Set<String> getCompletedServices() {
+        if (completedServices == null || completedServices.isEmpty())
+            return new HashSet<>();
+
+        return new HashSet<>(Arrays.asList(completedServices.split(",")));
+    }
+
+    /**
+     * Record that a downstream service has removed the user
+     * @param service Name of the downstream service
+     */
+    public void addCompletedService(String service) {
+        Set<String> services = new TreeSet<>(getCompletedServices());
+        services.add(service);
+        this.completedServices = String.join(",", services);
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+
+    public Instant getNextAttemptAt() {
+        return nextAttemptAt;
+    }
+
+    public void setNextAttemptAt(Instant nextAttemptAt) {
+        this.nextAttemptAt = nextAttemptAt;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+}
@@ -0,0 +1,31 @@
+package com.strangequark.authservice.user;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * An interface to manage user deletion jobs in the database via Spring's JPA
+ */
+public interface UserDeletionJobRepository extends JpaRepository<UserDeletionJob, UUID> {
+
+    /**
+     * Find the jobs in the given statuses that are due, oldest first
+     * @param statuses {@link UserDeletionJobStatus} values to include
+     * @param now Jobs due at or before this instant are returned
+     * @param pageable Limit on the number of jobs returned
+     */
+    List<UserDeletionJob> findByStatusInAndNextAttemptAtLessThanEqualOrderByNextAttemptAtAsc(
+            Collection<UserDeletionJobStatus> statuses, Instant now, Pageable pageable);
+
+    /**
+     * Determine if an unfinished job already exists for a user
+     * @param userId ID of the user
+     * @param statuses {@link UserDeletionJobStatus} values that count as unfinished
+     */
+    boolean existsByUserIdAndStatusIn(UUID userId, Collection<UserDeletionJobStatus> statuses);
+}
@@ -0,0 +1,103 @@
+package com.strangequark.authservice.user;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Response object describing the progress of a {@link UserDeletionJob}
+ */
+public class UserDeletionJobResponse {
+    /**
+     * Timestamp of the response
+     */
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "dd-MM-yyyy hh:mm:ss")
+    private final LocalDateTime timestamp;
+
+    /**
+     * ID of the job
+     */
+    private final UUID jobId;
+
+    /**
+     * ID of the user being deleted
+     */
+    private final UUID userId;
+
+    /**
+     * {@link UserDeletionJobStatus} of the job
+     */
+    private final UserDeletionJobStatus status;
+
+    /**
+     * Number of attempts made so far
+     */
+    private final int attempts;
+
+    /**
+     * Downstream services that have already removed the user
+     */
+    private final Set<String> completedServices;
+
+    /**
+     * Error from the most recent attempt
+     */
+    private final String lastError;
+
+    /**
+     * When the job last changed
+     */
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "dd-MM-yyyy hh:mm:ss")
+    private final LocalDateTime updatedAt;
+
+    /**
+     * Constructs a new {@code UserDeletionJobResponse} from a job
+     *
+     * @param job {@link UserDeletionJob} to describe
+     */
+    public UserDeletionJobResponse(UserDeletionJob job) {
+        this.timestamp = LocalDateTime.now();
+        this.jobId = job.getId();
+        this.userId = job.getUserId();
+        this.status = job.getStatus();
+        this.attempts = job.getAttempts();
+        this.completedServices = job.getCompletedServices();
+        this.lastError = job.getLastError();
+        this.updatedAt = LocalDateTime.ofInstant(job.getUpdatedAt(), ZoneId.systemDefault());
+    }
+
+    public LocalDateTime getTimestamp() {
+        return timestamp;
+    }
+
+    public UUID getJobId() {
+        return jobId;
+    }
+
+    public UUID getUserId() {
+        return userId;
+    }
+
+    public UserDeletionJobStatus getStatus() {
+        return status;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public Set<String> getCompletedServices() {
+        return completedServices;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+}
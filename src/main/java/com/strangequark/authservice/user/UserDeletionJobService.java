@@ -0,0 +1,325 @@
+package com.strangequark.authservice.user;
+
+import com.strangequark.authservice.invalidation.CacheInvalidator;
+import com.strangequark.authservice.utility.AuthUtility;
+import com.strangequark.authservice.utility.TelemetryUtility; // Integration line: Telemetry
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * {@link Service} for running user deletions in the background.
+ * Jobs are persisted, claimed by a scheduled worker a few at a time, and retried with exponential backoff until
+ * every downstream service has removed the user, after which the local user is deleted.
+ */
+@Service
+public class UserDeletionJobService {
+    private static final Logger LOGGER = LoggerFactory.getLogger(UserDeletionJobService.class);
+
+    /**
+     * Statuses of jobs that have not finished yet
+     */
+    private static final List<UserDeletionJobStatus> UNFINISHED_STATUSES =
+            List.of(UserDeletionJobStatus.PENDING, UserDeletionJobStatus.RUNNING);
+
+    /**
+     * {@link UserDeletionJobRepository} for persisting jobs
+     */
+    private final UserDeletionJobRepository userDeletionJobRepository;
+
+    /**
+     * {@link UserRepository} for deleting the user once the downstream cleanups are done
+     */
+    private final UserRepository userRepository;
+
+    /**
+     * {@link CacheInvalidator} to drop deleted users from the caches of every instance
+     */
+    private final CacheInvalidator cacheInvalidator;
+
+    /**
+     * {@link UserChangePublisher} to publish deletions to the change feed
+     */
+    private final UserChangePublisher userChangePublisher;
+
+    /**
+     * {@link UserDownstreamCleanup} for removing the user from downstream services
+     */
+    private final UserDownstreamCleanup userDownstreamCleanup;
+
+    /**
+     * {@link AuthUtility} for the service account token sent to the downstream services
+     */
+    private final AuthUtility authUtility;
+
+    /**
+     * {@link ExecutorService} running claimed jobs on virtual threads
+     */
+    private final ExecutorService downstreamExecutor;
+
+    /** Integration function start: Telemetry
+     * {@link TelemetryUtility} for sending telemetry events to the Kafka
+     */
+    @Autowired
+    TelemetryUtility telemetryUtility;
+    // Integration function end: Telemetry
+
+    /**
+     * Maximum number of jobs run at the same time by this instance
+     */
+    @Value("${user.delete.jobs.max-concurrent:4}")
+    private int maxConcurrentJobs;
+
+    /**
+     * Number of attempts before a job stops retrying
+     */
+    @Value("${user.delete.jobs.max-attempts:5}")
+    private int maxAttempts;
+
+    /**
+     * Delay in milliseconds before the first retry, doubled on each further attempt
+     */
+    @Value("${user.delete.jobs.backoff-initial-ms:2000}")
+    private long backoffInitialMs;
+
+    /**
+     * Upper bound in milliseconds on the delay between attempts
+     */
+    @Value("${user.delete.jobs.backoff-max-ms:60000}")
+    private long backoffMaxMs;
+
+    /**
+     * Time in milliseconds a claimed job stays with its worker before another worker may pick it up
+     */
+    @Value("${user.delete.jobs.lease-ms:60000}")
+    private long leaseMs;
+
+    /**
+     * {@link UserDownstreamCleanup.DownstreamTimeoutPolicy} applied once a job runs out of attempts on a slow service
+     */
+    @Value("${user.delete.downstream-timeout-policy:PROCEED}")
+    private UserDownstreamCleanup.DownstreamTimeoutPolicy downstreamTimeoutPolicy;
+
+    /**
+     * Constructs a new {@code UserDeletionJobService} with the given dependencies.
+     *
+     * @param userDeletionJobRepository {@link UserDeletionJobRepository} for persisting jobs
+     * @param userRepository {@link UserRepository} for deleting users
+     * @param cacheInvalidator {@link CacheInvalidator} to drop deleted users from the caches of every instance
+     * @param userChangePublisher {@link UserChangePublisher} to publish deletions to the change feed
+     * @param userDownstreamCleanup {@link UserDownstreamCleanup} for removing users from downstream services
+     * @param authUtility {@link AuthUtility} for the service account token sent to the downstream services
+     * @param downstreamExecutor {@link ExecutorService} for running claimed jobs
+     */
+    public UserDeletionJobService(UserDeletionJobRepository userDeletionJobRepository, UserRepository userRepository,
+                                  CacheInvalidator cacheInvalidator, UserChangePublisher userChangePublisher,
+                                  UserDownstreamCleanup userDownstreamCleanup, AuthUtility authUtility,
+                                  @Qualifier("downstreamExecutor") ExecutorService downstreamExecutor) {
+        this.userDeletionJobRepository = userDeletionJobRepository;
+        this.userRepository = userRepository;
+        this.cacheInvalidator = cacheInvalidator;
+        this.userChangePublisher = userChangePublisher;
+        this.userDownstreamCleanup = userDownstreamCleanup;
+        this.authUtility = authUtility;
+        this.downstreamExecutor = downstreamExecutor;
+    }
+
+    /**
+     * Queue a deletion for a user
+     * @param user {@link User} to delete
+     * @param requestingUser {@link User} who asked for the deletion
+     * @return The persisted {@link UserDeletionJob}
+     */
+    public UserDeletionJob createJob(User user, User requestingUser) {
+        if (userDeletionJobRepository.existsByUserIdAndStatusIn(user.getId(), UNFINISHED_STATUSES))
+            throw new RuntimeException("A deletion is already in progress for this user");
+
+        UserDeletionJob job = userDeletionJobRepository.save(
+                new UserDeletionJob(user.getId(), user.getUsername(), requestingUser.getId()));
+
+        LOGGER.debug("Queued user deletion job {}", job.getId());
+        return job;
+    }
+
+    /**
+     * Find a job by its ID
+     * @param jobId ID of the job
+     */
+    public Optional<UserDeletionJob> findJob(UUID jobId) {
+        return userDeletionJobRepository.findById(jobId);
+    }
+
+    /**
+     * Claim the jobs that are due, at most {@link #maxConcurrentJobs} at a time, and run them concurrently.
+     * Running jobs whose lease has expired, for example after a crash, are claimed again.
+     */
+    @Scheduled(fixedDelayString = "${user.delete.jobs.poll-interval-ms:1000}",
+            initialDelayString = "${user.delete.jobs.poll-interval-ms:1000}")
+    public void processDueJobs() {
+        List<UserDeletionJob> dueJobs = userDeletionJobRepository
+                .findByStatusInAndNextAttemptAtLessThanEqualOrderByNextAttemptAtAsc(
+                        UNFINISHED_STATUSES, Instant.now(), PageRequest.of(0, maxConcurrentJobs));
+
+        List<Future<?>> futures = new ArrayList<>();
+        for (UserDeletionJob dueJob : dueJobs) {
+            UserDeletionJob job = claim(dueJob);
+            if (job != null)
+                futures.add(downstreamExecutor.submit(() -> runJob(job)));
+        }
+
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException interruptedException) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException executionException) {
+                LOGGER.error("User deletion job failed unexpectedly: {}", executionException.getCause().getMessage());
+                LOGGER.debug("Stack trace: ", executionException.getCause());
+            }
+        }
+    }
+
+    /**
+     * Mark a job as running and take a lease on it
+     * @param job {@link UserDeletionJob} to claim
+     * @return The claimed job, or null if another worker claimed it first
+     */
+    private UserDeletionJob claim(UserDeletionJob job) {
+        job.setStatus(UserDeletionJobStatus.RUNNING);
+        job.setAttempts(job.getAttempts() + 1);
+        job.setNextAttemptAt(Instant.now().plusMillis(leaseMs));
+
+        try {
+            return userDeletionJobRepository.saveAndFlush(job);
+        } catch (ObjectOptimisticLockingFailureException ex) {
+            LOGGER.debug("User deletion job {} was claimed by another worker", job.getId());
+            return null;
+        }
+    }
+
+    /**
+     * Run one attempt of a claimed job
+     * @param job Claimed {@link UserDeletionJob}
+     */
+    private void runJob(UserDeletionJob job) {
+        LOGGER.info("Attempting user deletion job, attempt {}", job.getAttempts());
+
+        try {
+            //The requester's token may have expired by the time the job runs, so the service account acts for them
+            String serviceToken = authUtility.getServiceAccountToken();
+            if (serviceToken == null)
+                throw new RuntimeException("Unable to authenticate service account");
+
+            Map<String, UserDownstreamCleanup.Result> results = userDownstreamCleanup
+                    .deleteFromDownstreamServices(job.getUsername(), serviceToken, job.getCompletedServices());
+
+            List<String> errors = new ArrayList<>();
+            boolean canProceed = true;
+
+            for (Map.Entry<String, UserDownstreamCleanup.Result> entry : results.entrySet()) {
+                UserDownstreamCleanup.Result result = entry.getValue();
+
+                switch (result.outcome()) {
+                    case SUCCEEDED -> job.addCompletedService(entry.getKey());
+                    case UNREACHABLE -> errors.add(result.message());
+                    case TIMED_OUT -> {
+                        errors.add(result.message());
+                        if (downstreamTimeoutPolicy == UserDownstreamCleanup.DownstreamTimeoutPolicy.ABORT)
+                            canProceed = false;
+                    }
+                    case FAILED -> {
+                        errors.add(result.message());
+                        canProceed = false;
+                    }
+                }
+            }
+
+            if (errors.isEmpty()) {
+                complete(job);
+            } else if (job.getAttempts() < maxAttempts) {
+                retry(job, String.join("\n", errors));
+            } else if (canProceed) {
+                //Out of attempts but nothing refused the deletion, proceed like a synchronous deletion would
+                LOGGER.warn("User deletion job out of attempts - continuing to delete user");
+                complete(job);
+            } else {
+                fail(job, String.join("\n", errors));
+            }
+        } catch (InterruptedException ex) {
+            retry(job, "Interrupted");
+            Thread.currentThread().interrupt();
+        } catch (Exception ex) {
+            LOGGER.error("User deletion job attempt failed: {}", ex.getMessage());
+            LOGGER.debug("Stack trace: ", ex);
+
+            if (job.getAttempts() < maxAttempts)
+                retry(job, ex.getMessage());
+            else
+                fail(job, ex.getMessage());
+        }
+    }
+
+    /**
+     * Delete the user and mark the job as completed
+     * @param job {@link UserDeletionJob} to complete
+     */
+    private void complete(UserDeletionJob job) {
+        userRepository.findById(job.getUserId()).ifPresent(userRepository::delete);
+        cacheInvalidator.invalidateUser(job.getUserId());
+        userChangePublisher.publishDeleted(job.getUserId());
+
+        job.setStatus(UserDeletionJobStatus.COMPLETED);
+        userDeletionJobRepository.save(job);
+        // Send a telemetry event for user delete - Integration function start: Telemetry
+        telemetryUtility.sendTelemetryEvent("user-delete", Map.of(
+                "userId", job.getUserId(),
+                "jobId", job.getId()
+        )); // Integration function end: Telemetry
+
+        LOGGER.info("User deletion job completed");
+    }
+
+    /**
+     * Schedule another attempt with exponential backoff and jitter
+     * @param job {@link UserDeletionJob} to retry
+     * @param error Error from the attempt that just ran
+     */
+    private void retry(UserDeletionJob job, String error) {
+        long backoffMs = Math.min(backoffMaxMs, backoffInitialMs << Math.min(job.getAttempts() - 1, 20));
+        backoffMs += ThreadLocalRandom.current().nextLong(backoffMs / 5 + 1);
+
+        job.setStatus(UserDeletionJobStatus.PENDING);
+        job.setLastError(error);
+        job.setNextAttemptAt(Instant.now().plusMillis(backoffMs));
+        userDeletionJobRepository.save(job);
+
+        LOGGER.warn("User deletion job attempt {} incomplete, retrying in {}ms", job.getAttempts(), backoffMs);
+    }
+
+    /**
+     * Give up on a job and keep the user
+     * @param job {@link UserDeletionJob} to fail
+     * @param error Error from the last attempt
+     */
+    private void fail(UserDeletionJob job, String error) {
+        job.setStatus(UserDeletionJobStatus.FAILED);
+        job.setLastError(error);
+        userDeletionJobRepository.save(job);
+
+        LOGGER.error("User deletion job failed after {} attempts: {}", job.getAttempts(), error);
+    }
+}
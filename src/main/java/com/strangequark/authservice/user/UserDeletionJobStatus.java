@@ -0,0 +1,23 @@
+package com.strangequark.authservice.user;
+
+/**
+ * Progress of a {@link UserDeletionJob}
+ */
+public enum UserDeletionJobStatus {
+    /**
+     * Waiting for its next attempt
+     */
+    PENDING,
+    /**
+     * Claimed by a worker and running
+     */
+    RUNNING,
+    /**
+     * The user has been deleted
+     */
+    COMPLETED,
+    /**
+     * The job gave up and the user was kept
+     */
+    FAILED
+}
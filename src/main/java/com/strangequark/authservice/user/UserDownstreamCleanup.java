@@ -0,0 +1,207 @@
+package com.strangequark.authservice.user;
+
+import com.strangequark.authservice.utility.FileUtility; // Integration line: File
+import com.strangequark.authservice.utility.VaultUtility; // Integration line: Vault
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.net.http.HttpConnectTimeoutException;
+import java.net.http.HttpTimeoutException;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * {@link Component} for removing a {@link User} from every downstream service when the user is deleted.
+ * The calls run concurrently on virtual threads and share one overall deadline.
+ */
+@Component
+public class UserDownstreamCleanup {
+    private static final Logger LOGGER = LoggerFactory.getLogger(UserDownstreamCleanup.class);
+
+    /**
+     * Policy applied when a downstream service does not finish a user deletion before the deadline
+     */
+    public enum DownstreamTimeoutPolicy {
+        /**
+         * Delete the local user anyway, like an unreachable service
+         */
+        PROCEED,
+        /**
+         * Fail the deletion and keep the local user
+         */
+        ABORT
+    }
+
+    /**
+     * Result of a single downstream cleanup
+     */
+    public enum Outcome {
+        /**
+         * The service removed the user
+         */
+        SUCCEEDED,
+        /**
+         * The service could not be reached
+         */
+        UNREACHABLE,
+        /**
+         * The service did not answer before the deadline
+         */
+        TIMED_OUT,
+        /**
+         * The service answered with an error
+         */
+        FAILED
+    }
+
+    /**
+     * Outcome of a single downstream cleanup
+     * @param outcome {@link Outcome} of the call
+     * @param message Error details, null if the call succeeded
+     */
+    public record Result(Outcome outcome, String message) {
+    }
+
+    /**
+     * A named call to a downstream service
+     * @param service Name of the downstream service
+     * @param call Call to make
+     */
+    private record DownstreamCall(String service, Callable<ResponseEntity<?>> call) {
+    }
+
+    /** Integration function start: File
+     * {@link FileUtility} for sending requests to file service
+     */
+    @Autowired
+    FileUtility fileUtility;
+
+    /**
+     * Read timeout in milliseconds of the file service client
+     */
+    @Value("${outbound.file.read-timeout-ms:5000}")
+    private long fileReadTimeoutMs;
+    // Integration function end: File
+    /** Integration function start: Vault
+     * {@link VaultUtility} for sending requests to vault service
+     */
+    @Autowired
+    VaultUtility vaultUtility;
+
+    /**
+     * Read timeout in milliseconds of the vault service client
+     */
+    @Value("${outbound.vault.read-timeout-ms:5000}")
+    private long vaultReadTimeoutMs;
+    // Integration function end: Vault
+
+    /**
+     * {@link ExecutorService} running downstream cleanups on virtual threads
+     */
+    @Autowired
+    @Qualifier("downstreamExecutor")
+    private ExecutorService downstreamExecutor;
+
+    /**
+     * Overall deadline in milliseconds for all downstream cleanups of a user deletion
+     */
+    @Value("${user.delete.downstream-timeout-ms:4000}")
+    private long downstreamTimeoutMs;
+
+    /**
+     * Check that the deadline runs out before any client's read timeout, so a slow service is always reported as
+     * {@link Outcome#TIMED_OUT} by the deadline instead of racing the client's own timeout
+     */
+    @PostConstruct
+    void validateDeadline() {
+        Map<String, Long> readTimeouts = new LinkedHashMap<>();
+        readTimeouts.put("outbound.file.read-timeout-ms", fileReadTimeoutMs); // Integration line: File
+        readTimeouts.put("outbound.vault.read-timeout-ms", vaultReadTimeoutMs); // Integration line: Vault
+
+        for (Map.Entry<String, Long> readTimeout : readTimeouts.entrySet())
+            if (downstreamTimeoutMs >= readTimeout.getValue())
+                throw new IllegalStateException("user.delete.downstream-timeout-ms (" + downstreamTimeoutMs
+                        + ") must be shorter than " + readTimeout.getKey() + " (" + readTimeout.getValue() + ")");
+    }
+
+    /**
+     * Remove the user from every downstream service that has not already done so
+     * @param username Username of the user being deleted
+     * @param authToken Bearer token to send to the downstream services
+     * @param completedServices Services that already removed the user and are skipped
+     * @return {@link Result} for each service that was called, keyed by service name
+     */
+    public Map<String, Result> deleteFromDownstreamServices(String username, String authToken,
+                                                            Set<String> completedServices) throws InterruptedException {
+        List<DownstreamCall> downstreamCalls = new ArrayList<>();
+        // Integration function start: File
+        downstreamCalls.add(new DownstreamCall("fileservice",
+                () -> fileUtility.deleteUserFromAllCollections(username, authToken)));
+        // Integration function end: File
+        // Integration function start: Vault
+        downstreamCalls.add(new DownstreamCall("vaultservice",
+                () -> vaultUtility.deleteUserFromAllServices(username, authToken)));
+        // Integration function end: Vault
+        downstreamCalls.removeIf(downstreamCall -> completedServices.contains(downstreamCall.service()));
+
+        Map<String, Result> results = new LinkedHashMap<>();
+        if (downstreamCalls.isEmpty())
+            return results;
+
+        LOGGER.debug("Attempting to delete user from {} downstream services", downstreamCalls.size());
+
+        List<Future<ResponseEntity<?>>> futures = new ArrayList<>();
+        for (DownstreamCall downstreamCall : downstreamCalls)
+            futures.add(downstreamExecutor.submit(downstreamCall.call()));
+
+        long deadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(downstreamTimeoutMs);
+
+        for (int i = 0; i < futures.size(); i++) {
+            String service = downstreamCalls.get(i).service();
+            Future<ResponseEntity<?>> future = futures.get(i);
+
+            try {
+                ResponseEntity<?> response = future.get(Math.max(0, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+
+                if (response.getStatusCode().value() == 200)
+                    results.put(service, new Result(Outcome.SUCCEEDED, null));
+                else
+                    results.put(service, new Result(Outcome.FAILED, "Error when deleting user from " + service + ":\n\n" + response.getBody()));
+            } catch (ExecutionException executionException) {
+                if (isReadTimeout(executionException.getCause())) {
+                    LOGGER.debug("Read from {} timed out: {}", service, executionException.getCause().getMessage());
+                    results.put(service, new Result(Outcome.TIMED_OUT, "Timed out deleting user from " + service));
+                } else if (executionException.getCause() instanceof ResourceAccessException resourceAccessException) {
+                    LOGGER.debug("Unable to reach {}: {}", service, resourceAccessException.getMessage());
+                    results.put(service, new Result(Outcome.UNREACHABLE, "Unable to reach " + service));
+                } else {
+                    results.put(service, new Result(Outcome.FAILED, "Error when deleting user from " + service + ":\n\n"
+                            + executionException.getCause().getMessage()));
+                }
+            } catch (TimeoutException timeoutException) {
+                future.cancel(true);
+                results.put(service, new Result(Outcome.TIMED_OUT, "Timed out deleting user from " + service));
+            }
+        }
+
+        return results;
+    }
+
+    /**
+     * Check whether a failed call ran into the client's read timeout. A connect timeout means the service could not
+     * be reached and is not counted.
+     */
+    private static boolean isReadTimeout(Throwable ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause())
+            if (cause instanceof HttpTimeoutException && !(cause instanceof HttpConnectTimeoutException))
+                return true;
+        return false;
+    }
+}
@@ -0,0 +1,21 @@
+package com.strangequark.authservice.user;
+
+import java.util.UUID;
+
+/**
+ * Decrypted id, username and email of a {@link User}, the projection other services look users up by
+ * @param id ID of the user
+ * @param username Username of the user
+ * @param email Email of the user
+ */
+public record UserLookup(UUID id, String username, String email) {
+
+    /**
+     * Build the projection of a {@link User}
+     * @param user {@link User} to project
+     * @return {@link UserLookup} of the user
+     */
+    public static UserLookup of(User user) {
+        return new UserLookup(user.getId(), user.getUsername(), user.getEmail());
+    }
+}
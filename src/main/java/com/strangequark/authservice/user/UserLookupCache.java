@@ -0,0 +1,308 @@
+package com.strangequark.authservice.user;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.strangequark.authservice.invalidation.CacheInvalidator;
+import com.strangequark.authservice.invalidation.InvalidationHandler;
+import com.strangequark.authservice.utility.EncryptionUtility;
+import jakarta.persistence.Tuple;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * {@link Service} caching {@link UserLookup} projections so lookups by ID, username or email skip the
+ * encrypted-column queries and decryption. Entries are keyed by ID, with username and email indexes pointing at
+ * the ID; an index entry is only trusted when the projection it points at still carries the same value, so a
+ * stale index entry costs a query rather than a wrong answer.
+ * Writers must call {@link CacheInvalidator#invalidateUser(UUID)} after saving or deleting a user, which evicts the
+ * user here and on every other instance. Entries also expire after a time-to-live, which bounds staleness when an
+ * invalidation message is missed.
+ */
+@Service
+public class UserLookupCache implements InvalidationHandler {
+
+    /**
+     * {@link UserRepository} for loading projections on a miss
+     */
+    private final UserRepository userRepository;
+
+    /**
+     * Projections keyed by user ID
+     */
+    private final Cache<UUID, UserLookup> byId;
+
+    /**
+     * User IDs keyed by username
+     */
+    private final Cache<String, UUID> idByUsername;
+
+    /**
+     * User IDs keyed by email
+     */
+    private final Cache<String, UUID> idByEmail;
+
+    /**
+     * Maximum number of values bound to a single {@code IN} query
+     */
+    private final int chunkSize;
+
+    /**
+     * Number of loaded rows from which decryption is spread across cores
+     */
+    private final int parallelDecryptThreshold;
+
+    /**
+     * Incremented by every eviction. A load that overlaps an eviction removes what it cached, since it may have
+     * read the row before the write it is racing with
+     */
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * Constructs a new {@code UserLookupCache} with the given dependencies.
+     *
+     * @param userRepository {@link UserRepository} for loading projections on a miss
+     * @param maxSize Maximum number of users cached
+     * @param ttlSeconds Seconds after which a cached projection is reloaded
+     * @param chunkSize Maximum number of values bound to a single {@code IN} query
+     * @param parallelDecryptThreshold Number of loaded rows from which decryption is spread across cores
+     */
+    public UserLookupCache(UserRepository userRepository,
+                           @Value("${user.lookup-cache.max-size:100000}") long maxSize,
+                           @Value("${user.lookup-cache.ttl-seconds:600}") long ttlSeconds,
+                           @Value("${user.lookup-cache.chunk-size:1000}") int chunkSize,
+                           @Value("${user.lookup-cache.parallel-decrypt-threshold:256}") int parallelDecryptThreshold) {
+        this.userRepository = userRepository;
+        this.chunkSize = chunkSize;
+        this.parallelDecryptThreshold = parallelDecryptThreshold;
+        this.byId = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        this.idByUsername = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+        this.idByEmail = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+    }
+
+    /**
+     * Find a user's projection by ID
+     * @param id ID of the user
+     * @return {@link UserLookup} of the user, empty if no user has the ID
+     */
+    public Optional<UserLookup> findById(UUID id) {
+        UserLookup cached = byId.getIfPresent(id);
+        if (cached != null)
+            return Optional.of(cached);
+
+        return load(() -> userRepository.findById(id));
+    }
+
+    /**
+     * Find a user's projection by username
+     * @param username Username of the user
+     * @return {@link UserLookup} of the user, empty if no user has the username
+     */
+    public Optional<UserLookup> findByUsername(String username) {
+        UserLookup cached = fromIndex(idByUsername.getIfPresent(username));
+        if (cached != null && cached.username().equals(username))
+            return Optional.of(cached);
+
+        return load(() -> userRepository.findByUsername(username));
+    }
+
+    /**
+     * Find a user's projection by email
+     * @param email Email of the user
+     * @return {@link UserLookup} of the user, empty if no user has the email
+     */
+    public Optional<UserLookup> findByEmail(String email) {
+        UserLookup cached = fromIndex(idByEmail.getIfPresent(email));
+        if (cached != null && cached.email().equals(email))
+            return Optional.of(cached);
+
+        return load(() -> userRepository.findByEmail(email));
+    }
+
+    /**
+     * Find the projections of several users, loading the misses of each chunk with a single query
+     * @param ids IDs of the users
+     * @return {@link UserLookup} of each user found, in the order of the IDs
+     */
+    public List<UserLookup> findAllById(Collection<UUID> ids) {
+        List<UserLookup> found = new ArrayList<>();
+        for (List<UUID> chunk : chunks(ids.stream().filter(Objects::nonNull).distinct().toList()))
+            found.addAll(findChunkById(chunk));
+        return found;
+    }
+
+    /**
+     * Find the projections of every user with one of the usernames or emails, encrypting each value once and
+     * loading every miss with a query per chunk
+     * @param usernames Usernames to look up
+     * @param emails Emails to look up
+     * @return {@link UserLookup} of each user found, in no particular order
+     */
+    public List<UserLookup> findAllByUsernameOrEmail(Collection<String> usernames, Collection<String> emails) {
+        Map<UUID, UserLookup> found = new HashMap<>();
+        Set<String> missing = new LinkedHashSet<>();
+
+        for (String username : usernames) {
+            UserLookup cached = fromIndex(idByUsername.getIfPresent(username));
+            if (cached != null && cached.username().equals(username))
+                found.put(cached.id(), cached);
+            else
+                missing.add(username);
+        }
+        for (String email : emails) {
+            UserLookup cached = fromIndex(idByEmail.getIfPresent(email));
+            if (cached != null && cached.email().equals(email))
+                found.put(cached.id(), cached);
+            else
+                missing.add(email);
+        }
+
+        if (!missing.isEmpty()) {
+            long evictionsBefore = evictions.get();
+            List<UserLookup> loaded = new ArrayList<>();
+            for (List<String> chunk : chunks(missing.stream().map(EncryptionUtility::encrypt).toList()))
+                loaded.addAll(decrypt(userRepository.findLookupsByUsernameOrEmailIn(chunk)));
+            loaded.forEach(lookup -> {
+                put(lookup);
+                found.put(lookup.id(), lookup);
+            });
+            discardIfRaced(evictionsBefore, loaded);
+        }
+
+        return List.copyOf(found.values());
+    }
+
+    /**
+     * Drop a user's projection after the user is saved or deleted. Index entries for its old username and email
+     * are removed with it, those for the new values are replaced on the next load.
+     * @param id ID of the user
+     */
+    public void evict(UUID id) {
+        evictions.incrementAndGet();
+
+        UserLookup cached = byId.getIfPresent(id);
+        byId.invalidate(id);
+        if (cached != null) {
+            idByUsername.invalidate(cached.username());
+            idByEmail.invalidate(cached.email());
+        }
+    }
+
+    /**
+     * Drop every cached projection, for when users are removed in bulk without going through {@link #evict(UUID)}
+     */
+    public void evictAll() {
+        evictions.incrementAndGet();
+
+        byId.invalidateAll();
+        idByUsername.invalidateAll();
+        idByEmail.invalidateAll();
+    }
+
+    @Override
+    public void invalidateUser(UUID userId) {
+        evict(userId);
+    }
+
+    @Override
+    public void invalidateAll() {
+        evictAll();
+    }
+
+    /**
+     * Get the cache of projections by ID, for its statistics
+     */
+    public Cache<UUID, UserLookup> getCache() {
+        return byId;
+    }
+
+    /**
+     * Split values into lists of at most the chunk size, keeping {@code IN} clauses bounded
+     * @param values Values to split
+     * @return Views of consecutive ranges of the values
+     */
+    public <T> List<List<T>> chunks(List<T> values) {
+        List<List<T>> chunks = new ArrayList<>();
+        for (int from = 0; from < values.size(); from += chunkSize)
+            chunks.add(values.subList(from, Math.min(from + chunkSize, values.size())));
+        return chunks;
+    }
+
+    /**
+     * Find the projections of distinct IDs that fit in one {@code IN} query
+     */
+    private List<UserLookup> findChunkById(List<UUID> ids) {
+        Map<UUID, UserLookup> found = new HashMap<>(byId.getAllPresent(ids));
+
+        List<UUID> missing = ids.stream().filter(id -> !found.containsKey(id)).toList();
+        if (!missing.isEmpty()) {
+            long evictionsBefore = evictions.get();
+            List<UserLookup> loaded = decrypt(userRepository.findLookupsByIdIn(missing));
+            loaded.forEach(lookup -> {
+                put(lookup);
+                found.put(lookup.id(), lookup);
+            });
+            discardIfRaced(evictionsBefore, loaded);
+        }
+
+        return ids.stream().map(found::get).filter(Objects::nonNull).toList();
+    }
+
+    /**
+     * Decrypt loaded rows, across the common fork-join pool once there are enough of them to outweigh the handoff
+     */
+    private List<UserLookup> decrypt(List<Tuple> rows) {
+        return (rows.size() >= parallelDecryptThreshold ? rows.parallelStream() : rows.stream())
+                .map(row -> EncryptedUserLookup.of(row).decrypt())
+                .toList();
+    }
+
+    private UserLookup fromIndex(UUID id) {
+        return id == null ? null : byId.getIfPresent(id);
+    }
+
+    private Optional<UserLookup> load(Supplier<Optional<User>> query) {
+        long evictionsBefore = evictions.get();
+        Optional<UserLookup> lookup = query.get().map(UserLookup::of);
+
+        lookup.ifPresent(loaded -> {
+            put(loaded);
+            discardIfRaced(evictionsBefore, List.of(loaded));
+        });
+        return lookup;
+    }
+
+    private void put(UserLookup lookup) {
+        byId.put(lookup.id(), lookup);
+        idByUsername.put(lookup.username(), lookup.id());
+        idByEmail.put(lookup.email(), lookup.id());
+    }
+
+    /**
+     * Remove freshly loaded projections if an eviction happened while they were being read
+     */
+    private void discardIfRaced(long evictionsBefore, List<UserLookup> loaded) {
+        if (evictions.get() == evictionsBefore)
+            return;
+
+        for (UserLookup lookup : loaded) {
+            byId.invalidate(lookup.id());
+            idByUsername.invalidate(lookup.username());
+            idByEmail.invalidate(lookup.email());
+        }
+    }
+}
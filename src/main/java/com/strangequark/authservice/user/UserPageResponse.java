@@ -0,0 +1,41 @@
+package com.strangequark.authservice.user;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Response object for a page of the user listing
+ */
+public class UserPageResponse {
+    /**
+     * Users on the page, ordered by ID
+     */
+    private final List<UserResponse> users;
+
+    /**
+     * Cursor to pass as {@code after} for the next page, null on the last page
+     */
+    private final UUID nextCursor;
+
+    /**
+     * Constructs a new {@code UserPageResponse} with the users and the cursor of the next page
+     */
+    public UserPageResponse(List<UserResponse> users, UUID nextCursor) {
+        this.users = users;
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * Get the users for {@link UserPageResponse} object
+     */
+    public List<UserResponse> getUsers() {
+        return users;
+    }
+
+    /**
+     * Get the cursor of the next page for {@link UserPageResponse} object
+     */
+    public UUID getNextCursor() {
+        return nextCursor;
+    }
+}
@@ -1,15 +1,23 @@
 package com.strangequark.authservice.user;
 
+import jakarta.persistence.QueryHint;
+import jakarta.persistence.Tuple;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 /**
  * An interface to manage the users' information in the database via Spring's JPA
  */
-public interface UserRepository extends JpaRepository<User, Integer> {
+public interface UserRepository extends JpaRepository<User, UUID> {
 
     /**
      * Find a user in the database by their username
@@ -34,4 +42,55 @@ public interface UserRepository extends JpaRepository<User, Integer> {
      * @param ids to be retrieved
      */
     List<User> findByIdIn(List<UUID> ids);
+
+    /**
+     * Return the ID, encrypted username and encrypted email of every user whose username or email is one of the values,
+     * as rows for {@link EncryptedUserLookup#of}.
+     * Usernames and emails share the encryption, so each value is encrypted once and matched against both columns
+     * @param encryptedValues Encrypted usernames and emails to match
+     */
+    @Query(value = "SELECT id, username, email FROM users WHERE username IN (:values) OR email IN (:values)",
+            nativeQuery = true)
+    List<Tuple> findLookupsByUsernameOrEmailIn(@Param("values") Collection<String> encryptedValues);
+
+    /**
+     * Return the ID, encrypted username and encrypted email of the users with the given IDs, as rows for
+     * {@link EncryptedUserLookup#of}, without loading the entities
+     * @param ids IDs of the users
+     */
+    @Query(value = "SELECT id, username, email FROM users WHERE id IN (:ids)", nativeQuery = true)
+    List<Tuple> findLookupsByIdIn(@Param("ids") Collection<UUID> ids);
+
+    /**
+     * Return the first page of user lookup rows for {@link EncryptedUserLookup#of}, ordered by ID
+     * @param limit Maximum number of users to return
+     */
+    @Query(value = "SELECT id, username, email FROM users ORDER BY id LIMIT :limit", nativeQuery = true)
+    List<Tuple> findLookupsOrderById(@Param("limit") int limit);
+
+    /**
+     * Return the page of user lookup rows for {@link EncryptedUserLookup#of} following an ID, ordered by ID
+     * @param after ID of the last user on the previous page
+     * @param limit Maximum number of users to return
+     */
+    @Query(value = "SELECT id, username, email FROM users WHERE id > :after ORDER BY id LIMIT :limit",
+            nativeQuery = true)
+    List<Tuple> findLookupsAfterOrderById(@Param("after") UUID after, @Param("limit") int limit);
+
+    /**
+     * Stream the user lookup rows for {@link EncryptedUserLookup#of} of every user through a database cursor,
+     * fetching 1000 rows at a time.
+     * Must be consumed and closed inside a transaction
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query(value = "SELECT id, username, email FROM users ORDER BY id", nativeQuery = true)
+    Stream<Tuple> streamAllLookups();
+
+    /**
+     * Stream every user through a database cursor, fetching 1000 rows at a time.
+     * Must be consumed and closed inside a transaction, detaching each user once it has been read
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT u FROM User u ORDER BY u.id")
+    Stream<User> streamAllOrderById();
 }
@@ -0,0 +1,60 @@
+package com.strangequark.authservice.user;
+
+import java.util.List;
+
+/**
+ * Request object for resolving several usernames and emails to user IDs at once
+ */
+public class UserResolveRequest {
+    /**
+     * Usernames to resolve
+     */
+    private List<String> usernames;
+
+    /**
+     * Emails to resolve
+     */
+    private List<String> emails;
+
+    /**
+     * Constructs a new {@code UserResolveRequest} with no dependencies
+     */
+    public UserResolveRequest() {
+    }
+
+    /**
+     * Constructs a new {@code UserResolveRequest} with the given usernames and emails
+     */
+    public UserResolveRequest(List<String> usernames, List<String> emails) {
+        this.usernames = usernames;
+        this.emails = emails;
+    }
+
+    /**
+     * Get usernames for {@link UserResolveRequest} object
+     */
+    public List<String> getUsernames() {
+        return usernames;
+    }
+
+    /**
+     * Set usernames for {@link UserResolveRequest} object
+     */
+    public void setUsernames(List<String> usernames) {
+        this.usernames = usernames;
+    }
+
+    /**
+     * Get emails for {@link UserResolveRequest} object
+     */
+    public List<String> getEmails() {
+        return emails;
+    }
+
+    /**
+     * Set emails for {@link UserResolveRequest} object
+     */
+    public void setEmails(List<String> emails) {
+        this.emails = emails;
+    }
+}
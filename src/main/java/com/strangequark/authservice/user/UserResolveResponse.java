@@ -0,0 +1,46 @@
+package com.strangequark.authservice.user;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Response object for resolving usernames and emails to user IDs.
+ * Every requested value is present, values that match no user map to null
+ */
+public class UserResolveResponse {
+    /**
+     * User IDs keyed by the requested usernames
+     */
+    @JsonInclude(content = JsonInclude.Include.ALWAYS)
+    private final Map<String, UUID> usernames;
+
+    /**
+     * User IDs keyed by the requested emails
+     */
+    @JsonInclude(content = JsonInclude.Include.ALWAYS)
+    private final Map<String, UUID> emails;
+
+    /**
+     * Constructs a new {@code UserResolveResponse} with the resolved IDs
+     */
+    public UserResolveResponse(Map<String, UUID> usernames, Map<String, UUID> emails) {
+        this.usernames = usernames;
+        this.emails = emails;
+    }
+
+    /**
+     * Get the user IDs keyed by username for {@link UserResolveResponse} object
+     */
+    public Map<String, UUID> getUsernames() {
+        return usernames;
+    }
+
+    /**
+     * Get the user IDs keyed by email for {@link UserResolveResponse} object
+     */
+    public Map<String, UUID> getEmails() {
+        return emails;
+    }
+}
@@ -1,31 +1,62 @@
 package com.strangequark.authservice.user;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.strangequark.authservice.auth.LoginAttemptService;
 import com.strangequark.authservice.config.JwtService;
 import com.strangequark.authservice.error.ErrorResponse;
+import com.strangequark.authservice.invalidation.CacheInvalidator;
 import com.strangequark.authservice.serviceaccount.ServiceAccount; // Integration line: Email
 import com.strangequark.authservice.serviceaccount.ServiceAccountRepository; // Integration line: Email
 import com.strangequark.authservice.utility.EmailType; // Integration line: Email
 import com.strangequark.authservice.utility.EmailUtility; // Integration line: Email
-import com.strangequark.authservice.utility.FileUtility; // Integration line: File
-import com.strangequark.authservice.utility.VaultUtility; // Integration line: Vault
+import com.strangequark.authservice.utility.RateLimiter; // Integration line: Email
+import com.strangequark.authservice.utility.SampledLogger;
 import com.strangequark.authservice.utility.TelemetryUtility; // Integration line: Telemetry
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier; // Integration line: Email
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.ResourceAccessException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
-
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Map; // Integration line: Telemetry
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 /**
  * {@link Service} for manipulating {@link User} objects
@@ -34,6 +65,16 @@ import java.util.UUID;
 public class UserService {
     private static final Logger LOGGER = LoggerFactory.getLogger(UserService.class);
 
+    /**
+     * {@link SampledLogger} for routine success messages on hot paths
+     */
+    private static final SampledLogger SAMPLED_LOGGER = SampledLogger.of(LOGGER);
+
+    /**
+     * Rows written between flushes of a user export or snapshot, matching the fetch size of its database cursor
+     */
+    private static final int EXPORT_FLUSH_ROWS = 1000;
+
     /**
      * {@link UserRepository} for fetching {@link User} from the database
      */
@@ -60,23 +101,24 @@ public class UserService {
      */
     private final AuthenticationManager authenticationManager;
 
-    /** Integration function start: File
-     * {@link FileUtility} for sending requests to file service
-     */
-    @Autowired
-    FileUtility fileUtility;
-    // Integration function end: File
-    /** Integration function start: Vault
-     * {@link VaultUtility} for sending requests to vault service
+    /**
+     * {@link LoginAttemptService} for clearing login locks once a password is reset
      */
     @Autowired
-    VaultUtility vaultUtility;
-    // Integration function end: Vault
+    private LoginAttemptService loginAttemptService;
+
     /** Integration function start: Email
      * {@link EmailUtility} for sending requests to email service
      */
     @Autowired
     EmailUtility emailUtility;
+
+    /**
+     * {@link RateLimiter} applied to password reset emails before anything is sent to the Kafka
+     */
+    @Autowired
+    @Qualifier("passwordResetEmailRateLimiter")
+    private RateLimiter passwordResetEmailRateLimiter;
     // Integration function end: Email
     /** Integration function start: Telemetry
      * {@link TelemetryUtility} for sending telemetry events to the Kafka
@@ -84,6 +126,79 @@ public class UserService {
     @Autowired
     TelemetryUtility telemetryUtility;
     // Integration function end: Telemetry
+
+    /**
+     * {@link UserDownstreamCleanup} for removing deleted users from downstream services
+     */
+    @Autowired
+    private UserDownstreamCleanup userDownstreamCleanup;
+
+    /**
+     * {@link UserDeletionJobService} for queueing background user deletions
+     */
+    @Autowired
+    private UserDeletionJobService userDeletionJobService;
+
+    /**
+     * {@link UserLookupCache} serving lookups by ID, username and email
+     */
+    @Autowired
+    private UserLookupCache userLookupCache;
+
+    /**
+     * {@link CacheInvalidator} for dropping cached state about changed users on every instance
+     */
+    @Autowired
+    private CacheInvalidator cacheInvalidator;
+
+    /**
+     * {@link UserChangePublisher} for publishing user changes to the change feed
+     */
+    @Autowired
+    private UserChangePublisher userChangePublisher;
+
+    /**
+     * {@link UserDetailsService} for telling users and service accounts apart
+     */
+    @Autowired
+    private UserDetailsService userDetailsService;
+
+    /**
+     * {@link EntityManager} for detaching users as snapshots stream through them
+     */
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * {@link ObjectMapper} for streaming large lookup responses
+     */
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * {@link PlatformTransactionManager} for holding the database cursor open during exports
+     */
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * Maximum number of users on a page of the user listing
+     */
+    @Value("${user.listing.max-page-size:1000}")
+    private int maxPageSize;
+
+    /**
+     * Seconds callers may reuse a lookup response before revalidating it with its ETag
+     */
+    @Value("${user.lookup-cache.client-max-age-seconds:60}")
+    private long lookupMaxAgeSeconds;
+
+    /**
+     * {@link UserDownstreamCleanup.DownstreamTimeoutPolicy} applied when a downstream cleanup misses the deadline
+     */
+    @Value("${user.delete.downstream-timeout-policy:PROCEED}")
+    private UserDownstreamCleanup.DownstreamTimeoutPolicy downstreamTimeoutPolicy;
+
     /**
      * Constructs a new {@code UserService} with the given dependencies.
      *
@@ -124,6 +239,7 @@ public class UserService {
             //Set the user's new password and save
             user.setPassword(passwordEncoder.encode(userRequest.getNewPassword()));
             userRepository.save(user);
+            cacheInvalidator.invalidateUser(user.getId());
             // Send a telemetry event for user password update - Integration line: Telemetry
             telemetryUtility.sendTelemetryEvent("user-password-update", Map.of("userId", user.getId())); // Integration line: Telemetry
 
@@ -131,7 +247,7 @@ public class UserService {
             LOGGER.info("Password successfully updated");
             return ResponseEntity.ok(new UserResponse("Password successfully updated"));
         } catch (Exception ex) {
-            LOGGER.error("Failed to update user password: " + ex.getMessage());
+            LOGGER.error("Failed to update user password: {}", ex.getMessage());
             LOGGER.debug("Stack trace: ", ex);
             return ResponseEntity.status(400).body(new ErrorResponse(ex.getMessage()));
         }
@@ -168,6 +284,8 @@ public class UserService {
             //Append the authorizations and save
             user.appendAuthorizations(userRequest.getAuthorizations());
             userRepository.save(user);
+            cacheInvalidator.invalidateUser(user.getId());
+            userChangePublisher.publish(user, UserChangePublisher.Change.AUTHORIZATIONS);
             // Send a telemetry event for adding authorizations to user - Integration function start: Telemetry
             telemetryUtility.sendTelemetryEvent("user-add-authorizations", Map.of(
                     "userId", user.getId(),
@@ -179,7 +297,7 @@ public class UserService {
             LOGGER.info("Authorization successfully added");
             return ResponseEntity.ok(new UserResponse("Authorizations successfully added"));
         } catch (Exception ex) {
-            LOGGER.error("Failed to add authorizations to user: " + ex.getMessage());
+            LOGGER.error("Failed to add authorizations to user: {}", ex.getMessage());
             LOGGER.debug("Stack trace: ", ex);
             return ResponseEntity.status(400).body(new ErrorResponse(ex.getMessage()));
         }
@@ -221,6 +339,8 @@ public class UserService {
             //Remove the authorizations and save
             user.removeAuthorizations(userRequest.getAuthorizations());
             userRepository.save(user);
+            cacheInvalidator.invalidateUser(user.getId());
+            userChangePublisher.publish(user, UserChangePublisher.Change.AUTHORIZATIONS);
             // Send a telemetry event for removing authorizations from user - Integration function start: Telemetry
             telemetryUtility.sendTelemetryEvent("user-remove-authorizations", Map.of(
                     "userId", user.getId(),
@@ -232,7 +352,7 @@ public class UserService {
             LOGGER.info("Authorizations successfully removed");
             return ResponseEntity.ok(new UserResponse("Authorizations successfully removed"));
         } catch (Exception ex) {
-            LOGGER.error("Failed to remove authorizations from user: " + ex.getMessage());
+            LOGGER.error("Failed to remove authorizations from user: {}", ex.getMessage());
             LOGGER.debug("Stack trace: ", ex);
             return ResponseEntity.status(400).body(new ErrorResponse(ex.getMessage()));
         }
@@ -245,6 +365,13 @@ public class UserService {
     public ResponseEntity<?> sendPasswordResetEmail(UserRequest userRequest) {
         LOGGER.info("Attempting to verify user and send password reset email");
 
+        ResponseEntity<?> rateLimited = passwordResetEmailRateLimiter.limit(
+                userRequest.getUsername() != null ? userRequest.getUsername() : userRequest.getEmail());
+        if (rateLimited != null) {
+            LOGGER.warn("Password reset email request rate limited");
+            return rateLimited;
+        }
+
         try {
             //Get the target user, throw an exception if the username or email are not found
             User user = userRepository.findByUsername(userRequest.getUsername())
@@ -254,7 +381,7 @@ public class UserService {
             try {
                 emailUtility.sendAsyncEmail(user.getEmail(), EmailType.PASSWORD_RESET);
             } catch (Exception ex) {
-                LOGGER.error("Unable to send password reset email to kafka: " + ex.getMessage());
+                LOGGER.error("Unable to send password reset email to kafka: {}", ex.getMessage());
                 LOGGER.debug("Stack trace: ", ex);
                 return ResponseEntity.status(500).body(new ErrorResponse("Unable to send password reset email"));
             }
@@ -265,7 +392,7 @@ public class UserService {
             LOGGER.info("Password reset email has been sent");
             return ResponseEntity.ok(new UserResponse("Email is sent"));
         } catch (Exception ex) {
-            LOGGER.error("Failed to send password reset email: " + ex.getMessage());
+            LOGGER.error("Failed to send password reset email: {}", ex.getMessage());
             LOGGER.debug("Stack trace: ", ex);
             return ResponseEntity.status(400).body(new ErrorResponse(ex.getMessage()));
         }
@@ -293,8 +420,12 @@ public class UserService {
             User user = userRepository.findByEmail(userRequest.getEmail())
                     .orElseThrow(() -> new UsernameNotFoundException("Target user not found"));
 
+            //Set the new password and lift any lock from failed logins
             user.setPassword(passwordEncoder.encode(userRequest.getNewPassword()));
+            user.setLockedUntil(null);
             userRepository.save(user);
+            cacheInvalidator.invalidateUser(user.getId());
+            loginAttemptService.reset(user.getUsername());
             // Send a telemetry event for user password reset - Integration line: Telemetry
             telemetryUtility.sendTelemetryEvent("user-password-reset", Map.of("userId", user.getId())); // Integration line: Telemetry
 
@@ -302,7 +433,7 @@ public class UserService {
             LOGGER.info("Password reset success");
             return ResponseEntity.ok(new UserResponse("Password reset success"));
         } catch (Exception ex) {
-            LOGGER.error("Failed to reset user password: " + ex.getMessage());
+            LOGGER.error("Failed to reset user password: {}", ex.getMessage());
             LOGGER.debug("Stack trace: ", ex);
             return ResponseEntity.status(400).body(new ErrorResponse(ex.getMessage()));
         }
@@ -327,6 +458,8 @@ public class UserService {
 
             userOptional.get().setEnabled(true);
             userRepository.save(userOptional.get());
+            cacheInvalidator.invalidateUser(userOptional.get().getId());
+            userChangePublisher.publish(userOptional.get(), UserChangePublisher.Change.ENABLED);
             // Send a telemetry event for user enablement - Integration line: Telemetry
             telemetryUtility.sendTelemetryEvent("user-enabled", Map.of("userId", userOptional.get().getId())); // Integration line: Telemetry
 
@@ -379,6 +512,8 @@ public class UserService {
             // Disable the user
             user.setEnabled(false);
             userRepository.save(user);
+            cacheInvalidator.invalidateUser(user.getId());
+            userChangePublisher.publish(user, UserChangePublisher.Change.ENABLED);
             // Send a telemetry event for user disable - Integration line: Telemetry
             telemetryUtility.sendTelemetryEvent("user-disabled", Map.of("userId", user.getId())); // Integration line: Telemetry
 
@@ -386,7 +521,7 @@ public class UserService {
             LOGGER.info("User has been disabled");
             return ResponseEntity.ok(new UserResponse("User has been disabled"));
         } catch (Exception ex) {
-            LOGGER.error("Failed to disable user: " + ex.getMessage());
+            LOGGER.error("Failed to disable user: {}", ex.getMessage());
             LOGGER.debug("Stack trace: ", ex);
             return ResponseEntity.status(400).body(new ErrorResponse(ex.getMessage()));
         }
@@ -403,62 +538,17 @@ public class UserService {
             String authToken = ((ServletRequestAttributes) RequestContextHolder.getRequestAttributes()).getRequest()
                     .getHeader("Authorization").substring(7);
 
-            //Authenticate the user, throw an AuthenticationException if the username and password combination are incorrect
-            authenticationManager.authenticate(new UsernamePasswordAuthenticationToken(
-                            jwtService.extractUsername(authToken, false),
-                            userRequest.getPassword()
-                    )
-            );
-
-            //Get the user, throw an exception if the username is not found
-            User requestingUser = userRepository.findByUsername(jwtService.extractUsername(authToken, false))
-                    .orElseThrow(() -> new UsernameNotFoundException("Requesting user not found"));
-
-            //Get the target user, throw an exception if the username or email are not found
-            User user = userRepository.findByUsername(userRequest.getUsername())
-                    .or(() -> userRepository.findByEmail(userRequest.getEmail()))
-                    .orElseThrow(() -> new UsernameNotFoundException("Target user not found"));
-
-            // If the target user is a SUPER user, ensure the requesting user is the target user
-            if(user.getRole() == Role.SUPER && !requestingUser.getId().equals(user.getId()))
-                throw new RuntimeException("SUPER users can only be self-deleted");
+            User user = authorizeDeletion(userRequest, authToken).user();
 
-            // If the target user is an ADMIN user, ensure the requesting user is either the target user or a SUPER user
-            if(user.getRole() == Role.ADMIN && requestingUser.getRole() != Role.SUPER)
-                if(!requestingUser.getId().equals(user.getId()))
-                    throw new RuntimeException("ADMIN users can only be self-deleted or by a SUPER user");
-
-            // If the requesting user is not SUPER, ADMIN, or self, don't allow users to delete each other
-            if(requestingUser.getRole() != Role.SUPER && requestingUser.getRole() != Role.ADMIN && !requestingUser.getId().equals(user.getId()))
-                throw new RuntimeException("Users can only be deleted by self, ADMIN, or SUPER users");
-
-            // Integration function start: File
-            LOGGER.debug("Attempting to delete user from all File collections");
-            try {
-                ResponseEntity<?> response = fileUtility.deleteUserFromAllCollections(user.getUsername(), authToken);
-
-                if (response.getStatusCode().value() != 200)
-                    throw new RuntimeException("Error when deleting user from fileservice:\n\n" + response.getBody());
-            } catch (ResourceAccessException resourceAccessException) {
-                //If we are unable to reach the file service, proceed with user deletion
-                LOGGER.debug("Unable to reach file service: " + resourceAccessException.getMessage());
-                LOGGER.debug("Skip file deletion - continuing to delete user");
-            }// Integration function end: File
-            // Integration function start: Vault
-            LOGGER.debug("Attempting to delete user from all Vault services");
-            try {
-                ResponseEntity<?> response = vaultUtility.deleteUserFromAllServices(user.getUsername(), authToken);
-
-                if (response.getStatusCode().value() != 200)
-                    throw new RuntimeException("Error when deleting user from vaultservice:\n\n" + response.getBody());
-            } catch (ResourceAccessException resourceAccessException) {
-                //If we are unable to reach the vault service, proceed with user deletion
-                LOGGER.debug("Unable to reach vault service: " + resourceAccessException.getMessage());
-                LOGGER.debug("Skip vault deletion - continuing to delete user");
-            }// Integration function end: Vault
+            //Delete the user from downstream services concurrently, bounded by a single deadline
+            Map<String, UserDownstreamCleanup.Result> results =
+                    userDownstreamCleanup.deleteFromDownstreamServices(user.getUsername(), authToken, Set.of());
+            applyDownstreamResults(results);
 
             //Delete the user
             userRepository.delete(user);
+            cacheInvalidator.invalidateUser(user.getId());
+            userChangePublisher.publishDeleted(user.getId());
             // Send a telemetry event for user delete - Integration line: Telemetry
             telemetryUtility.sendTelemetryEvent("user-delete", Map.of("userId", user.getId())); // Integration line: Telemetry
 
@@ -466,12 +556,141 @@ public class UserService {
             LOGGER.info("User successfully deleted");
             return ResponseEntity.ok(new UserResponse("User successfully deleted"));
         } catch (Exception ex) {
-            LOGGER.error("Failed to delete user: " + ex.getMessage());
+            LOGGER.error("Failed to delete user: {}", ex.getMessage());
+            LOGGER.debug("Stack trace: ", ex);
+            return ResponseEntity.status(400).body(new ErrorResponse(ex.getMessage()));
+        }
+    }
+
+    /**
+     * Business logic for queueing a user deletion to run in the background
+     * @return {@link ResponseEntity} with a 202 and a {@link UserDeletionJobResponse} if successful, otherwise return with an {@link ErrorResponse}
+     */
+    public ResponseEntity<?> deleteUserAsync(UserRequest userRequest) {
+        LOGGER.info("Attempting to queue user deletion");
+
+        try {
+            String authToken = ((ServletRequestAttributes) RequestContextHolder.getRequestAttributes()).getRequest()
+                    .getHeader("Authorization").substring(7);
+
+            DeletionRequest deletionRequest = authorizeDeletion(userRequest, authToken);
+
+            UserDeletionJob job = userDeletionJobService.createJob(deletionRequest.user(), deletionRequest.requestingUser());
+
+            //Return a 202 response with the job to poll
+            LOGGER.info("User deletion queued");
+            return ResponseEntity.accepted().body(new UserDeletionJobResponse(job));
+        } catch (Exception ex) {
+            LOGGER.error("Failed to queue user deletion: {}", ex.getMessage());
             LOGGER.debug("Stack trace: ", ex);
             return ResponseEntity.status(400).body(new ErrorResponse(ex.getMessage()));
         }
     }
 
+    /**
+     * Business logic for fetching the progress of a background user deletion
+     * @return {@link ResponseEntity} with a {@link UserDeletionJobResponse} if successful, otherwise return with an {@link ErrorResponse}
+     */
+    public ResponseEntity<?> getDeleteUserJob(UUID jobId) {
+        LOGGER.info("Attempting to get user deletion job");
+
+        try {
+            String authToken = ((ServletRequestAttributes) RequestContextHolder.getRequestAttributes()).getRequest()
+                    .getHeader("Authorization").substring(7);
+
+            //Get the user, throw an exception if the username is not found
+            User requestingUser = userRepository.findByUsername(jwtService.extractUsername(authToken, false))
+                    .orElseThrow(() -> new UsernameNotFoundException("Requesting user not found"));
+
+            UserDeletionJob job = userDeletionJobService.findJob(jobId)
+                    .orElseThrow(() -> new RuntimeException("User deletion job not found"));
+
+            // Only the user who queued the job, ADMIN, or SUPER users can view it
+            if(requestingUser.getRole() != Role.SUPER && requestingUser.getRole() != Role.ADMIN
+                    && !requestingUser.getId().equals(job.getRequestedBy()))
+                throw new RuntimeException("User deletion jobs can only be viewed by the requester, ADMIN, or SUPER users");
+
+            LOGGER.info("User deletion job retrieval success");
+            return ResponseEntity.ok(new UserDeletionJobResponse(job));
+        } catch (Exception ex) {
+            LOGGER.error("Failed to get user deletion job: {}", ex.getMessage());
+            LOGGER.debug("Stack trace: ", ex);
+            return ResponseEntity.status(400).body(new ErrorResponse(ex.getMessage()));
+        }
+    }
+
+    /**
+     * The users involved in a permitted deletion
+     * @param requestingUser {@link User} asking for the deletion
+     * @param user {@link User} to delete
+     */
+    private record DeletionRequest(User requestingUser, User user) {
+    }
+
+    /**
+     * Authenticate the requesting user and check they are allowed to delete the target user
+     * @param userRequest {@link UserRequest} with the requester's password and the target user
+     * @param authToken Access token of the requesting user
+     * @return {@link DeletionRequest} with the requesting and target users
+     */
+    private DeletionRequest authorizeDeletion(UserRequest userRequest, String authToken) {
+        //Authenticate the user, throw an AuthenticationException if the username and password combination are incorrect
+        authenticationManager.authenticate(new UsernamePasswordAuthenticationToken(
+                        jwtService.extractUsername(authToken, false),
+                        userRequest.getPassword()
+                )
+        );
+
+        //Get the user, throw an exception if the username is not found
+        User requestingUser = userRepository.findByUsername(jwtService.extractUsername(authToken, false))
+                .orElseThrow(() -> new UsernameNotFoundException("Requesting user not found"));
+
+        //Get the target user, throw an exception if the username or email are not found
+        User user = userRepository.findByUsername(userRequest.getUsername())
+                .or(() -> userRepository.findByEmail(userRequest.getEmail()))
+                .orElseThrow(() -> new UsernameNotFoundException("Target user not found"));
+
+        // If the target user is a SUPER user, ensure the requesting user is the target user
+        if(user.getRole() == Role.SUPER && !requestingUser.getId().equals(user.getId()))
+            throw new RuntimeException("SUPER users can only be self-deleted");
+
+        // If the target user is an ADMIN user, ensure the requesting user is either the target user or a SUPER user
+        if(user.getRole() == Role.ADMIN && requestingUser.getRole() != Role.SUPER)
+            if(!requestingUser.getId().equals(user.getId()))
+                throw new RuntimeException("ADMIN users can only be self-deleted or by a SUPER user");
+
+        // If the requesting user is not SUPER, ADMIN, or self, don't allow users to delete each other
+        if(requestingUser.getRole() != Role.SUPER && requestingUser.getRole() != Role.ADMIN && !requestingUser.getId().equals(user.getId()))
+            throw new RuntimeException("Users can only be deleted by self, ADMIN, or SUPER users");
+
+        return new DeletionRequest(requestingUser, user);
+    }
+
+    /**
+     * Decide whether a synchronous deletion may go ahead after its downstream cleanups.
+     * An unreachable service is skipped, an error response aborts the deletion, and a service that misses the
+     * deadline is handled according to {@link #downstreamTimeoutPolicy}.
+     * @param results {@link UserDownstreamCleanup.Result} for each downstream service
+     */
+    private void applyDownstreamResults(Map<String, UserDownstreamCleanup.Result> results) {
+        for (Map.Entry<String, UserDownstreamCleanup.Result> entry : results.entrySet()) {
+            String service = entry.getKey();
+            UserDownstreamCleanup.Result result = entry.getValue();
+
+            switch (result.outcome()) {
+                case SUCCEEDED -> { }
+                //If we are unable to reach the service, proceed with user deletion
+                case UNREACHABLE -> LOGGER.debug("Skip {} deletion - continuing to delete user", service);
+                case TIMED_OUT -> {
+                    if (downstreamTimeoutPolicy == UserDownstreamCleanup.DownstreamTimeoutPolicy.ABORT)
+                        throw new RuntimeException(result.message());
+                    LOGGER.warn("Timed out deleting user from {} - continuing to delete user", service);
+                }
+                case FAILED -> throw new RuntimeException(result.message());
+            }
+        }
+    }
+
     /**
      * Business logic for updating a user's email
      * @return {@link ResponseEntity} with a {@link UserResponse} if successful, otherwise return with an {@link ErrorResponse}
@@ -501,6 +720,8 @@ public class UserService {
             //Update the user's email
             user.setEmail(userRequest.getNewEmail());
             userRepository.save(user);
+            cacheInvalidator.invalidateUser(user.getId());
+            userChangePublisher.publish(user, UserChangePublisher.Change.EMAIL);
             // Send a telemetry event for user email update - Integration line: Telemetry
             telemetryUtility.sendTelemetryEvent("user-email-update", Map.of("userId", user.getId())); // Integration line: Telemetry
 
@@ -508,7 +729,7 @@ public class UserService {
             LOGGER.info("User email successfully updated");
             return ResponseEntity.ok(new UserResponse("Email successfully updated"));
         } catch (Exception ex) {
-            LOGGER.error("Failed to update user email: " + ex.getMessage());
+            LOGGER.error("Failed to update user email: {}", ex.getMessage());
             LOGGER.debug("Stack trace: ", ex);
             return ResponseEntity.status(400).body(new ErrorResponse(ex.getMessage()));
         }
@@ -549,6 +770,8 @@ public class UserService {
             //Add the refresh token to the user and save
             user.setRefreshToken(refreshToken);
             userRepository.save(user);
+            cacheInvalidator.invalidateUser(user.getId());
+            userChangePublisher.publish(user, UserChangePublisher.Change.USERNAME);
             // Send a telemetry event for username update - Integration line: Telemetry
             telemetryUtility.sendTelemetryEvent("user-username-update", Map.of("userId", user.getId())); // Integration line: Telemetry
 
@@ -556,7 +779,7 @@ public class UserService {
             LOGGER.info("Successfully updated username");
             return ResponseEntity.ok(new UpdateUsernameResponse(refreshToken, jwtService.generateToken(user, false)));
         } catch (Exception ex) {
-            LOGGER.error("Failed to update username: " + ex.getMessage());
+            LOGGER.error("Failed to update username: {}", ex.getMessage());
             LOGGER.debug("Stack trace: ", ex);
             return ResponseEntity.status(404).body(new ErrorResponse(ex.getMessage()));
         }
@@ -593,6 +816,8 @@ public class UserService {
             //Append the authorizations and save
             user.setRole(userRequest.getNewRole());
             userRepository.save(user);
+            cacheInvalidator.invalidateUser(user.getId());
+            userChangePublisher.publish(user, UserChangePublisher.Change.ROLE);
             // Send a telemetry event for user role update - Integration function start: Telemetry
             telemetryUtility.sendTelemetryEvent("user-role-update", Map.of(
                     "userId", user.getId(),
@@ -603,7 +828,7 @@ public class UserService {
             LOGGER.info("User role successfully updated");
             return ResponseEntity.ok(new UserResponse("User role successfully updated"));
         } catch (Exception ex) {
-            LOGGER.error("Failed to update user role: " + ex.getMessage());
+            LOGGER.error("Failed to update user role: {}", ex.getMessage());
             LOGGER.debug("Stack trace: ", ex);
             return ResponseEntity.status(400).body(new ErrorResponse(ex.getMessage()));
         }
@@ -614,17 +839,17 @@ public class UserService {
      * @return {@link ResponseEntity} with user's ID if successful, otherwise return with an {@link ErrorResponse}
      */
     public ResponseEntity<?> getUserId(String username) {
-        LOGGER.info("Attempting to get user ID");
+        LOGGER.debug("Attempting to get user ID");
 
         try {
-            User user = userRepository.findByUsername(username)
+            UserLookup user = userLookupCache.findByUsername(username)
                     .orElseThrow(() -> new RuntimeException("No user exists with that username"));
 
             //Return a 200 response with the user's ID
-            LOGGER.info("User Id retrieval success");
-            return ResponseEntity.ok(user.getId());
+            SAMPLED_LOGGER.info("User Id retrieval success");
+            return lookupResponse(user.id(), List.of(user));
         } catch (Exception ex) {
-            LOGGER.error("Failed to fetch user id: " + ex.getMessage());
+            LOGGER.error("Failed to fetch user id: {}", ex.getMessage());
             LOGGER.debug("Stack trace: ", ex);
             return ResponseEntity.status(400).body(new ErrorResponse(ex.getMessage()));
         }
@@ -635,48 +860,299 @@ public class UserService {
      * @return {@link ResponseEntity} with user's ID if successful, otherwise return with an {@link ErrorResponse}
      */
     public ResponseEntity<?> searchUsers(String query) {
-        LOGGER.info("Attempting to query users");
+        LOGGER.debug("Attempting to query users");
 
         try {
-            User user = userRepository.findByUsername(query)
-                    .or(() -> userRepository.findByEmail(query))
+            UserLookup user = userLookupCache.findByUsername(query)
+                    .or(() -> userLookupCache.findByEmail(query))
                     .orElseThrow(() -> new RuntimeException("No user exists with that username or email address"));
 
             UserResponse response = new UserResponse();
-            response.setUserId(user.getId());
-            response.setUsername(user.getUsername());
-            response.setEmail(user.getEmail());
+            response.setUserId(user.id());
+            response.setUsername(user.username());
+            response.setEmail(user.email());
 
-            LOGGER.info("User search success");
-            return ResponseEntity.ok(response);
+            SAMPLED_LOGGER.info("User search success");
+            return lookupResponse(response, List.of(user));
         } catch (Exception ex) {
-            LOGGER.error("Failed to search users: " + ex.getMessage());
+            LOGGER.error("Failed to search users: {}", ex.getMessage());
             LOGGER.debug("Stack trace: ", ex);
             return ResponseEntity.status(400).body(new ErrorResponse(ex.getMessage()));
         }
     }
 
     public ResponseEntity<?> getUserDetailsByIds(List<UUID> ids) {
-        LOGGER.info("Attempting to get list of user details by ids");
+        LOGGER.debug("Attempting to get list of user details by ids");
+
+        try {
+            List<List<UUID>> chunks = userLookupCache.chunks(ids.stream().filter(Objects::nonNull).distinct().toList());
+            if (chunks.size() > 1)
+                return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(streamUserDetails(chunks));
+
+            List<UserLookup> users = chunks.isEmpty() ? List.of() : userLookupCache.findAllById(chunks.getFirst());
+
+            List<UserResponse> response = users.stream().map(this::userDetails).toList();
+
+            SAMPLED_LOGGER.info("List of user details successfully compiled");
+            return lookupResponse(response, users);
+        } catch (Exception ex) {
+            LOGGER.error("Failed to get user details by IDs: {}", ex.getMessage());
+            LOGGER.debug("Stack trace: ", ex);
+            return ResponseEntity.status(400).body(new ErrorResponse(ex.getMessage()));
+        }
+    }
+
+    /**
+     * List users a page at a time, ordered by ID. Restricted to SUPER and ADMIN users
+     * @param after ID of the last user on the previous page, null for the first page
+     * @param limit Maximum number of users on the page, capped at the configured maximum
+     * @return {@link ResponseEntity} with a {@link UserPageResponse}
+     */
+    public ResponseEntity<?> listUsers(UUID after, int limit) {
+        LOGGER.debug("Attempting to list users");
+
+        try {
+            requireAdmin();
+
+            int pageSize = Math.max(1, Math.min(limit, maxPageSize));
+            //Fetch one extra row to tell whether another page follows
+            List<UserLookup> users = (after == null ?
+                    userRepository.findLookupsOrderById(pageSize + 1) :
+                    userRepository.findLookupsAfterOrderById(after, pageSize + 1))
+                    .stream().map(row -> EncryptedUserLookup.of(row).decrypt()).toList();
+
+            UUID nextCursor = null;
+            if (users.size() > pageSize) {
+                users = users.subList(0, pageSize);
+                nextCursor = users.getLast().id();
+            }
+
+            SAMPLED_LOGGER.info("User page successfully listed");
+            return ResponseEntity.ok(new UserPageResponse(users.stream().map(this::userDetails).toList(), nextCursor));
+        } catch (Exception ex) {
+            LOGGER.error("Failed to list users: {}", ex.getMessage());
+            LOGGER.debug("Stack trace: ", ex);
+            return ResponseEntity.status(400).body(new ErrorResponse(ex.getMessage()));
+        }
+    }
+
+    /**
+     * Export every user as newline-delimited JSON. Rows are read through a database cursor and each one is decrypted
+     * and written as it arrives, so the export runs in constant memory. Restricted to SUPER and ADMIN users
+     * @return {@link ResponseEntity} with a {@link StreamingResponseBody} writing one {@link UserResponse} per line
+     */
+    public ResponseEntity<?> exportUsers() {
+        LOGGER.info("Attempting to export users");
+
+        try {
+            requireAdmin();
+
+            StreamingResponseBody body = outputStream -> {
+                TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+                transactionTemplate.setReadOnly(true);
+
+                try (JsonGenerator generator = objectMapper.createGenerator(outputStream)) {
+                    long exported = transactionTemplate.execute(status -> {
+                        try (Stream<Tuple> rows = userRepository.streamAllLookups()) {
+                            long count = 0;
+                            for (Tuple row : (Iterable<Tuple>) rows::iterator) {
+                                generator.writeObject(userDetails(EncryptedUserLookup.of(row).decrypt()));
+                                generator.writeRaw('\n');
+                                //Flush once per fetched batch
+                                if (++count % EXPORT_FLUSH_ROWS == 0)
+                                    generator.flush();
+                            }
+                            return count;
+                        } catch (IOException ex) {
+                            throw new UncheckedIOException(ex);
+                        }
+                    });
+
+                    LOGGER.info("Exported {} users", exported);
+                } catch (Exception ex) {
+                    //The status is already sent, the client sees a truncated export
+                    LOGGER.error("Failed to export users: {}", ex.getMessage());
+                    LOGGER.debug("Stack trace: ", ex);
+                    throw ex;
+                }
+            };
+
+            return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+        } catch (Exception ex) {
+            LOGGER.error("Failed to export users: {}", ex.getMessage());
+            LOGGER.debug("Stack trace: ", ex);
+            return ResponseEntity.status(400).body(new ErrorResponse(ex.getMessage()));
+        }
+    }
+
+    /**
+     * Write the replicated state of every user as newline-delimited JSON, in the format of the change feed records,
+     * for bootstrapping a replica. Rows are read through a database cursor and written as they arrive.
+     * Restricted to SUPER and ADMIN users and service accounts
+     * @return {@link ResponseEntity} with a {@link StreamingResponseBody} writing one user per line
+     */
+    public ResponseEntity<?> snapshotUsers() {
+        LOGGER.info("Attempting to snapshot users");
+
+        try {
+            String authToken = ((ServletRequestAttributes) RequestContextHolder.getRequestAttributes()).getRequest()
+                    .getHeader("Authorization").substring(7);
+
+            //Anything other than a user is a service account
+            UserDetails requester = userDetailsService.loadUserByUsername(jwtService.extractUsername(authToken, false));
+            if (requester instanceof User requestingUser &&
+                    requestingUser.getRole() != Role.SUPER && requestingUser.getRole() != Role.ADMIN)
+                throw new RuntimeException("Only SUPER or ADMIN users and service accounts can snapshot users");
+
+            StreamingResponseBody body = outputStream -> {
+                TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+                transactionTemplate.setReadOnly(true);
+
+                try (Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8))) {
+                    long written = transactionTemplate.execute(status -> {
+                        try (Stream<User> users = userRepository.streamAllOrderById()) {
+                            long count = 0;
+                            for (User user : (Iterable<User>) users::iterator) {
+                                writer.write(userChangePublisher.toJson(user, UserChangePublisher.Change.SNAPSHOT));
+                                writer.write('\n');
+                                //Keep the persistence context from growing with the table
+                                entityManager.detach(user);
+                                if (++count % EXPORT_FLUSH_ROWS == 0)
+                                    writer.flush();
+                            }
+                            return count;
+                        } catch (IOException ex) {
+                            throw new UncheckedIOException(ex);
+                        }
+                    });
+
+                    LOGGER.info("Snapshot of {} users written", written);
+                } catch (Exception ex) {
+                    //The status is already sent, the client sees a truncated snapshot
+                    LOGGER.error("Failed to snapshot users: {}", ex.getMessage());
+                    LOGGER.debug("Stack trace: ", ex);
+                    throw ex;
+                }
+            };
+
+            return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+        } catch (Exception ex) {
+            LOGGER.error("Failed to snapshot users: {}", ex.getMessage());
+            LOGGER.debug("Stack trace: ", ex);
+            return ResponseEntity.status(400).body(new ErrorResponse(ex.getMessage()));
+        }
+    }
+
+    /**
+     * Ensure the requesting user is a SUPER or ADMIN user
+     * @throws RuntimeException if the requesting user is not found or has another role
+     */
+    private void requireAdmin() {
+        String authToken = ((ServletRequestAttributes) RequestContextHolder.getRequestAttributes()).getRequest()
+                .getHeader("Authorization").substring(7);
+
+        User requestingUser = userRepository.findByUsername(jwtService.extractUsername(authToken, false))
+                .orElseThrow(() -> new UsernameNotFoundException("Requesting user not found"));
+
+        if (requestingUser.getRole() != Role.SUPER && requestingUser.getRole() != Role.ADMIN)
+            throw new RuntimeException("Only SUPER or ADMIN users can enumerate users");
+    }
+
+    /**
+     * Write user details as a JSON array one chunk at a time, so requests for many IDs are never held in memory
+     * whole. The body is written after the response is committed, so it carries no ETag
+     * @param chunks Distinct user IDs, split into chunks
+     * @return {@link StreamingResponseBody} writing the array
+     */
+    private StreamingResponseBody streamUserDetails(List<List<UUID>> chunks) {
+        return outputStream -> {
+            try (JsonGenerator generator = objectMapper.createGenerator(outputStream)) {
+                generator.writeStartArray();
+                for (List<UUID> chunk : chunks) {
+                    for (UserLookup user : userLookupCache.findAllById(chunk))
+                        generator.writeObject(userDetails(user));
+                    generator.flush();
+                }
+                generator.writeEndArray();
+
+                SAMPLED_LOGGER.info("List of user details successfully streamed");
+            } catch (Exception ex) {
+                //The status is already sent, the client sees a truncated array
+                LOGGER.error("Failed to stream user details by IDs: {}", ex.getMessage());
+                LOGGER.debug("Stack trace: ", ex);
+                throw ex;
+            }
+        };
+    }
+
+    /**
+     * Build the {@link UserResponse} returned for a user's details
+     */
+    private UserResponse userDetails(UserLookup user) {
+        UserResponse response = new UserResponse();
+        response.setUserId(user.id());
+        response.setUsername(user.username());
+        response.setEmail(user.email());
+        return response;
+    }
+
+    /**
+     * Resolve several usernames and emails to user IDs at once
+     * @param request {@link UserResolveRequest} with the usernames and emails
+     * @return {@link ResponseEntity} with a {@link UserResolveResponse}, mapping values without a user to null
+     */
+    public ResponseEntity<?> resolveUserIds(UserResolveRequest request) {
+        LOGGER.debug("Attempting to resolve user IDs");
 
         try {
-            List<User> users = userRepository.findByIdIn(ids);
-
-            List<UserResponse> response = users.stream()
-                    .map(user -> {
-                        UserResponse r = new UserResponse();
-                        r.setUserId(user.getId());
-                        r.setUsername(user.getUsername());
-                        r.setEmail(user.getEmail());
-                        return r;
-                    }).toList();
-
-            LOGGER.info("List of user details successfully compiled");
-            return ResponseEntity.ok(response);
+            List<String> usernames = request.getUsernames() == null ? List.of() :
+                    request.getUsernames().stream().filter(Objects::nonNull).distinct().toList();
+            List<String> emails = request.getEmails() == null ? List.of() :
+                    request.getEmails().stream().filter(Objects::nonNull).distinct().toList();
+
+            //Sorted so the ETag does not depend on the order users came out of the cache and database
+            List<UserLookup> users = userLookupCache.findAllByUsernameOrEmail(usernames, emails).stream()
+                    .sorted(Comparator.comparing(UserLookup::id)).toList();
+
+            Map<String, UUID> idsByUsername = new LinkedHashMap<>();
+            Map<String, UUID> idsByEmail = new LinkedHashMap<>();
+            usernames.forEach(username -> idsByUsername.put(username, null));
+            emails.forEach(email -> idsByEmail.put(email, null));
+            for (UserLookup user : users) {
+                if (idsByUsername.containsKey(user.username()))
+                    idsByUsername.put(user.username(), user.id());
+                if (idsByEmail.containsKey(user.email()))
+                    idsByEmail.put(user.email(), user.id());
+            }
+
+            SAMPLED_LOGGER.info("User IDs successfully resolved");
+            return lookupResponse(new UserResolveResponse(idsByUsername, idsByEmail), users);
         } catch (Exception ex) {
-            LOGGER.error("Failed to get user details by IDs" + ex.getMessage());
+            LOGGER.error("Failed to resolve user IDs: {}", ex.getMessage());
             LOGGER.debug("Stack trace: ", ex);
             return ResponseEntity.status(400).body(new ErrorResponse(ex.getMessage()));
         }
     }
+
+    /**
+     * Build a lookup response carrying an ETag over the users it was built from, so callers can revalidate with
+     * If-None-Match and get a 304 Not Modified without a body while none of the users have changed
+     * @param body Body of the response
+     * @param users {@link UserLookup} of every user in the body
+     * @return {@link ResponseEntity} with the body, or an empty 304 response
+     */
+    private ResponseEntity<?> lookupResponse(Object body, List<UserLookup> users) {
+        String eTag = "\"" + DigestUtils.md5DigestAsHex(users.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+        //Private, the responses are for the authenticated caller only
+        CacheControl cacheControl = CacheControl.maxAge(Duration.ofSeconds(lookupMaxAgeSeconds)).cachePrivate();
+
+        String ifNoneMatch = ((ServletRequestAttributes) RequestContextHolder.getRequestAttributes()).getRequest()
+                .getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null && Arrays.stream(ifNoneMatch.split(","))
+                .map(tag -> tag.trim().replaceFirst("^W/", ""))
+                .anyMatch(tag -> tag.equals(eTag) || tag.equals("*")))
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).cacheControl(cacheControl).build();
+
+        return ResponseEntity.ok().eTag(eTag).cacheControl(cacheControl).body(body);
+    }
 }
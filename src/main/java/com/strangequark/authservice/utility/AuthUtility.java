@@ -4,6 +4,7 @@ import com.strangequark.authservice.config.JwtService;
 import com.strangequark.authservice.serviceaccount.ServiceAccount;
 import com.strangequark.authservice.serviceaccount.ServiceAccountRepository;
 import com.strangequark.authservice.serviceaccount.ServiceAccountRequest;
+import io.jsonwebtoken.Claims;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -19,6 +20,11 @@ public class AuthUtility {
      */
     private static final Logger LOGGER = LoggerFactory.getLogger(AuthUtility.class);
 
+    /**
+     * How long before expiry a cached service account token is replaced
+     */
+    private static final long TOKEN_REFRESH_MARGIN_MILLIS = 30_000;
+
     private final ServiceAccountRepository serviceAccountRepository;
 
     private final PasswordEncoder passwordEncoder;
@@ -31,6 +37,17 @@ public class AuthUtility {
     @Value("${SERVICE_SECRET_AUTH}")
     private String SERVICE_SECRET_AUTH;
 
+    /**
+     * Service account token shared by outbound integrations, replaced shortly before it expires
+     */
+    private volatile CachedToken cachedToken;
+
+    /**
+     * A service account token and the time it should be replaced
+     */
+    private record CachedToken(String token, long refreshAtMillis) {
+    }
+
     public AuthUtility(ServiceAccountRepository serviceAccountRepository, PasswordEncoder passwordEncoder,
                                  JwtService jwtService) {
         this.serviceAccountRepository = serviceAccountRepository;
@@ -62,9 +79,27 @@ public class AuthUtility {
             LOGGER.debug("Service account authentication success");
             return accessToken;
         } catch (Exception ex) {
-            LOGGER.error("Failed to authenticate service account: " + ex.getMessage());
+            LOGGER.error("Failed to authenticate service account: {}", ex.getMessage());
             LOGGER.debug("Stack trace: ", ex);
             return null;
         }
     }
+
+    /**
+     * Get a service account access token, reusing the previous token until it is close to expiring
+     * @return Access token for the auth service account, or null if authentication failed
+     */
+    public String getServiceAccountToken() {
+        CachedToken current = cachedToken;
+        if (current != null && System.currentTimeMillis() < current.refreshAtMillis())
+            return current.token();
+
+        String accessToken = authenticateServiceAccount();
+        if (accessToken == null)
+            return null;
+
+        long expiresAtMillis = jwtService.extractClaim(accessToken, Claims::getExpiration, false).getTime();
+        cachedToken = new CachedToken(accessToken, expiresAtMillis - TOKEN_REFRESH_MARGIN_MILLIS);
+        return accessToken;
+    }
 }
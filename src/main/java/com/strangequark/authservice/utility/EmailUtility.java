@@ -2,20 +2,35 @@
 
 package com.strangequark.authservice.utility;
 
+import com.strangequark.authservice.profiling.KafkaSendEvent;
+import com.strangequark.authservice.standin.StandIns;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import jakarta.annotation.PreDestroy;
 import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.clients.producer.ProducerRecord;
 import org.apache.kafka.common.header.internals.RecordHeader;
+import org.apache.kafka.common.serialization.StringSerializer;
 import org.json.JSONObject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.*;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.client.RestClient;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Utility for sending API requests to the EmailService
@@ -38,6 +53,85 @@ public class EmailUtility {
     @Autowired
     private AuthUtility authUtility;
 
+    /**
+     * Shared {@link RestClient} for the EmailService
+     */
+    @Autowired
+    @Qualifier("emailRestClient")
+    private RestClient emailRestClient;
+
+    /**
+     * {@link ObservationRegistry} for tracing Kafka sends
+     */
+    @Autowired
+    private ObservationRegistry observationRegistry;
+
+    /**
+     * {@link StandIns} replacing the email Kafka cluster, only present with the standin profile
+     */
+    @Autowired(required = false)
+    private StandIns standIns;
+
+    /**
+     * Kafka bootstrap servers for the email cluster
+     */
+    @Value("${email.kafka.bootstrap-servers:email-kafka:9092}")
+    private String emailBootstrapServers;
+
+    /**
+     * Kafka topic template email messages are posted to
+     */
+    @Value("${email.kafka.topic:template-email-events}")
+    private String emailTopic;
+
+    /**
+     * Upper bound in milliseconds for a message to be acknowledged, including retries
+     */
+    @Value("${email.kafka.delivery-timeout-ms:60000}")
+    private int deliveryTimeoutMs;
+
+    /**
+     * Maximum time in milliseconds a send may block waiting for metadata or buffer space
+     */
+    @Value("${email.kafka.max-block-ms:2000}")
+    private long maxBlockMs;
+
+    /**
+     * Maximum time in milliseconds to wait for outstanding messages when closing the producer
+     */
+    @Value("${email.kafka.close-timeout-ms:5000}")
+    private long closeTimeoutMs;
+
+    /**
+     * Shared producer for the email topic, created on first use
+     */
+    private volatile Producer<String, String> producer;
+
+    /**
+     * Guards creation and closing of {@link #producer}
+     */
+    private final ReentrantLock producerLock = new ReentrantLock();
+
+    /**
+     * Counter of email messages acknowledged by Kafka
+     */
+    private final LongAdder emailsSent = new LongAdder();
+
+    /**
+     * Counter of email messages that failed to be delivered
+     */
+    private final LongAdder emailsFailed = new LongAdder();
+
+    /**
+     * Sum of send-to-acknowledgement latencies in nanoseconds
+     */
+    private final LongAdder emailSendLatencyNanos = new LongAdder();
+
+    /**
+     * Slowest send-to-acknowledgement latency in nanoseconds
+     */
+    private final AtomicLong emailSendMaxLatencyNanos = new AtomicLong();
+
     /**
      * Business logic sending an API request to the EmailService
      * @param recipient
@@ -46,7 +140,9 @@ public class EmailUtility {
     public ResponseEntity<?> sendEmail(String recipient, EmailType emailType) {
         LOGGER.debug("Attempting to send email API request");
 
-        String accessToken = authUtility.authenticateServiceAccount();
+        String accessToken = authUtility.getServiceAccountToken();
+        if (accessToken == null)
+            throw new IllegalStateException("Unable to obtain a service account token for the email service");
 
         //Set the headers
         LOGGER.debug("Setting email API request headers");
@@ -65,26 +161,30 @@ public class EmailUtility {
 //                emailType == EmailType.REGISTER ? "http://react-service/confirm-email"
 //                        : emailType == EmailType.PASSWORD_RESET ? "http://react-service/new-password" : null)));
 
-        //Compile the HttpEntity
-        HttpEntity<String> requestEntity = new HttpEntity<>(requestBody.toString(), headers);
-
-        //Check the email type, and send to the correct EmailService endpoint accordingly
-        String url = "http://email-service:6005/api/email/send-template-email";
-
         LOGGER.debug("Email API request creation complete, attempting to send request");
-        return new RestTemplate().exchange(
-                url,
-                HttpMethod.POST,
-                requestEntity,
-                String.class
-        );
+        return emailRestClient.post()
+                .uri("/api/email/send-template-email")
+                .headers(httpHeaders -> httpHeaders.addAll(headers))
+                .body(requestBody.toString())
+                .retrieve()
+                .toEntity(String.class);
     }
 
+    /**
+     * Business logic posting a template email message to the email Kafka topic.
+     * The message is handed to the shared producer and delivery is reported through a callback.
+     * @param recipient Email address of the recipient
+     * @param emailType {@link EmailType} of the email to send
+     */
     public void sendAsyncEmail(String recipient, EmailType emailType) {
         LOGGER.debug("Attempting to post message to email Kafka topic");
 
-        String accessToken = authUtility.authenticateServiceAccount();
-        accessToken = "Bearer " + accessToken;
+        String serviceAccountToken = authUtility.getServiceAccountToken();
+        if (serviceAccountToken == null) {
+            emailsFailed.increment();
+            throw new IllegalStateException("Unable to obtain a service account token for the email service");
+        }
+        String accessToken = "Bearer " + serviceAccountToken;
 
         JSONObject requestBody = new JSONObject();
         requestBody.put("recipient", recipient);
@@ -95,22 +195,130 @@ public class EmailUtility {
                 emailType == EmailType.REGISTER ? "http://react-service/confirm-email"
                         : emailType == EmailType.PASSWORD_RESET ? "http://react-service/new-password" : null)));
 
-        Properties props = new Properties();
-        props.put("bootstrap.servers", "email-kafka:9092");
-        props.put("key.serializer", "org.apache.kafka.common.serialization.StringSerializer");
-        props.put("value.serializer", "org.apache.kafka.common.serialization.StringSerializer");
-
-        String topic = "template-email-events";
-
         LOGGER.debug("Message created, attempting to post to email Kafka topic");
-        KafkaProducer<String, String> producer = new KafkaProducer<>(props);
         ProducerRecord<String, String> record = new ProducerRecord<String, String>(
-                topic,
+                emailTopic,
                 null,
                 null,
                 requestBody.toString(),
-                List.of(new RecordHeader("Authorization", accessToken.getBytes())));
-        producer.send(record);
-        producer.close();
+                List.of(new RecordHeader("Authorization", accessToken.getBytes(StandardCharsets.UTF_8))));
+
+        KafkaSendEvent sendEvent = new KafkaSendEvent();
+        sendEvent.topic = emailTopic;
+        sendEvent.records = 1;
+        sendEvent.bytes = record.value().length();
+        sendEvent.begin();
+
+        Observation sendObservation = KafkaSendObservation.start(observationRegistry, record, null);
+
+        long sendStartNanos = System.nanoTime();
+        try {
+            getProducer().send(record, (metadata, exception) -> {
+                sendEvent.succeeded = exception == null;
+                sendEvent.commit();
+                KafkaSendObservation.stop(sendObservation, exception);
+
+                long latencyNanos = System.nanoTime() - sendStartNanos;
+                emailSendLatencyNanos.add(latencyNanos);
+                emailSendMaxLatencyNanos.accumulateAndGet(latencyNanos, Math::max);
+
+                if (exception == null) {
+                    emailsSent.increment();
+                    LOGGER.debug("Email message delivered to partition {} at offset {}", metadata.partition(), metadata.offset());
+                } else {
+                    emailsFailed.increment();
+                    LOGGER.error("Failed to deliver message to email Kafka topic: {}", exception.getMessage());
+                    LOGGER.debug("Stack trace: ", exception);
+                }
+            });
+        } catch (RuntimeException ex) {
+            KafkaSendObservation.stop(sendObservation, ex);
+            throw ex;
+        }
+    }
+
+    /**
+     * Get the shared email producer, creating it on first use.
+     * Creation failures are not cached so the next send tries again.
+     */
+    private Producer<String, String> getProducer() {
+        Producer<String, String> current = producer;
+        if (current != null)
+            return current;
+
+        producerLock.lock();
+        try {
+            if (producer == null && standIns != null) {
+                producer = standIns.producer("email-kafka", deliveryTimeoutMs);
+            } else if (producer == null) {
+                LOGGER.info("Creating email Kafka producer for {}", emailBootstrapServers);
+
+                Properties props = new Properties();
+                props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, emailBootstrapServers);
+                props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class.getName());
+                props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class.getName());
+                props.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+                props.put(ProducerConfig.ACKS_CONFIG, "all");
+                props.put(ProducerConfig.RETRIES_CONFIG, Integer.MAX_VALUE);
+                props.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, 5);
+                props.put(ProducerConfig.DELIVERY_TIMEOUT_MS_CONFIG, deliveryTimeoutMs);
+                props.put(ProducerConfig.MAX_BLOCK_MS_CONFIG, maxBlockMs);
+                props.put(ProducerConfig.LINGER_MS_CONFIG, 5);
+                producer = new KafkaProducer<>(props);
+            }
+            return producer;
+        } finally {
+            producerLock.unlock();
+        }
+    }
+
+    /**
+     * Flush outstanding email messages and close the shared producer
+     */
+    @PreDestroy
+    void closeProducer() {
+        producerLock.lock();
+        try {
+            if (producer == null)
+                return;
+
+            LOGGER.info("Closing email Kafka producer");
+            producer.flush();
+            producer.close(Duration.ofMillis(closeTimeoutMs));
+        } catch (Exception ex) {
+            LOGGER.error("Failed to close email Kafka producer: {}", ex.getMessage());
+            LOGGER.debug("Stack trace: ", ex);
+        } finally {
+            producer = null;
+            producerLock.unlock();
+        }
+    }
+
+    /**
+     * Number of email messages acknowledged by Kafka
+     */
+    public long getEmailsSentCount() {
+        return emailsSent.sum();
+    }
+
+    /**
+     * Number of email messages that failed to be delivered to Kafka
+     */
+    public long getEmailsFailedCount() {
+        return emailsFailed.sum();
+    }
+
+    /**
+     * Total time in nanoseconds between handing email messages to the producer and their acknowledgement or failure
+     */
+    public long getEmailSendLatencyTotalNanos() {
+        return emailSendLatencyNanos.sum();
+    }
+
+    /**
+     * Slowest observed email send in nanoseconds
+     */
+    public long getEmailSendMaxLatencyNanos() {
+        return emailSendMaxLatencyNanos.get();
     }
 }
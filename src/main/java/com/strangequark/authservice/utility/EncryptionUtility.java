@@ -4,8 +4,10 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.crypto.Cipher;
+import javax.crypto.Mac;
 import javax.crypto.SecretKey;
 import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
 import java.util.Base64;
 
 /**
@@ -22,6 +24,11 @@ public class EncryptionUtility {
      */
     private static final String ALGORITHM = "AES";
 
+    /**
+     * Algorithm for keyed digests
+     */
+    private static final String DIGEST_ALGORITHM = "HmacSHA256";
+
     /**
      * Secret key used for encryption/decryption
      */
@@ -78,4 +85,19 @@ public class EncryptionUtility {
             throw new RuntimeException("Decryption error", e);
         }
     }
+
+    /**
+     * Utility method for computing a keyed digest of data, for cheaply detecting whether a secret has changed
+     * without storing it in a reversible form
+     */
+    public static String digest(String data) {
+        try {
+            Mac mac = Mac.getInstance(DIGEST_ALGORITHM);
+            mac.init(new SecretKeySpec(ENCRYPTION_KEY.getBytes(), DIGEST_ALGORITHM));
+
+            return Base64.getEncoder().encodeToString(mac.doFinal(data.getBytes(StandardCharsets.UTF_8)));
+        } catch (Exception e) {
+            throw new RuntimeException("Digest error", e);
+        }
+    }
 }
@@ -5,9 +5,10 @@ package com.strangequark.authservice.utility;
 import org.json.JSONObject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.http.*;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.client.RestClient;
 
 /**
  * Utility for sending API requests to the FileService
@@ -19,6 +20,20 @@ public class FileUtility {
      */
     private static final Logger LOGGER = LoggerFactory.getLogger(FileUtility.class);
 
+    /**
+     * Shared {@link RestClient} for the FileService
+     */
+    private final RestClient fileRestClient;
+
+    /**
+     * Constructs a new {@code FileUtility} with the given dependencies.
+     *
+     * @param fileRestClient Shared {@link RestClient} for the FileService
+     */
+    public FileUtility(@Qualifier("fileRestClient") RestClient fileRestClient) {
+        this.fileRestClient = fileRestClient;
+    }
+
     /**
      * Business logic sending an API request to the FileService
      * @param username User to be deleted
@@ -37,18 +52,12 @@ public class FileUtility {
         JSONObject requestBody = new JSONObject();
         requestBody.put("username", username);
 
-        //Compile the HttpEntity
-        HttpEntity<String> requestEntity = new HttpEntity<>(requestBody.toString(), headers);
-
-        //Define the endpoint URL
-        String url = "http://file-service:6010/api/file/delete-user-from-all-collections";
-
         LOGGER.debug("File API request creation complete, attempting to send request");
-        return new RestTemplate().exchange(
-                url,
-                HttpMethod.POST,
-                requestEntity,
-                String.class
-        );
+        return fileRestClient.post()
+                .uri("/api/file/delete-user-from-all-collections")
+                .headers(httpHeaders -> httpHeaders.addAll(headers))
+                .body(requestBody.toString())
+                .retrieve()
+                .toEntity(String.class);
     }
 }
@@ -0,0 +1,55 @@
+package com.strangequark.authservice.utility;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.observation.transport.SenderContext;
+import org.apache.kafka.clients.producer.ProducerRecord;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Observations for records handed to a Kafka producer. Starting the {@link Observation} writes the trace
+ * context into the record's headers, so consumers can continue the trace.
+ */
+public final class KafkaSendObservation {
+
+    private KafkaSendObservation() {
+    }
+
+    /**
+     * Start an {@link Observation} for sending a record, to be stopped in the producer callback
+     * @param observationRegistry {@link ObservationRegistry} to record against
+     * @param record {@link ProducerRecord} about to be sent, receiving the propagation headers
+     * @param parent {@link Observation} the send belongs to, or null to use the current one
+     * @return The started {@link Observation}
+     */
+    public static Observation start(ObservationRegistry observationRegistry, ProducerRecord<String, String> record,
+                                    Observation parent) {
+        SenderContext<ProducerRecord<String, String>> context = new SenderContext<>((carrier, key, value) -> {
+            //Replace rather than append, the record may carry headers shared with other records
+            carrier.headers().remove(key);
+            carrier.headers().add(key, value.getBytes(StandardCharsets.UTF_8));
+        });
+        context.setCarrier(record);
+        context.setRemoteServiceName("kafka");
+
+        Observation observation = Observation.createNotStarted("auth.kafka.send", () -> context, observationRegistry)
+                .contextualName(record.topic() + " send")
+                .lowCardinalityKeyValue("topic", record.topic());
+        if (parent != null)
+            observation.parentObservation(parent);
+
+        return observation.start();
+    }
+
+    /**
+     * Stop an {@link Observation} started by {@link #start}, recording the delivery error if there was one
+     * @param observation {@link Observation} to stop
+     * @param exception Delivery error, or null if the record was delivered
+     */
+    public static void stop(Observation observation, Exception exception) {
+        if (exception != null)
+            observation.error(exception);
+        observation.stop();
+    }
+}
@@ -0,0 +1,117 @@
+package com.strangequark.authservice.utility;
+
+import com.strangequark.authservice.error.ErrorResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rate limit for a single route, with one {@link TokenBucketRateLimiter} keyed by client IP and one keyed by the
+ * account the request targets. Checked before any password hashing or Kafka send.
+ */
+public class RateLimiter {
+    private static final Logger LOGGER = LoggerFactory.getLogger(RateLimiter.class);
+
+    /**
+     * Name of the route, used in logs and metrics
+     */
+    private final String route;
+
+    /**
+     * Whether rate limiting is applied
+     */
+    private final boolean enabled;
+
+    /**
+     * {@link TokenBucketRateLimiter} keyed by client IP
+     */
+    private final TokenBucketRateLimiter ipLimiter;
+
+    /**
+     * {@link TokenBucketRateLimiter} keyed by the targeted username, email or client ID
+     */
+    private final TokenBucketRateLimiter accountLimiter;
+
+    /**
+     * Constructs a new {@code RateLimiter} with the given dependencies.
+     *
+     * @param route Name of the route
+     * @param enabled Whether rate limiting is applied
+     * @param ipLimiter {@link TokenBucketRateLimiter} keyed by client IP
+     * @param accountLimiter {@link TokenBucketRateLimiter} keyed by the targeted account
+     */
+    public RateLimiter(String route, boolean enabled, TokenBucketRateLimiter ipLimiter, TokenBucketRateLimiter accountLimiter) {
+        this.route = route;
+        this.enabled = enabled;
+        this.ipLimiter = ipLimiter;
+        this.accountLimiter = accountLimiter;
+    }
+
+    /**
+     * Take a token for the current request's client IP and for the targeted account
+     * @param account Username, email or client ID the request targets, may be null
+     * @return {@link ResponseEntity} with a 429 and Retry-After if the request is limited, otherwise null
+     */
+    public ResponseEntity<?> limit(String account) {
+        if (!enabled)
+            return null;
+
+        long waitNanos = 0;
+
+        String clientIp = resolveClientIp();
+        if (clientIp != null)
+            waitNanos = ipLimiter.tryAcquire(clientIp);
+
+        if (waitNanos == 0 && account != null && !account.isEmpty())
+            waitNanos = accountLimiter.tryAcquire(account);
+
+        if (waitNanos == 0)
+            return null;
+
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+        LOGGER.debug("Rate limited {} request, retry after {}s", route, retryAfterSeconds);
+
+        return ResponseEntity.status(429)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                .body(new ErrorResponse("Too many requests, try again later"));
+    }
+
+    /**
+     * Get the remote address of the current request. Proxies are handled by server.forward-headers-strategy
+     * rather than by trusting X-Forwarded-For here.
+     */
+    private String resolveClientIp() {
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        if (requestAttributes instanceof ServletRequestAttributes servletRequestAttributes)
+            return servletRequestAttributes.getRequest().getRemoteAddr();
+
+        return null;
+    }
+
+    /**
+     * Get the name of the route
+     */
+    public String getRoute() {
+        return route;
+    }
+
+    /**
+     * Get the {@link TokenBucketRateLimiter} keyed by client IP
+     */
+    public TokenBucketRateLimiter getIpLimiter() {
+        return ipLimiter;
+    }
+
+    /**
+     * Get the {@link TokenBucketRateLimiter} keyed by the targeted account
+     */
+    public TokenBucketRateLimiter getAccountLimiter() {
+        return accountLimiter;
+    }
+}
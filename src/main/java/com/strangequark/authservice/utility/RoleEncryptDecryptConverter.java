@@ -1,5 +1,6 @@
 package com.strangequark.authservice.utility;
 
+import com.strangequark.authservice.profiling.ColumnDecryptionEvent;
 import com.strangequark.authservice.user.Role;
 import jakarta.persistence.AttributeConverter;
 import jakarta.persistence.Converter;
@@ -25,7 +26,17 @@ public class RoleEncryptDecryptConverter implements AttributeConverter<Role, Str
     @Override
     public Role convertToEntityAttribute(String dbData) {
         if (dbData == null) return null;
-        String decrypted = EncryptionUtility.decrypt(dbData);
+
+        ColumnDecryptionEvent event = new ColumnDecryptionEvent();
+        event.begin();
+        String decrypted;
+        try {
+            decrypted = EncryptionUtility.decrypt(dbData);
+        } finally {
+            event.converter = "RoleEncryptDecryptConverter";
+            event.encryptedBytes = dbData.length();
+            event.commit();
+        }
         return Role.valueOf(decrypted);
     }
 }
@@ -0,0 +1,110 @@
+package com.strangequark.authservice.utility;
+
+import org.slf4j.Logger;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Rate-limited INFO logging for routine success messages on hot request paths.
+ * At most {@code maxPerInterval} messages are written per interval, the rest are counted and the count is
+ * reported with the next message written. Failures should always be logged through the {@link Logger} directly.
+ */
+public final class SampledLogger {
+    /**
+     * Messages written per interval when not specified
+     */
+    private static final int DEFAULT_MAX_PER_INTERVAL = 5;
+
+    /**
+     * Interval used when not specified
+     */
+    private static final Duration DEFAULT_INTERVAL = Duration.ofSeconds(1);
+
+    /**
+     * {@link Logger} messages are written to
+     */
+    private final Logger logger;
+
+    /**
+     * Messages written per interval
+     */
+    private final int maxPerInterval;
+
+    /**
+     * Length of an interval in nanoseconds
+     */
+    private final long intervalNanos;
+
+    /**
+     * Start of the current interval, from {@link System#nanoTime()}
+     */
+    private final AtomicLong intervalStartNanos;
+
+    /**
+     * Messages written in the current interval
+     */
+    private final AtomicInteger intervalCount = new AtomicInteger();
+
+    /**
+     * Messages suppressed since the last message written
+     */
+    private final LongAdder suppressed = new LongAdder();
+
+    /**
+     * Constructs a new {@code SampledLogger} writing at most {@code maxPerInterval} messages per interval.
+     *
+     * @param logger {@link Logger} messages are written to
+     * @param maxPerInterval Messages written per interval
+     * @param interval Length of an interval
+     */
+    public SampledLogger(Logger logger, int maxPerInterval, Duration interval) {
+        this.logger = logger;
+        this.maxPerInterval = maxPerInterval;
+        this.intervalNanos = interval.toNanos();
+        this.intervalStartNanos = new AtomicLong(System.nanoTime());
+    }
+
+    /**
+     * Create a {@code SampledLogger} with the default budget of {@value #DEFAULT_MAX_PER_INTERVAL} messages per second
+     * @param logger {@link Logger} messages are written to
+     * @return {@code SampledLogger} for the logger
+     */
+    public static SampledLogger of(Logger logger) {
+        return new SampledLogger(logger, DEFAULT_MAX_PER_INTERVAL, DEFAULT_INTERVAL);
+    }
+
+    /**
+     * Log a message at INFO if the current interval still has budget, otherwise count it as suppressed
+     * @param message Message to log
+     */
+    public void info(String message) {
+        if (!logger.isInfoEnabled())
+            return;
+
+        if (!tryAcquire()) {
+            suppressed.increment();
+            return;
+        }
+
+        long suppressedCount = suppressed.sumThenReset();
+        if (suppressedCount > 0)
+            logger.info("{} ({} similar messages suppressed)", message, suppressedCount);
+        else
+            logger.info(message);
+    }
+
+    /**
+     * Take one message from the current interval's budget, starting a new interval if the current one has passed
+     */
+    private boolean tryAcquire() {
+        long now = System.nanoTime();
+        long intervalStart = intervalStartNanos.get();
+        if (now - intervalStart >= intervalNanos && intervalStartNanos.compareAndSet(intervalStart, now))
+            intervalCount.set(0);
+
+        return intervalCount.incrementAndGet() <= maxPerInterval;
+    }
+}
@@ -1,5 +1,6 @@
 package com.strangequark.authservice.utility;
 
+import com.strangequark.authservice.profiling.ColumnDecryptionEvent;
 import jakarta.persistence.AttributeConverter;
 import jakarta.persistence.Converter;
 
@@ -22,6 +23,16 @@ public class StringEncryptDecryptConverter implements AttributeConverter<String,
      */
     @Override
     public String convertToEntityAttribute(String dbData) {
-        return dbData == null ? null : EncryptionUtility.decrypt(dbData);
+        if (dbData == null) return null;
+
+        ColumnDecryptionEvent event = new ColumnDecryptionEvent();
+        event.begin();
+        try {
+            return EncryptionUtility.decrypt(dbData);
+        } finally {
+            event.converter = "StringEncryptDecryptConverter";
+            event.encryptedBytes = dbData.length();
+            event.commit();
+        }
     }
 }
@@ -0,0 +1,158 @@
+// Integration file: Telemetry
+
+package com.strangequark.authservice.utility;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded, lock-free multi-producer ring buffer used to hand telemetry events from request threads to the
+ * telemetry publisher thread. Every slot carries a sequence number, so producers and the consumer only ever
+ * contend on a single CAS and never take a lock.
+ *
+ * @param <E> Type of element stored in the buffer
+ */
+public final class TelemetryRingBuffer<E> {
+    /**
+     * Mask used to map a sequence onto a slot index, capacity is always a power of two
+     */
+    private final int mask;
+
+    /**
+     * Slots holding the buffered elements
+     */
+    private final Object[] slots;
+
+    /**
+     * Per-slot sequence numbers, used to publish a slot from producer to consumer and back again
+     */
+    private final AtomicLongArray sequences;
+
+    /**
+     * Next sequence to be claimed by a producer
+     */
+    private final AtomicLong tail = new AtomicLong();
+
+    /**
+     * Next sequence to be consumed
+     */
+    private final AtomicLong head = new AtomicLong();
+
+    /**
+     * Constructs a new {@code TelemetryRingBuffer} with at least the requested capacity.
+     *
+     * @param requestedCapacity Minimum number of elements the buffer can hold, rounded up to a power of two
+     */
+    public TelemetryRingBuffer(int requestedCapacity) {
+        if (requestedCapacity < 2)
+            throw new IllegalArgumentException("Ring buffer capacity must be at least 2");
+
+        int capacity = Integer.highestOneBit(requestedCapacity - 1) << 1;
+        if (capacity <= 0)
+            throw new IllegalArgumentException("Ring buffer capacity is too large");
+
+        this.mask = capacity - 1;
+        this.slots = new Object[capacity];
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++)
+            sequences.set(i, i);
+    }
+
+    /**
+     * Try to append an element to the buffer without blocking
+     * @param element Element to append, cannot be null
+     * @return True: Element was buffered, False: Buffer is full
+     */
+    public boolean offer(E element) {
+        if (element == null)
+            throw new NullPointerException("Ring buffer does not accept null elements");
+
+        long position = tail.get();
+        while (true) {
+            int index = (int) (position & mask);
+            long difference = sequences.get(index) - position;
+
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    slots[index] = element;
+                    sequences.lazySet(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Remove the oldest element from the buffer
+     * @return The oldest element, or null if the buffer is empty
+     */
+    @SuppressWarnings("unchecked")
+    public E poll() {
+        long position = head.get();
+        while (true) {
+            int index = (int) (position & mask);
+            long difference = sequences.get(index) - (position + 1);
+
+            if (difference == 0) {
+                if (head.compareAndSet(position, position + 1)) {
+                    E element = (E) slots[index];
+                    slots[index] = null;
+                    sequences.lazySet(index, position + mask + 1);
+                    return element;
+                }
+                position = head.get();
+            } else if (difference < 0) {
+                return null;
+            } else {
+                position = head.get();
+            }
+        }
+    }
+
+    /**
+     * Move up to {@code maxElements} elements from the buffer into the target list
+     * @param target List to append the drained elements to
+     * @param maxElements Maximum number of elements to drain
+     * @return Number of elements drained
+     */
+    public int drainTo(List<? super E> target, int maxElements) {
+        int drained = 0;
+        while (drained < maxElements) {
+            E element = poll();
+            if (element == null)
+                break;
+
+            target.add(element);
+            drained++;
+        }
+        return drained;
+    }
+
+    /**
+     * Approximate number of buffered elements
+     */
+    public int size() {
+        long size = tail.get() - head.get();
+        return (int) Math.max(0, Math.min(size, capacity()));
+    }
+
+    /**
+     * Check if the buffer is currently empty
+     */
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Maximum number of elements the buffer can hold
+     */
+    public int capacity() {
+        return mask + 1;
+    }
+}
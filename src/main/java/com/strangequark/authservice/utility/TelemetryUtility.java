@@ -2,112 +2,744 @@
 
 package com.strangequark.authservice.utility;
 
-import com.strangequark.authservice.config.JwtService;
-import io.jsonwebtoken.ExpiredJwtException;
+import com.strangequark.authservice.profiling.KafkaSendEvent;
+import com.strangequark.authservice.standin.StandIns;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.Header;
 import org.apache.kafka.common.header.internals.RecordHeader;
-import org.json.JSONObject;
+import org.apache.kafka.common.serialization.StringSerializer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.context.annotation.Bean;
-import org.springframework.context.annotation.Configuration;
-import org.springframework.scheduling.annotation.Async;
-import org.springframework.scheduling.annotation.EnableAsync;
-import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.*;
-import java.util.concurrent.Executor;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
 
+/**
+ * Utility for publishing telemetry events to the telemetry Kafka topic.
+ * Request threads only append events to a bounded {@link TelemetryRingBuffer}, a single publisher thread drains
+ * the buffer in batches, serializes the events and hands them to a long-lived {@link KafkaProducer}.
+ * In {@link TelemetryMode#AGGREGATE} mode, high-frequency event types are counted locally and published as
+ * per-interval rollups, with only a sample of the raw events sent individually.
+ */
 @Service
 public class TelemetryUtility {
+    /**
+     * {@link Logger} for writing {@link TelemetryUtility} application logs
+     */
     private static final Logger LOGGER = LoggerFactory.getLogger(TelemetryUtility.class);
 
+    /**
+     * How long the publisher thread parks when the buffer is empty
+     */
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+
+    /**
+     * How long to wait before trying to create the Kafka producer again after a failure
+     */
+    private static final long PRODUCER_RETRY_INTERVAL_MILLIS = 30_000;
+
+    /**
+     * Delivery timeout of the stand-in cluster, the Kafka default since the telemetry producer does not set one
+     */
+    private static final long STAND_IN_DELIVERY_TIMEOUT_MS = 120_000;
+
+    /**
+     * Policy applied when the telemetry buffer is full
+     */
+    public enum OverflowPolicy {
+        /**
+         * Drop the new event immediately
+         */
+        DROP,
+        /**
+         * Wait up to the configured offer timeout for space, then drop the new event
+         */
+        BLOCK
+    }
+
+    /**
+     * How high-frequency event types are published
+     */
+    public enum TelemetryMode {
+        /**
+         * Every event is published individually
+         */
+        RAW,
+        /**
+         * Aggregated event types are published as per-interval rollups plus a sample of raw events
+         */
+        AGGREGATE
+    }
+
+    /**
+     * Event type used for rollup records
+     */
+    private static final String ROLLUP_EVENT_TYPE = "telemetry-rollup";
+
+    /**
+     * Maximum number of subjects included in a single rollup record
+     */
+    private static final int MAX_SUBJECTS_PER_ROLLUP = 1000;
+
+    /**
+     * A single telemetry event waiting to be published
+     * @param eventType Type of the event
+     * @param key Kafka record key, the user or service account ID the event relates to
+     * @param timestamp Time the event was recorded
+     * @param metadata Event metadata
+     * @param sampleRate Rate the event was sampled at, 1 if it was not sampled
+     * @param parentObservation {@link Observation} current when the event was recorded, so the send joins its trace
+     */
+    record TelemetryEvent(String eventType, String key, LocalDateTime timestamp, Map<String, Object> metadata,
+                          double sampleRate, Observation parentObservation) {
+    }
+
+    /**
+     * A rollup counter swapped out at the end of an interval, kept for one more interval to pick up late increments
+     * @param eventType Event type counted
+     * @param subject User or service account ID counted
+     * @param adder The counter, still reachable by request threads that looked it up before the swap
+     * @param published Count already published for the counter
+     */
+    private record PublishedCount(String eventType, String subject, LongAdder adder, long published) {
+    }
+
     /**
      * {@link AuthUtility} for authenticating the service account
      */
     @Autowired
     private AuthUtility authUtility;
 
+    /**
+     * {@link ObservationRegistry} for tracing Kafka sends
+     */
     @Autowired
-    private JwtService jwtService;
+    private ObservationRegistry observationRegistry;
+
+    /**
+     * {@link StandIns} replacing the telemetry Kafka cluster, only present with the standin profile
+     */
+    @Autowired(required = false)
+    private StandIns standIns;
+
+    /**
+     * Kafka bootstrap servers for the telemetry cluster
+     */
+    @Value("${telemetry.kafka.bootstrap-servers:telemetry-kafka:9093}")
+    private String bootstrapServers;
+
+    /**
+     * Kafka topic telemetry events are published to
+     */
+    @Value("${telemetry.kafka.topic:auth-telemetry-events}")
+    private String topic;
+
+    /**
+     * Time in milliseconds the producer waits to fill a batch
+     */
+    @Value("${telemetry.kafka.linger-ms:20}")
+    private int lingerMs;
+
+    /**
+     * Maximum size in bytes of a producer batch
+     */
+    @Value("${telemetry.kafka.batch-size:65536}")
+    private int batchSize;
+
+    /**
+     * Compression codec used for producer batches
+     */
+    @Value("${telemetry.kafka.compression-type:lz4}")
+    private String compressionType;
+
+    /**
+     * Maximum time in milliseconds a send may block waiting for metadata or buffer space
+     */
+    @Value("${telemetry.kafka.max-block-ms:1000}")
+    private long maxBlockMs;
+
+    /**
+     * Capacity of the in-memory telemetry buffer
+     */
+    @Value("${telemetry.queue.capacity:8192}")
+    private int queueCapacity;
+
+    /**
+     * {@link OverflowPolicy} applied when the buffer is full
+     */
+    @Value("${telemetry.queue.overflow-policy:DROP}")
+    private OverflowPolicy overflowPolicy;
+
+    /**
+     * Maximum time in milliseconds a request thread waits for space under {@link OverflowPolicy#BLOCK}
+     */
+    @Value("${telemetry.queue.offer-timeout-ms:5}")
+    private long offerTimeoutMs;
+
+    /**
+     * Maximum number of events drained from the buffer per publishing pass
+     */
+    @Value("${telemetry.batch.max-size:500}")
+    private int maxBatchSize;
+
+    /**
+     * Maximum time in milliseconds spent draining and flushing on shutdown
+     */
+    @Value("${telemetry.shutdown.timeout-ms:5000}")
+    private long shutdownTimeoutMs;
+
+    /**
+     * {@link TelemetryMode} for high-frequency event types
+     */
+    @Value("${telemetry.mode:RAW}")
+    private TelemetryMode mode;
+
+    /**
+     * Event types that are aggregated in {@link TelemetryMode#AGGREGATE} mode, every other event type is always
+     * sent individually
+     */
+    @Value("${telemetry.aggregate.event-types:user-authenticate,user-access,service-account-authenticate}")
+    private String[] aggregatedEventTypeNames;
+
+    /**
+     * Lookup set built from {@link #aggregatedEventTypeNames}
+     */
+    private Set<String> aggregatedEventTypes;
+
+    /**
+     * Length in milliseconds of a rollup interval
+     */
+    @Value("${telemetry.aggregate.interval-ms:60000}")
+    private long rollupIntervalMs;
+
+    /**
+     * Fraction of aggregated events that are also sent individually, between 0 and 1
+     */
+    @Value("${telemetry.aggregate.sample-rate:0.01}")
+    private double sampleRate;
+
+    /**
+     * Counts for the current rollup interval, keyed by event type and then by user or service account ID
+     */
+    private final AtomicReference<ConcurrentHashMap<String, ConcurrentHashMap<String, LongAdder>>> rollupCounts =
+            new AtomicReference<>(new ConcurrentHashMap<>());
+
+    /**
+     * Buffer between request threads and the publisher thread
+     */
+    private TelemetryRingBuffer<TelemetryEvent> buffer;
+
+    /**
+     * Thread draining the buffer and publishing to Kafka
+     */
+    private Thread publisherThread;
 
-    private KafkaProducer<String, String> producer;
+    /**
+     * Flag controlling the publisher loop
+     */
+    private volatile boolean running;
+
+    /**
+     * Counter of events accepted into the buffer
+     */
+    private final LongAdder enqueuedEvents = new LongAdder();
+
+    /**
+     * Counter of events dropped because the buffer was full or the pipeline was stopped
+     */
+    private final AtomicLong droppedEvents = new AtomicLong();
+
+    /**
+     * Counter of events folded into rollups instead of being sent individually
+     */
+    private final LongAdder aggregatedEvents = new LongAdder();
+
+    /**
+     * Counter of events acknowledged by Kafka
+     */
+    private final LongAdder sentEvents = new LongAdder();
+
+    /**
+     * Counter of events that could not be delivered to Kafka
+     */
+    private final LongAdder failedEvents = new LongAdder();
+
+    // The fields below are only touched by the publisher thread
+    private Producer<String, String> producer;
+    private long nextProducerAttemptMillis = 0;
+    private long rollupWindowStartMillis;
     private String cachedServiceToken = null;
+    private List<PublishedCount> retiredRollupCounts = List.of();
+    private List<Header> cachedAuthHeaders = List.of();
+    private final StringBuilder jsonBuilder = new StringBuilder(512);
+
+    /**
+     * Create the buffer and start the publisher thread
+     */
+    @PostConstruct
+    void start() {
+        if (sampleRate < 0 || sampleRate > 1)
+            throw new IllegalStateException("telemetry.aggregate.sample-rate must be between 0 and 1");
+
+        aggregatedEventTypes = new HashSet<>(Arrays.asList(aggregatedEventTypeNames));
+        buffer = new TelemetryRingBuffer<>(queueCapacity);
+        rollupWindowStartMillis = System.currentTimeMillis();
+        running = true;
+
+        //Kept on a platform thread even in virtual-thread mode, the Kafka producer synchronizes internally
+        publisherThread = Thread.ofPlatform().name("Telemetry-publisher").daemon(true).start(this::publishLoop);
+
+        LOGGER.info("Telemetry pipeline started in {} mode with buffer capacity {} and overflow policy {}",
+                mode, buffer.capacity(), overflowPolicy);
+    }
+
+    /**
+     * Stop accepting events, drain what is buffered and close the producer
+     */
+    @PreDestroy
+    void stop() {
+        LOGGER.info("Stopping telemetry pipeline, draining {} buffered events", buffer.size());
+        running = false;
+        LockSupport.unpark(publisherThread);
 
-    @Async("telemetryExecutor")
-    public void sendTelemetryEvent(String eventType, Map<String, Object> metadata) {
         try {
-            LOGGER.debug("Attempting to post message to auth telemetry Kafka topic");
-
-            String accessToken = "Bearer " + ensureValidServiceToken();
-
-            JSONObject requestBody = new JSONObject();
-            requestBody.put("serviceName", "authservice");
-            requestBody.put("eventType", eventType);
-            requestBody.put("timestamp", LocalDateTime.now());
-            requestBody.put("metadata", new JSONObject(new HashMap<>(metadata)));
-
-            LOGGER.debug("Message created, attempting to post to auth telemetry Kafka topic");
-            ProducerRecord<String, String> record = new ProducerRecord<String, String>(
-                    "auth-telemetry-events",
-                    null,
-                    null,
-                    requestBody.toString()
-                    ,List.of(new RecordHeader("Authorization", accessToken.getBytes()))
-            );
-
-            getProducer().send(record);
-            LOGGER.debug("Telemetry event successfully sent");
-        } catch (Exception ex) {
-            LOGGER.error("Unable to reach telemetry Kafka service: " + ex.getMessage());
-            LOGGER.debug("Stack trace: ", ex);
+            publisherThread.join(shutdownTimeoutMs + maxBlockMs);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
         }
+
+        if (publisherThread.isAlive()) {
+            LOGGER.warn("Telemetry publisher did not stop in time, interrupting");
+            publisherThread.interrupt();
+        }
+
+        LOGGER.info("Telemetry pipeline stopped - enqueued: {}, sent: {}, failed: {}, dropped: {}",
+                getEnqueuedEventCount(), getSentEventCount(), getFailedEventCount(), getDroppedEventCount());
     }
 
-    private KafkaProducer<String, String> getProducer() {
-        if (producer == null) {
-            Properties props = new Properties();
-            props.put("bootstrap.servers", "telemetry-kafka:9093");
-            props.put("key.serializer", "org.apache.kafka.common.serialization.StringSerializer");
-            props.put("value.serializer", "org.apache.kafka.common.serialization.StringSerializer");
-            producer = new KafkaProducer<>(props);
+    /**
+     * Queue a telemetry event for publishing, never throws and never blocks longer than the configured offer timeout.
+     * In {@link TelemetryMode#AGGREGATE} mode, aggregated event types are counted and only sampled events are queued.
+     * @param eventType Type of the event
+     * @param metadata Event metadata, a "userId" or "serviceAccountId" entry is used as the record key
+     */
+    public void sendTelemetryEvent(String eventType, Map<String, Object> metadata) {
+        if (!running) {
+            recordDrop(eventType);
+            return;
+        }
+
+        String key = resolveKey(metadata);
+        double eventSampleRate = 1;
+
+        if (mode == TelemetryMode.AGGREGATE && aggregatedEventTypes.contains(eventType)) {
+            rollupCounts.get()
+                    .computeIfAbsent(eventType, type -> new ConcurrentHashMap<>())
+                    .computeIfAbsent(key == null ? "unknown" : key, subject -> new LongAdder())
+                    .increment();
+            aggregatedEvents.increment();
+
+            if (sampleRate == 0 || ThreadLocalRandom.current().nextDouble() >= sampleRate)
+                return;
+
+            eventSampleRate = sampleRate;
+        }
+
+        TelemetryEvent event = new TelemetryEvent(eventType, key, LocalDateTime.now(), metadata, eventSampleRate,
+                observationRegistry.getCurrentObservation());
+
+        if (buffer.offer(event) || (overflowPolicy == OverflowPolicy.BLOCK && offerWithTimeout(event))) {
+            enqueuedEvents.increment();
+            return;
+        }
+
+        recordDrop(eventType);
+    }
+
+    /**
+     * Number of events accepted into the telemetry buffer
+     */
+    public long getEnqueuedEventCount() {
+        return enqueuedEvents.sum();
+    }
+
+    /**
+     * Number of events dropped before reaching Kafka because the buffer was full
+     */
+    public long getDroppedEventCount() {
+        return droppedEvents.get();
+    }
+
+    /**
+     * Number of events folded into rollups
+     */
+    public long getAggregatedEventCount() {
+        return aggregatedEvents.sum();
+    }
+
+    /**
+     * Number of records acknowledged by Kafka, including rollup records
+     */
+    public long getSentEventCount() {
+        return sentEvents.sum();
+    }
+
+    /**
+     * Number of events that failed to be delivered to Kafka
+     */
+    public long getFailedEventCount() {
+        return failedEvents.sum();
+    }
+
+    /**
+     * Number of events currently waiting in the buffer
+     */
+    public int getQueueDepth() {
+        return buffer == null ? 0 : buffer.size();
+    }
+
+    /**
+     * Retry the offer until it succeeds or the offer timeout elapses
+     */
+    private boolean offerWithTimeout(TelemetryEvent event) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(offerTimeoutMs);
+
+        while (System.nanoTime() < deadline) {
+            LockSupport.parkNanos(50_000);
+            if (buffer.offer(event))
+                return true;
+        }
+        return false;
+    }
+
+    private void recordDrop(String eventType) {
+        long dropped = droppedEvents.incrementAndGet();
+
+        if (dropped == 1 || dropped % 1000 == 0)
+            LOGGER.warn("Telemetry buffer is full or stopped, dropped {} events so far (latest: {})", dropped, eventType);
+    }
+
+    private static String resolveKey(Map<String, Object> metadata) {
+        Object key = metadata.get("userId");
+        if (key == null)
+            key = metadata.get("serviceAccountId");
+
+        return key == null ? null : key.toString();
+    }
+
+    /**
+     * Publisher loop, drains the buffer in batches until stopped, then drains what is left and closes the producer
+     */
+    private void publishLoop() {
+        List<TelemetryEvent> batch = new ArrayList<>(maxBatchSize);
+        long drainDeadline = Long.MAX_VALUE;
+
+        while (true) {
+            if (!running && drainDeadline == Long.MAX_VALUE)
+                drainDeadline = System.currentTimeMillis() + shutdownTimeoutMs;
+
+            if (mode == TelemetryMode.AGGREGATE && System.currentTimeMillis() - rollupWindowStartMillis >= rollupIntervalMs)
+                publishRollups();
+
+            if (buffer.drainTo(batch, maxBatchSize) == 0) {
+                if (!running)
+                    break;
+
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+                continue;
+            }
+
+            publishBatch(batch);
+            batch.clear();
+
+            if (System.currentTimeMillis() > drainDeadline) {
+                LOGGER.warn("Telemetry shutdown timeout reached with {} events left in the buffer", buffer.size());
+                break;
+            }
+        }
+
+        if (mode == TelemetryMode.AGGREGATE)
+            publishRollups();
+
+        closeProducer();
+    }
+
+    /**
+     * Swap out the current rollup counts and publish one rollup record per event type.
+     * Request threads may still be incrementing the counters swapped out last interval, so those are read once more
+     * here before being dropped, and whatever they gained since is published with this interval's counts.
+     * Counters are only ever read, never reset, so an increment racing with a read is seen by the next one;
+     * only an increment landing more than a whole interval after its counter was swapped out is lost.
+     */
+    private void publishRollups() {
+        long windowEnd = System.currentTimeMillis();
+        Map<String, ConcurrentHashMap<String, LongAdder>> counts = rollupCounts.getAndSet(new ConcurrentHashMap<>());
+        String windowStart = Instant.ofEpochMilli(rollupWindowStartMillis).toString();
+        rollupWindowStartMillis = windowEnd;
+
+        Map<String, Map<String, Long>> sums = new LinkedHashMap<>();
+        for (PublishedCount retired : retiredRollupCounts)
+            addRollupCount(sums, retired.eventType(), retired.subject(), retired.adder().sum() - retired.published());
+
+        List<PublishedCount> published = new ArrayList<>();
+        counts.forEach((eventType, subjects) -> subjects.forEach((subject, adder) -> {
+            long count = adder.sum();
+            published.add(new PublishedCount(eventType, subject, adder, count));
+            addRollupCount(sums, eventType, subject, count);
+        }));
+        retiredRollupCounts = published;
+
+        if (sums.isEmpty())
+            return;
+
+        List<TelemetryEvent> rollups = new ArrayList<>();
+        for (Map.Entry<String, Map<String, Long>> eventCounts : sums.entrySet()) {
+            Map<String, Object> subjectCounts = new LinkedHashMap<>();
+            long total = 0;
+
+            for (Map.Entry<String, Long> subjectCount : eventCounts.getValue().entrySet()) {
+                long count = subjectCount.getValue();
+                subjectCounts.put(subjectCount.getKey(), count);
+                total += count;
+
+                if (subjectCounts.size() == MAX_SUBJECTS_PER_ROLLUP) {
+                    rollups.add(buildRollup(eventCounts.getKey(), windowStart, windowEnd, subjectCounts, total));
+                    subjectCounts = new LinkedHashMap<>();
+                    total = 0;
+                }
+            }
+
+            if (!subjectCounts.isEmpty())
+                rollups.add(buildRollup(eventCounts.getKey(), windowStart, windowEnd, subjectCounts, total));
+        }
+
+        LOGGER.debug("Publishing {} telemetry rollup records", rollups.size());
+        publishBatch(rollups);
+    }
+
+    private static void addRollupCount(Map<String, Map<String, Long>> sums, String eventType, String subject, long count) {
+        if (count > 0)
+            sums.computeIfAbsent(eventType, type -> new LinkedHashMap<>()).merge(subject, count, Long::sum);
+    }
+
+    private static TelemetryEvent buildRollup(String eventType, String windowStart, long windowEnd,
+                                              Map<String, Object> subjectCounts, long total) {
+        Map<String, Object> metadata = new LinkedHashMap<>();
+        metadata.put("eventType", eventType);
+        metadata.put("windowStart", windowStart);
+        metadata.put("windowEnd", Instant.ofEpochMilli(windowEnd).toString());
+        metadata.put("total", total);
+        metadata.put("counts", subjectCounts);
+
+        return new TelemetryEvent(ROLLUP_EVENT_TYPE, eventType, LocalDateTime.now(), metadata, 1, null);
+    }
+
+    /**
+     * Serialize and hand a batch of events to the Kafka producer
+     */
+    private void publishBatch(List<TelemetryEvent> batch) {
+        Producer<String, String> kafkaProducer = getProducer();
+        if (kafkaProducer == null) {
+            failedEvents.add(batch.size());
+            return;
+        }
+
+        List<Header> headers = getAuthHeaders();
+
+        //Covers serializing the batch and handing it to the producer, deliveries are counted by the callbacks
+        KafkaSendEvent sendEvent = new KafkaSendEvent();
+        sendEvent.topic = topic;
+        sendEvent.records = batch.size();
+        sendEvent.succeeded = true;
+        sendEvent.begin();
+
+        for (TelemetryEvent event : batch) {
+            Observation sendObservation = null;
+            try {
+                ProducerRecord<String, String> record = new ProducerRecord<>(topic, null, event.key(), toJson(event), headers);
+                sendEvent.bytes += record.value().length();
+
+                Observation observation = KafkaSendObservation.start(observationRegistry, record, event.parentObservation());
+                sendObservation = observation;
+
+                kafkaProducer.send(record, (metadata, exception) -> {
+                    KafkaSendObservation.stop(observation, exception);
+                    if (exception == null) {
+                        sentEvents.increment();
+                    } else {
+                        failedEvents.increment();
+                        LOGGER.debug("Telemetry event delivery failed: {}", exception.getMessage());
+                    }
+                });
+            } catch (Exception ex) {
+                if (sendObservation != null)
+                    KafkaSendObservation.stop(sendObservation, ex);
+                failedEvents.increment();
+                sendEvent.succeeded = false;
+                LOGGER.error("Unable to reach telemetry Kafka service: {}", ex.getMessage());
+                LOGGER.debug("Stack trace: ", ex);
+            }
+        }
+
+        sendEvent.commit();
+    }
+
+    /**
+     * Lazily create the long-lived producer, backing off after a failed attempt
+     */
+    private Producer<String, String> getProducer() {
+        if (producer == null && standIns != null)
+            producer = standIns.producer("telemetry-kafka", STAND_IN_DELIVERY_TIMEOUT_MS);
+
+        if (producer == null && System.currentTimeMillis() >= nextProducerAttemptMillis) {
+            try {
+                Properties props = new Properties();
+                props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+                props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class.getName());
+                props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class.getName());
+                props.put(ProducerConfig.LINGER_MS_CONFIG, lingerMs);
+                props.put(ProducerConfig.BATCH_SIZE_CONFIG, batchSize);
+                props.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, compressionType);
+                props.put(ProducerConfig.MAX_BLOCK_MS_CONFIG, maxBlockMs);
+                props.put(ProducerConfig.ACKS_CONFIG, "1");
+                producer = new KafkaProducer<>(props);
+            } catch (Exception ex) {
+                nextProducerAttemptMillis = System.currentTimeMillis() + PRODUCER_RETRY_INTERVAL_MILLIS;
+                LOGGER.error("Unable to create telemetry Kafka producer: {}", ex.getMessage());
+                LOGGER.debug("Stack trace: ", ex);
+            }
         }
         return producer;
     }
 
-    private String ensureValidServiceToken() {
+    private void closeProducer() {
+        if (producer == null)
+            return;
+
         try {
-            if (cachedServiceToken == null || jwtService.isTokenExpired(cachedServiceToken, false)) {
-                cachedServiceToken = authUtility.authenticateServiceAccount();
+            producer.flush();
+            producer.close(Duration.ofMillis(shutdownTimeoutMs));
+        } catch (Exception ex) {
+            LOGGER.error("Failed to close telemetry Kafka producer: {}", ex.getMessage());
+            LOGGER.debug("Stack trace: ", ex);
+        } finally {
+            producer = null;
+        }
+    }
+
+    /**
+     * Authorization headers for the current service token, only rebuilt when the token is refreshed
+     */
+    private List<Header> getAuthHeaders() {
+        try {
+            String serviceToken = authUtility.getServiceAccountToken();
+
+            if (serviceToken == null) {
+                cachedServiceToken = null;
+                cachedAuthHeaders = List.of();
+            } else if (!serviceToken.equals(cachedServiceToken)) {
+                cachedServiceToken = serviceToken;
+                cachedAuthHeaders = List.of(new RecordHeader("Authorization",
+                        ("Bearer " + serviceToken).getBytes(StandardCharsets.UTF_8)));
             }
-        } catch (ExpiredJwtException ex) {
-            cachedServiceToken = authUtility.authenticateServiceAccount();
         } catch (Exception ex) {
-            LOGGER.debug("Service token invalid, regenerating: " + ex.getMessage());
-            cachedServiceToken = authUtility.authenticateServiceAccount();
+            LOGGER.debug("Service token invalid, regenerating on next batch: {}", ex.getMessage());
+            cachedServiceToken = null;
+            cachedAuthHeaders = List.of();
         }
-        return cachedServiceToken;
+        return cachedAuthHeaders;
     }
 
     /**
-     * Async configuration and thread pool for telemetry
+     * Serialize an event into the reusable builder, only ever called from the publisher thread
      */
-    @Configuration
-    @EnableAsync
-    static class TelemetryAsyncConfig {
-        @Bean(name = "telemetryExecutor")
-        public Executor telemetryExecutor() {
-            ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
-            executor.setCorePoolSize(1);
-            executor.setMaxPoolSize(1);
-            executor.setQueueCapacity(50);
-            executor.setThreadNamePrefix("Telemetry-");
-            executor.initialize();
-            return executor;
+    private String toJson(TelemetryEvent event) {
+        StringBuilder json = jsonBuilder;
+        json.setLength(0);
+
+        json.append("{\"serviceName\":\"authservice\",\"eventType\":");
+        appendValue(json, event.eventType());
+        json.append(",\"timestamp\":");
+        appendValue(json, event.timestamp().toString());
+        if (event.sampleRate() < 1)
+            json.append(",\"sampleRate\":").append(event.sampleRate());
+        json.append(",\"metadata\":");
+        appendValue(json, event.metadata());
+        json.append('}');
+
+        return json.toString();
+    }
+
+    private static void appendValue(StringBuilder json, Object value) {
+        if (value == null) {
+            json.append("null");
+        } else if (value instanceof Number || value instanceof Boolean) {
+            json.append(value);
+        } else if (value instanceof Map<?, ?> map) {
+            json.append('{');
+            boolean first = true;
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                if (!first)
+                    json.append(',');
+                appendValue(json, String.valueOf(entry.getKey()));
+                json.append(':');
+                appendValue(json, entry.getValue());
+                first = false;
+            }
+            json.append('}');
+        } else if (value instanceof Iterable<?> iterable) {
+            json.append('[');
+            boolean first = true;
+            for (Object item : iterable) {
+                if (!first)
+                    json.append(',');
+                appendValue(json, item);
+                first = false;
+            }
+            json.append(']');
+        } else {
+            appendString(json, value.toString());
+        }
+    }
+
+    private static void appendString(StringBuilder json, String value) {
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> json.append("\\\"");
+                case '\\' -> json.append("\\\\");
+                case '\n' -> json.append("\\n");
+                case '\r' -> json.append("\\r");
+                case '\t' -> json.append("\\t");
+                default -> {
+                    if (c < 0x20)
+                        json.append(String.format("\\u%04x", (int) c));
+                    else
+                        json.append(c);
+                }
+            }
         }
+        json.append('"');
     }
 }
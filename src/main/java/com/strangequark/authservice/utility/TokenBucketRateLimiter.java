@@ -0,0 +1,99 @@
+package com.strangequark.authservice.utility;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Lock-free, in-memory token buckets keyed by an arbitrary string such as a client IP or a username.
+ * <p>
+ * Each bucket is a single {@link AtomicLong} holding its theoretical arrival time (the generic cell rate algorithm),
+ * so acquiring a token is one compare-and-set with no locks. Buckets live in a size-bounded cache and are dropped
+ * once they have been idle for a whole period, by which time they have refilled and carry no state. When the cache
+ * is full, buckets of keys seen rarely are evicted first, so clients rotating keys cannot push out the buckets of
+ * active keys, and every key always gets a bucket of its own.
+ */
+public final class TokenBucketRateLimiter {
+    private final Cache<String, AtomicLong> buckets;
+    private final long intervalNanos;
+    private final long periodNanos;
+    private final LongSupplier nanoClock;
+    private final LongAdder rejected = new LongAdder();
+
+    /**
+     * Create a limiter using {@link System#nanoTime()}
+     * @param capacity Number of requests allowed in a burst
+     * @param period Time to refill an empty bucket completely
+     * @param maxKeys Maximum number of buckets held
+     */
+    public TokenBucketRateLimiter(int capacity, Duration period, long maxKeys) {
+        this(capacity, period, maxKeys, System::nanoTime);
+    }
+
+    /**
+     * Create a limiter with an explicit clock
+     * @param capacity Number of requests allowed in a burst
+     * @param period Time to refill an empty bucket completely
+     * @param maxKeys Maximum number of buckets held
+     * @param nanoClock Monotonic clock in nanoseconds
+     */
+    public TokenBucketRateLimiter(int capacity, Duration period, long maxKeys, LongSupplier nanoClock) {
+        if (capacity < 1)
+            throw new IllegalArgumentException("Rate limit capacity must be at least 1");
+        if (period.isNegative() || period.isZero())
+            throw new IllegalArgumentException("Rate limit period must be positive");
+
+        this.periodNanos = period.toNanos();
+        this.intervalNanos = Math.max(1, periodNanos / capacity);
+        this.nanoClock = nanoClock;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(period)
+                .ticker(nanoClock::getAsLong)
+                //Maintenance is cheap and keeps size() exact, so it runs on the calling thread
+                .executor(Runnable::run)
+                .build();
+    }
+
+    /**
+     * Take a token for a key
+     * @param key Key of the bucket, for example a client IP
+     * @return 0 if a token was taken, otherwise the time in nanoseconds until one is available
+     */
+    public long tryAcquire(String key) {
+        long now = nanoClock.getAsLong();
+        AtomicLong bucket = buckets.get(key, k -> new AtomicLong(now));
+
+        while (true) {
+            long tat = bucket.get();
+            long newTat = (tat - now > 0 ? tat : now) + intervalNanos;
+            long waitNanos = newTat - now - periodNanos;
+
+            if (waitNanos > 0) {
+                rejected.increment();
+                return waitNanos;
+            }
+            if (bucket.compareAndSet(tat, newTat))
+                return 0;
+        }
+    }
+
+    /**
+     * Get the number of buckets currently held
+     */
+    public int size() {
+        buckets.cleanUp();
+        return (int) buckets.estimatedSize();
+    }
+
+    /**
+     * Get the number of rejected acquisitions
+     */
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+}
@@ -5,9 +5,10 @@ package com.strangequark.authservice.utility;
 import org.json.JSONObject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.http.*;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.client.RestClient;
 
 /**
  * Utility for sending API requests to the VaultService
@@ -19,6 +20,20 @@ public class VaultUtility {
      */
     private static final Logger LOGGER = LoggerFactory.getLogger(VaultUtility.class);
 
+    /**
+     * Shared {@link RestClient} for the VaultService
+     */
+    private final RestClient vaultRestClient;
+
+    /**
+     * Constructs a new {@code VaultUtility} with the given dependencies.
+     *
+     * @param vaultRestClient Shared {@link RestClient} for the VaultService
+     */
+    public VaultUtility(@Qualifier("vaultRestClient") RestClient vaultRestClient) {
+        this.vaultRestClient = vaultRestClient;
+    }
+
     /**
      * Business logic sending an API request to the VaultService
      * @param username User to be deleted
@@ -37,18 +52,12 @@ public class VaultUtility {
         JSONObject requestBody = new JSONObject();
         requestBody.put("username", username);
 
-        //Compile the HttpEntity
-        HttpEntity<String> requestEntity = new HttpEntity<>(requestBody.toString(), headers);
-
-        //Define the endpoint URL
-        String url = "http://vault-service:6020/api/vault/delete-user-from-all-services";
-
         LOGGER.debug("Vault API request creation complete, attempting to send request");
-        return new RestTemplate().exchange(
-                url,
-                HttpMethod.POST,
-                requestEntity,
-                String.class
-        );
+        return vaultRestClient.post()
+                .uri("/api/vault/delete-user-from-all-services")
+                .headers(httpHeaders -> httpHeaders.addAll(headers))
+                .body(requestBody.toString())
+                .retrieve()
+                .toEntity(String.class);
     }
 }
@@ -1,8 +1,11 @@
 package com.strangequark.authservice.repositorytests;
 
+import com.strangequark.authservice.user.EncryptedUserLookup;
 import com.strangequark.authservice.user.Role;
 import com.strangequark.authservice.user.User;
 import com.strangequark.authservice.user.UserRepository;
+import com.strangequark.authservice.utility.EncryptionUtility;
+import jakarta.persistence.Tuple;
 import org.junit.jupiter.api.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.TestConfiguration;
@@ -11,6 +14,7 @@ import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.util.*;
+import java.util.stream.Stream;
 
 public class UserRepositoryTest extends BaseRepositoryTest {
 
@@ -63,4 +67,41 @@ public class UserRepositoryTest extends BaseRepositoryTest {
         Assertions.assertEquals(1, users.size());
         Assertions.assertTrue(users.contains(testUser));
     }
+
+    @Test
+    void findLookupsByUsernameOrEmailInTest() {
+        List<EncryptedUserLookup> lookups = userRepository.findLookupsByUsernameOrEmailIn(
+                List.of(EncryptionUtility.encrypt("testUser"), EncryptionUtility.encrypt("missing@test.com")))
+                .stream().map(EncryptedUserLookup::of).toList();
+
+        Assertions.assertEquals(1, lookups.size());
+        Assertions.assertEquals(testUser.getId(), lookups.getFirst().id());
+        Assertions.assertEquals("testUser", lookups.getFirst().decrypt().username());
+    }
+
+    @Test
+    void findLookupsAfterOrderByIdTest() {
+        User otherUser = new User("otherUser", "other@test.com", Role.USER, true, new HashSet<>(), passwordEncoder.encode("password"));
+        testEntityManager.persistAndFlush(otherUser);
+
+        List<EncryptedUserLookup> firstPage = userRepository.findLookupsOrderById(1)
+                .stream().map(EncryptedUserLookup::of).toList();
+        List<EncryptedUserLookup> secondPage = userRepository.findLookupsAfterOrderById(firstPage.getFirst().id(), 1)
+                .stream().map(EncryptedUserLookup::of).toList();
+
+        Assertions.assertEquals(1, firstPage.size());
+        Assertions.assertEquals(1, secondPage.size());
+        Assertions.assertNotEquals(firstPage.getFirst().id(), secondPage.getFirst().id());
+        Assertions.assertTrue(userRepository.findLookupsAfterOrderById(secondPage.getFirst().id(), 1).isEmpty());
+    }
+
+    @Test
+    void streamAllLookupsTest() {
+        try (Stream<Tuple> rows = userRepository.streamAllLookups()) {
+            List<EncryptedUserLookup> users = rows.map(EncryptedUserLookup::of).toList();
+
+            Assertions.assertEquals(1, users.size());
+            Assertions.assertEquals("testUser", users.getFirst().decrypt().username());
+        }
+    }
 }
@@ -2,7 +2,13 @@ package com.strangequark.authservice.servicetests;
 
 import com.strangequark.authservice.auth.AuthenticationRequest;
 import com.strangequark.authservice.auth.AuthenticationService;
+import com.strangequark.authservice.auth.LoginAttemptService;
 import com.strangequark.authservice.auth.RegistrationRequest;
+import com.strangequark.authservice.check.TokenCheckService;
+import com.strangequark.authservice.config.JwtService;
+import com.strangequark.authservice.invalidation.CacheInvalidator;
+import com.strangequark.authservice.user.UserLookupCache;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -11,6 +17,18 @@ import org.springframework.http.ResponseEntity;
 public class AuthenticationServiceTest extends BaseServiceTest{
     @Autowired
     private AuthenticationService authenticationService;
+    @Autowired
+    private LoginAttemptService loginAttemptService;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private CacheInvalidator cacheInvalidator;
+    @Autowired
+    private UserLookupCache userLookupCache;
+    @Autowired
+    private TokenCheckService tokenCheckService;
+    @Autowired
+    private JwtService jwtService;
 
     @Test
     void registerTest() {
@@ -31,4 +49,67 @@ public class AuthenticationServiceTest extends BaseServiceTest{
         Assertions.assertNotNull(response.getHeaders().getFirst("Set-Cookie"));
         Assertions.assertTrue(response.getHeaders().getFirst("Set-Cookie").contains("refresh_token="));
     }
+
+    @Test
+    void authenticateMetricsTest() {
+        authenticationService.authenticate(new AuthenticationRequest("testUser", "password"));
+
+        Assertions.assertTrue(meterRegistry.get("auth.service")
+                .tags("service", "AuthenticationService", "method", "authenticate", "status", "200").timer().count() > 0);
+        Assertions.assertTrue(meterRegistry.get("auth.password.match").tag("result", "match").timer().count() > 0);
+        Assertions.assertTrue(meterRegistry.get("auth.jwt.sign").tag("token", "access").timer().count() > 0);
+    }
+
+    @Test
+    void authenticateRateLimitTest() {
+        AuthenticationRequest request = new AuthenticationRequest("rateLimitedUser", "wrongPassword");
+
+        for (int i = 0; i < 10; i++)
+            Assertions.assertEquals(401, authenticationService.authenticate(request).getStatusCode().value());
+
+        ResponseEntity<?> response =  authenticationService.authenticate(request);
+
+        Assertions.assertEquals(429, response.getStatusCode().value());
+        Assertions.assertNotNull(response.getHeaders().getFirst("Retry-After"));
+    }
+
+    @Test
+    void authenticateLockoutTest() {
+        try {
+            AuthenticationRequest badRequest = new AuthenticationRequest("testUser", "wrongPassword");
+            for (int i = 0; i < 5; i++)
+                Assertions.assertEquals(401, authenticationService.authenticate(badRequest).getStatusCode().value());
+
+            //The correct password is rejected while the account is locked
+            ResponseEntity<?> response =  authenticationService.authenticate(new AuthenticationRequest("testUser", "password"));
+
+            Assertions.assertEquals(401, response.getStatusCode().value());
+            Assertions.assertTrue(loginAttemptService.isLocked("testUser"));
+            Assertions.assertFalse(userRepository.findByUsername("testUser").get().isAccountNonLocked());
+        } finally {
+            loginAttemptService.reset("testUser");
+        }
+    }
+
+    @Test
+    void lockoutAfterUsernameSprayTest() {
+        //A limiter tracking far fewer usernames than are sprayed
+        LoginAttemptService limitedAttempts = new LoginAttemptService(userRepository, cacheInvalidator, 3, 900, 900, 10);
+        Assertions.assertTrue(userLookupCache.findById(testUser.getId()).isPresent());
+        String authorizationHeader = "Bearer " + jwtService.generateToken(testUser, false);
+        Assertions.assertEquals(200, tokenCheckService.check(authorizationHeader).getStatusCode().value());
+
+        for (int i = 0; i < 1000; i++)
+            limitedAttempts.recordFailure("sprayedUser" + i);
+
+        //Failures for a real account are still counted, an evicted window at worst costs a few attempts
+        for (int i = 0; i < 6 && !limitedAttempts.isLocked("testUser"); i++)
+            limitedAttempts.recordFailure("testUser");
+
+        Assertions.assertTrue(limitedAttempts.isLocked("testUser"));
+        Assertions.assertFalse(userRepository.findByUsername("testUser").get().isAccountNonLocked());
+        //Persisting the lock drops what was cached about the user
+        Assertions.assertNull(userLookupCache.getCache().getIfPresent(testUser.getId()));
+        Assertions.assertEquals(401, tokenCheckService.check(authorizationHeader).getStatusCode().value());
+    }
 }
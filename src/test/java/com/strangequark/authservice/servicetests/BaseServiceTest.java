@@ -1,6 +1,7 @@
 package com.strangequark.authservice.servicetests;
 
 import com.strangequark.authservice.config.JwtService;
+import com.strangequark.authservice.invalidation.InvalidationHandler;
 import com.strangequark.authservice.serviceaccount.ServiceAccountRepository; // Integration line: Email
 import com.strangequark.authservice.user.Role;
 import com.strangequark.authservice.user.User;
@@ -17,6 +18,7 @@ import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
 import java.util.HashSet;
+import java.util.List;
 
 @SpringBootTest
 @TestInstance(TestInstance.Lifecycle.PER_CLASS)
@@ -33,6 +35,8 @@ public abstract class BaseServiceTest {
     @Autowired
     public UserRepository userRepository;
     @Autowired
+    private List<InvalidationHandler> invalidationHandlers;
+    @Autowired
     private JwtService jwtService;
     @Autowired
     public PasswordEncoder passwordEncoder;
@@ -64,6 +68,7 @@ public abstract class BaseServiceTest {
     @AfterEach
     void teardown() {
         userRepository.deleteAll();
+        invalidationHandlers.forEach(InvalidationHandler::invalidateAll);
         accessToken = null;
         testUser = null;
     }
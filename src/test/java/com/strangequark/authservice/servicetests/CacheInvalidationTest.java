@@ -0,0 +1,109 @@
+package com.strangequark.authservice.servicetests;
+
+import com.strangequark.authservice.AuthServiceApplication;
+import com.strangequark.authservice.check.TokenCheckService;
+import com.strangequark.authservice.config.JwtService;
+import com.strangequark.authservice.invalidation.CacheInvalidator;
+import com.strangequark.authservice.invalidation.InvalidationBus;
+import com.strangequark.authservice.invalidation.InvalidationMessage;
+import com.strangequark.authservice.user.UserLookupCache;
+import com.strangequark.authservice.user.UserRequest;
+import com.strangequark.authservice.user.UserService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+public class CacheInvalidationTest extends BaseServiceTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserLookupCache userLookupCache;
+
+    @Autowired
+    private TokenCheckService tokenCheckService;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private InvalidationBus invalidationBus;
+
+    @Autowired
+    private CacheInvalidator cacheInvalidator;
+
+    /**
+     * Second instance of the service, on the same in-memory channel and database as the test context
+     */
+    private ConfigurableApplicationContext otherInstance;
+
+    @BeforeAll
+    void startOtherInstance() {
+        otherInstance = new SpringApplicationBuilder(AuthServiceApplication.class)
+                .profiles("test")
+                .properties("server.port=0", "logging.level.com.strangequark=WARN")
+                .run();
+    }
+
+    @AfterAll
+    void stopOtherInstance() {
+        otherInstance.close();
+    }
+
+    /**
+     * Rename the test user behind the cache's back, as another instance would
+     */
+    private void renameFromAnotherInstance() {
+        testUser.setUsername("renamedElsewhere");
+        userRepository.save(testUser);
+    }
+
+    @Test
+    void invalidateUserFromAnotherInstanceTest() {
+        Assertions.assertEquals(200, userService.searchUsers("testUser").getStatusCode().value());
+        renameFromAnotherInstance();
+
+        //Still served from the cache until the other instance's message arrives
+        Assertions.assertEquals(200, userService.searchUsers("testUser").getStatusCode().value());
+
+        invalidationBus.publish(new InvalidationMessage(InvalidationMessage.Type.USER, testUser.getId().toString(), "otherNode"));
+
+        Assertions.assertEquals(400, userService.searchUsers("testUser").getStatusCode().value());
+        Assertions.assertEquals(200, userService.searchUsers("renamedElsewhere").getStatusCode().value());
+    }
+
+    @Test
+    void disableUserOnOtherInstanceTest() {
+        String authorizationHeader = "Bearer " + jwtService.generateToken(testUser, false);
+        Assertions.assertEquals(200, tokenCheckService.check(authorizationHeader).getStatusCode().value());
+        Assertions.assertTrue(userLookupCache.findById(testUser.getId()).isPresent());
+        Assertions.assertNotNull(userLookupCache.getCache().getIfPresent(testUser.getId()));
+
+        long receivedBefore = cacheInvalidator.getReceivedCount();
+        setupAdminUser();
+        UserRequest userRequest = new UserRequest();
+        userRequest.setEmail(testUser.getEmail());
+
+        Assertions.assertEquals(200, otherInstance.getBean(UserService.class).disableUser(userRequest).getStatusCode().value());
+
+        Assertions.assertEquals(receivedBefore + 1, cacheInvalidator.getReceivedCount());
+        Assertions.assertNull(userLookupCache.getCache().getIfPresent(testUser.getId()));
+        Assertions.assertEquals(401, tokenCheckService.check(authorizationHeader).getStatusCode().value());
+    }
+
+    @Test
+    void malformedMessageIgnoredTest() {
+        Assertions.assertEquals(200, userService.searchUsers("testUser").getStatusCode().value());
+
+        Assertions.assertDoesNotThrow(() -> invalidationBus.publish(
+                new InvalidationMessage(InvalidationMessage.Type.USER, "notAUserId", "otherNode")));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> InvalidationMessage.decode("X:value", "otherNode"));
+        Assertions.assertEquals(InvalidationMessage.Type.USER,
+                InvalidationMessage.decode(new InvalidationMessage(InvalidationMessage.Type.USER, "id", "node").encode(), "node").type());
+    }
+}
@@ -0,0 +1,62 @@
+package com.strangequark.authservice.servicetests;
+
+import com.strangequark.authservice.profiling.ProfilingService;
+import jdk.jfr.EventType;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.http.ResponseEntity;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+
+public class ProfilingServiceTest extends BaseServiceTest {
+    @Autowired
+    private ProfilingService profilingService;
+
+    @Test
+    void startRecordingRequiresAdminTest() {
+        ResponseEntity<?> response = profilingService.startRecording(5L);
+
+        Assertions.assertEquals(403, response.getStatusCode().value());
+    }
+
+    @Test
+    void recordingTest() throws Exception {
+        setupAdminUser();
+
+        Assertions.assertEquals(200, profilingService.startRecording(30L).getStatusCode().value());
+        Assertions.assertEquals(409, profilingService.startRecording(30L).getStatusCode().value());
+
+        passwordEncoder.matches("password", testUser.getPassword());
+        userRepository.findByUsername("testUser");
+
+        ResponseEntity<?> response = profilingService.stopRecording();
+        Assertions.assertEquals(200, response.getStatusCode().value());
+
+        Path file = Files.createTempFile("profilingServiceTest-", ".jfr");
+        try {
+            try (InputStream body = ((InputStreamResource) response.getBody()).getInputStream()) {
+                Files.copy(body, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+
+            List<String> eventNames = RecordingFile.readAllEvents(file).stream()
+                    .map(RecordedEvent::getEventType)
+                    .map(EventType::getName)
+                    .toList();
+
+            Assertions.assertTrue(eventNames.contains("com.strangequark.authservice.PasswordHash"));
+            Assertions.assertTrue(eventNames.contains("com.strangequark.authservice.RepositoryCall"));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+
+        Assertions.assertEquals(404, profilingService.stopRecording().getStatusCode().value());
+    }
+}
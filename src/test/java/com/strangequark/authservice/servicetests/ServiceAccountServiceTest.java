@@ -2,6 +2,7 @@ package com.strangequark.authservice.servicetests;
 
 import com.strangequark.authservice.config.JwtService;
 import com.strangequark.authservice.serviceaccount.ServiceAccount;
+import com.strangequark.authservice.serviceaccount.ServiceAccountInitializer;
 import com.strangequark.authservice.serviceaccount.ServiceAccountRepository;
 import com.strangequark.authservice.serviceaccount.ServiceAccountRequest;
 import com.strangequark.authservice.serviceaccount.ServiceAccountService;
@@ -22,6 +23,8 @@ public class ServiceAccountServiceTest extends BaseServiceTest {
     ServiceAccountRepository serviceAccountRepository;
     @Autowired
     JwtService jwtService;
+    @Autowired
+    ServiceAccountInitializer serviceAccountInitializer;
 
     private ServiceAccount testServiceAccount;
     private String accessToken;
@@ -49,4 +52,25 @@ public class ServiceAccountServiceTest extends BaseServiceTest {
 
         Assertions.assertEquals(200, response.getStatusCode().value());
     }
+
+    @Test
+    void initializerSkipsUnchangedSecretsTest() throws Exception {
+        String originalHash = serviceAccountRepository.findByClientId("auth").get().getClientPassword();
+
+        //An unchanged secret is not hashed again
+        serviceAccountInitializer.run(null);
+        Assertions.assertEquals(originalHash, serviceAccountRepository.findByClientId("auth").get().getClientPassword());
+
+        System.setProperty("SERVICE_SECRET_AUTH", "rotatedClientPassword");
+        try {
+            serviceAccountInitializer.run(null);
+
+            String rotatedHash = serviceAccountRepository.findByClientId("auth").get().getClientPassword();
+            Assertions.assertNotEquals(originalHash, rotatedHash);
+            Assertions.assertTrue(passwordEncoder.matches("rotatedClientPassword", rotatedHash));
+        } finally {
+            System.setProperty("SERVICE_SECRET_AUTH", "testClientPassword");
+            serviceAccountInitializer.run(null);
+        }
+    }
 }
@@ -0,0 +1,79 @@
+package com.strangequark.authservice.servicetests;
+
+import com.strangequark.authservice.check.TokenCheckService;
+import com.strangequark.authservice.config.JwtService;
+import com.strangequark.authservice.invalidation.CacheInvalidator;
+import com.strangequark.authservice.serviceaccount.ServiceAccount;
+import com.strangequark.authservice.serviceaccount.ServiceAccountRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+
+public class TokenCheckServiceTest extends BaseServiceTest {
+
+    @Autowired
+    private TokenCheckService tokenCheckService;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private CacheInvalidator cacheInvalidator;
+
+    @Autowired
+    private ServiceAccountRepository serviceAccountRepository;
+
+    @Test
+    void checkTest() {
+        ResponseEntity<Void> response = tokenCheckService.check("Bearer " + jwtService.generateToken(testUser, false));
+        HttpHeaders headers = response.getHeaders();
+
+        Assertions.assertEquals(200, response.getStatusCode().value());
+        Assertions.assertNull(response.getBody());
+        Assertions.assertEquals(testUser.getId().toString(), headers.getFirst(TokenCheckService.USER_ID_HEADER));
+        Assertions.assertEquals("testUser", headers.getFirst(TokenCheckService.USERNAME_HEADER));
+        Assertions.assertEquals("USER", headers.getFirst(TokenCheckService.ROLE_HEADER));
+        Assertions.assertEquals("testAuthorization1", headers.getFirst(TokenCheckService.AUTHORIZATIONS_HEADER));
+    }
+
+    @Test
+    void checkServiceAccountTest() {
+        ServiceAccount serviceAccount = serviceAccountRepository.findByClientId("auth").orElseThrow();
+
+        ResponseEntity<Void> response = tokenCheckService.check("Bearer " + jwtService.generateServiceAccountToken(serviceAccount, false));
+
+        Assertions.assertEquals(200, response.getStatusCode().value());
+        Assertions.assertEquals("auth", response.getHeaders().getFirst(TokenCheckService.USERNAME_HEADER));
+        Assertions.assertEquals("SERVICE_ACCOUNT", response.getHeaders().getFirst(TokenCheckService.ROLE_HEADER));
+    }
+
+    @Test
+    void checkInvalidTokenTest() {
+        Assertions.assertEquals(401, tokenCheckService.check(null).getStatusCode().value());
+        Assertions.assertEquals(401, tokenCheckService.check("Basic dXNlcjpwYXNz").getStatusCode().value());
+        Assertions.assertEquals(401, tokenCheckService.check("Bearer notAToken").getStatusCode().value());
+
+        //Refresh tokens are signed with a different key
+        ResponseEntity<Void> response = tokenCheckService.check("Bearer " + jwtService.generateToken(testUser, true));
+        Assertions.assertEquals(401, response.getStatusCode().value());
+        Assertions.assertNull(response.getBody());
+    }
+
+    @Test
+    void checkDisabledUserTest() {
+        String authorizationHeader = "Bearer " + jwtService.generateToken(testUser, false);
+        Assertions.assertEquals(200, tokenCheckService.check(authorizationHeader).getStatusCode().value());
+
+        testUser.setEnabled(false);
+        userRepository.save(testUser);
+
+        //Served from the cache until the change is announced
+        Assertions.assertEquals(200, tokenCheckService.check(authorizationHeader).getStatusCode().value());
+
+        cacheInvalidator.invalidateUser(testUser.getId());
+
+        Assertions.assertEquals(401, tokenCheckService.check(authorizationHeader).getStatusCode().value());
+    }
+}
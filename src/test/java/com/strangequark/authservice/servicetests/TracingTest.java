@@ -0,0 +1,58 @@
+package com.strangequark.authservice.servicetests;
+
+import com.strangequark.authservice.auth.AuthenticationRequest;
+import com.strangequark.authservice.auth.AuthenticationService;
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@AutoConfigureObservability
+@Import(TracingTest.InMemoryExporterConfig.class)
+@TestPropertySource(properties = "management.tracing.sampling.probability=1.0")
+public class TracingTest extends BaseServiceTest {
+    @Autowired
+    private AuthenticationService authenticationService;
+    @Autowired
+    private InMemorySpanExporter spanExporter;
+    @Autowired
+    private SdkTracerProvider tracerProvider;
+
+    @TestConfiguration
+    static class InMemoryExporterConfig {
+        @Bean
+        InMemorySpanExporter inMemorySpanExporter() {
+            return InMemorySpanExporter.create();
+        }
+    }
+
+    @Test
+    void authenticateSpansTest() {
+        spanExporter.reset();
+
+        authenticationService.authenticate(new AuthenticationRequest("testUser", "password"));
+        tracerProvider.forceFlush().join(5, TimeUnit.SECONDS);
+
+        List<SpanData> spans = spanExporter.getFinishedSpanItems();
+        //Micrometer Tracing lower-hyphenates the contextual names of observations into span names
+        SpanData serviceSpan = spans.stream()
+                .filter(span -> span.getName().equals("authentication-service.authenticate"))
+                .findFirst().orElseThrow();
+
+        //BCrypt and the user lookup are children in the same trace as the service method
+        Assertions.assertTrue(spans.stream().anyMatch(span -> span.getName().equals("auth.password.match")
+                && span.getTraceId().equals(serviceSpan.getTraceId())));
+        Assertions.assertTrue(spans.stream().anyMatch(span -> span.getName().equals("user-repository.find-by-username")
+                && span.getTraceId().equals(serviceSpan.getTraceId())));
+    }
+}
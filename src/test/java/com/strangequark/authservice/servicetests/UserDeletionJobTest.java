@@ -0,0 +1,88 @@
+package com.strangequark.authservice.servicetests;
+
+import com.strangequark.authservice.config.JwtService;
+import com.strangequark.authservice.user.*;
+import com.strangequark.authservice.utility.FileUtility; // Integration line: File
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledInNativeImage;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.Date;
+import java.util.UUID;
+
+//Mockito cannot generate mocks inside a native image
+@DisabledInNativeImage
+public class UserDeletionJobTest extends BaseServiceTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserDeletionJobService userDeletionJobService;
+
+    @Autowired
+    private UserDeletionJobRepository userDeletionJobRepository;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @MockitoSpyBean // Integration line: File
+    private FileUtility fileUtility; // Integration line: File
+
+    @Value("${ACCESS_SECRET_KEY}")
+    private String accessSecretKey;
+
+    /**
+     * Replace the requester's access token with one that has already expired, as it would have by the time a
+     * delayed job runs
+     */
+    private void expireRequesterToken() {
+        String expiredToken = Jwts.builder()
+                .setId(testUser.getId().toString())
+                .setSubject(testUser.getUsername())
+                .setIssuedAt(new Date(System.currentTimeMillis() - 20 * 60 * 1000))
+                .setExpiration(new Date(System.currentTimeMillis() - 10 * 60 * 1000))
+                .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(accessSecretKey)), SignatureAlgorithm.HS256)
+                .compact();
+
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer " + expiredToken);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    @Test
+    void deleteUserJobAfterRequesterTokenExpiredTest() {
+        UserRequest userRequest = new UserRequest();
+        userRequest.setUsername(testUser.getUsername());
+        userRequest.setPassword("password");
+
+        UUID jobId = ((UserDeletionJobResponse) userService.deleteUserAsync(userRequest).getBody()).getJobId();
+        expireRequesterToken();
+
+        userDeletionJobService.processDueJobs();
+
+        Assertions.assertEquals(UserDeletionJobStatus.COMPLETED, userDeletionJobRepository.findById(jobId).get().getStatus());
+        Assertions.assertFalse(userRepository.findByUsername(testUser.getUsername()).isPresent());
+
+        // Integration function start: File
+        //The downstream call carries a fresh service account token instead of the requester's
+        ArgumentCaptor<String> authToken = ArgumentCaptor.forClass(String.class);
+        Mockito.verify(fileUtility).deleteUserFromAllCollections(Mockito.eq("testUser"), authToken.capture());
+        Assertions.assertEquals("auth", jwtService.extractUsername(authToken.getValue(), false));
+        // Integration function end: File
+
+        userDeletionJobRepository.deleteAll();
+    }
+}
@@ -0,0 +1,76 @@
+package com.strangequark.authservice.servicetests;
+
+import com.strangequark.authservice.AuthServiceApplication;
+import com.strangequark.authservice.error.ErrorResponse;
+import com.strangequark.authservice.user.UserDownstreamCleanup;
+import com.strangequark.authservice.user.UserRequest;
+import com.strangequark.authservice.user.UserService;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Downstream services stood in for by ones slower than both the deletion deadline and the clients' read timeouts
+ */
+@ActiveProfiles("standin")
+@TestPropertySource(properties = {
+        "user.delete.downstream-timeout-ms=300",
+        "user.delete.downstream-timeout-policy=ABORT",
+        "outbound.file.read-timeout-ms=600",
+        "outbound.vault.read-timeout-ms=600",
+        "standin.file.latency.median-ms=1000",
+        "standin.file.latency.p99-ms=1000",
+        "standin.file.error-rate=0",
+        "standin.file.timeout-rate=0",
+        "standin.vault.latency.median-ms=1000",
+        "standin.vault.latency.p99-ms=1000",
+        "standin.vault.error-rate=0",
+        "standin.vault.timeout-rate=0"
+})
+public class UserDeletionTimeoutTest extends BaseServiceTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserDownstreamCleanup userDownstreamCleanup;
+
+    @Test
+    void slowDownstreamServicesTimeOutTest() throws InterruptedException {
+        Map<String, UserDownstreamCleanup.Result> results =
+                userDownstreamCleanup.deleteFromDownstreamServices(testUser.getUsername(), "token", Set.of());
+
+        Assertions.assertFalse(results.isEmpty());
+        results.values().forEach(result -> Assertions.assertEquals(UserDownstreamCleanup.Outcome.TIMED_OUT, result.outcome()));
+    }
+
+    @Test
+    void deleteUserAbortsOnSlowDownstreamServicesTest() {
+        UserRequest userRequest = new UserRequest();
+        userRequest.setUsername(testUser.getUsername());
+        userRequest.setPassword("password");
+
+        ResponseEntity<?> response = userService.deleteUser(userRequest);
+
+        Assertions.assertEquals(400, response.getStatusCode().value());
+        Assertions.assertTrue(((ErrorResponse) response.getBody()).getErrorMessage().startsWith("Timed out deleting user from"));
+        Assertions.assertTrue(userRepository.findByUsername(testUser.getUsername()).isPresent());
+    }
+
+    @Test
+    void deadlineNotShorterThanReadTimeoutRejectedTest() {
+        Exception exception = Assertions.assertThrows(Exception.class, () -> new SpringApplicationBuilder(AuthServiceApplication.class)
+                .profiles("test")
+                .run("--server.port=0", "--user.delete.downstream-timeout-ms=5000", "--outbound.file.read-timeout-ms=5000"));
+
+        Assertions.assertInstanceOf(IllegalStateException.class, NestedExceptionUtils.getMostSpecificCause(exception));
+    }
+}
@@ -1,12 +1,20 @@
 package com.strangequark.authservice.servicetests;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.strangequark.authservice.error.ErrorResponse; // Integration line: Email
 import com.strangequark.authservice.user.*;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.ByteArrayOutputStream;
 import java.util.*;
 
 public class UserServiceTest extends BaseServiceTest {
@@ -14,6 +22,18 @@ public class UserServiceTest extends BaseServiceTest {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private UserDeletionJobService userDeletionJobService;
+
+    @Autowired
+    private UserDeletionJobRepository userDeletionJobRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @Test
     void updatePasswordTest() {
         UserRequest userRequest = new UserRequest();
@@ -128,6 +148,48 @@ public class UserServiceTest extends BaseServiceTest {
         Assertions.assertEquals(200, response.getStatusCode().value());
         Assertions.assertEquals("User successfully deleted", ((UserResponse) response.getBody()).getMessage());
         Assertions.assertFalse(userRepository.findByUsername(testUser.getUsername()).isPresent());
+        //Downstream calls are recorded once, by the client observation, tagged with their dependency
+        Assertions.assertTrue(meterRegistry.get("http.client.requests").tag("client.name", "file").timer().count() > 0);
+        Assertions.assertTrue(meterRegistry.get("http.client.requests").tag("client.name", "vault").timer().count() > 0);
+    }
+
+    @Test
+    void deleteUserAsyncTest() {
+        UserRequest userRequest = new UserRequest();
+        userRequest.setUsername(testUser.getUsername());
+        userRequest.setPassword("password");
+
+        ResponseEntity<?> response =  userService.deleteUserAsync(userRequest);
+
+        Assertions.assertEquals(202, response.getStatusCode().value());
+        UUID jobId = ((UserDeletionJobResponse) response.getBody()).getJobId();
+        Assertions.assertEquals(UserDeletionJobStatus.PENDING, ((UserDeletionJobResponse) response.getBody()).getStatus());
+        Assertions.assertTrue(userRepository.findByUsername(testUser.getUsername()).isPresent());
+
+        userDeletionJobService.processDueJobs();
+
+        UserDeletionJob job = userDeletionJobRepository.findById(jobId).get();
+        Assertions.assertEquals(UserDeletionJobStatus.COMPLETED, job.getStatus());
+        Assertions.assertFalse(userRepository.findByUsername(testUser.getUsername()).isPresent());
+
+        userDeletionJobRepository.deleteAll();
+    }
+
+    @Test
+    void getDeleteUserJobTest() {
+        UserRequest userRequest = new UserRequest();
+        userRequest.setUsername(testUser.getUsername());
+        userRequest.setPassword("password");
+
+        UUID jobId = ((UserDeletionJobResponse) userService.deleteUserAsync(userRequest).getBody()).getJobId();
+
+        ResponseEntity<?> response =  userService.getDeleteUserJob(jobId);
+
+        Assertions.assertEquals(200, response.getStatusCode().value());
+        Assertions.assertEquals(jobId, ((UserDeletionJobResponse) response.getBody()).getJobId());
+        Assertions.assertEquals(testUser.getId(), ((UserDeletionJobResponse) response.getBody()).getUserId());
+
+        userDeletionJobRepository.deleteAll();
     }
 
     @Test
@@ -214,4 +276,161 @@ public class UserServiceTest extends BaseServiceTest {
         Assertions.assertEquals(1, userResponseList.size());
         Assertions.assertEquals(testUser.getUsername(), userResponseList.getFirst().getUsername());
     }
+
+    @Test
+    void searchUsersAfterUpdateUsernameTest() {
+        //Load the user into the lookup cache
+        Assertions.assertEquals(200, userService.searchUsers(testUser.getUsername()).getStatusCode().value());
+
+        UserRequest userRequest = new UserRequest();
+        userRequest.setNewUsername("renamedUser");
+        userRequest.setPassword("password");
+        Assertions.assertEquals(200, userService.updateUsername(userRequest).getStatusCode().value());
+
+        ResponseEntity<?> response = userService.searchUsers("renamedUser");
+
+        Assertions.assertEquals(200, response.getStatusCode().value());
+        Assertions.assertEquals(testUser.getId(), ((UserResponse) response.getBody()).getUserId());
+        Assertions.assertEquals(400, userService.searchUsers(testUser.getUsername()).getStatusCode().value());
+    }
+
+    @Test
+    void getUserDetailsByIdsNotModifiedTest() {
+        List<UUID> ids = List.of(testUser.getId());
+
+        ResponseEntity<?> response = userService.getUserDetailsByIds(ids);
+        String eTag = response.getHeaders().getETag();
+
+        Assertions.assertEquals(200, response.getStatusCode().value());
+        Assertions.assertNotNull(eTag);
+
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("If-None-Match", eTag);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+        response = userService.getUserDetailsByIds(ids);
+
+        Assertions.assertEquals(304, response.getStatusCode().value());
+        Assertions.assertNull(response.getBody());
+    }
+
+    @Test
+    void resolveUserIdsTest() {
+        UserResolveRequest request = new UserResolveRequest(
+                List.of(testUser.getUsername(), "missingUser"), List.of(testUser.getEmail(), "missing@test.com"));
+
+        ResponseEntity<?> response = userService.resolveUserIds(request);
+        UserResolveResponse resolveResponse = (UserResolveResponse) response.getBody();
+
+        Assertions.assertEquals(200, response.getStatusCode().value());
+        Assertions.assertEquals(testUser.getId(), resolveResponse.getUsernames().get(testUser.getUsername()));
+        Assertions.assertEquals(testUser.getId(), resolveResponse.getEmails().get(testUser.getEmail()));
+        Assertions.assertTrue(resolveResponse.getUsernames().containsKey("missingUser"));
+        Assertions.assertNull(resolveResponse.getUsernames().get("missingUser"));
+        Assertions.assertTrue(resolveResponse.getEmails().containsKey("missing@test.com"));
+        Assertions.assertNull(resolveResponse.getEmails().get("missing@test.com"));
+    }
+
+    @Test
+    void getUserDetailsByIdsStreamedTest() throws Exception {
+        //More IDs than fit in one chunk
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 2500; i++)
+            ids.add(UUID.randomUUID());
+        ids.add(1500, testUser.getId());
+
+        ResponseEntity<?> response = userService.getUserDetailsByIds(ids);
+
+        Assertions.assertEquals(200, response.getStatusCode().value());
+        Assertions.assertInstanceOf(StreamingResponseBody.class, response.getBody());
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        ((StreamingResponseBody) response.getBody()).writeTo(outputStream);
+        JsonNode users = objectMapper.readTree(outputStream.toByteArray());
+
+        Assertions.assertEquals(1, users.size());
+        Assertions.assertEquals(testUser.getUsername(), users.get(0).get("username").asText());
+        Assertions.assertEquals(testUser.getEmail(), users.get(0).get("email").asText());
+    }
+
+    @Test
+    void listUsersTest() {
+        for (int i = 0; i < 5; i++)
+            userRepository.save(new User("listUser" + i, "list" + i + "@test.com", Role.USER, true,
+                    new HashSet<>(), testUser.getPassword()));
+
+        setupAdminUser();
+
+        //Follow the cursor through pages of 2
+        Set<UUID> listed = new HashSet<>();
+        UUID after = null;
+        do {
+            ResponseEntity<?> response = userService.listUsers(after, 2);
+            UserPageResponse page = (UserPageResponse) response.getBody();
+
+            Assertions.assertEquals(200, response.getStatusCode().value());
+            Assertions.assertTrue(page.getUsers().size() <= 2);
+            page.getUsers().forEach(user -> Assertions.assertTrue(listed.add(user.getUserId())));
+            after = page.getNextCursor();
+        } while (after != null);
+
+        Assertions.assertEquals(userRepository.count(), listed.size());
+    }
+
+    @Test
+    void listUsersNotAdminTest() {
+        ResponseEntity<?> response = userService.listUsers(null, 10);
+
+        Assertions.assertEquals(400, response.getStatusCode().value());
+    }
+
+    @Test
+    void exportUsersTest() throws Exception {
+        setupAdminUser();
+
+        ResponseEntity<?> response = userService.exportUsers();
+
+        Assertions.assertEquals(200, response.getStatusCode().value());
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        ((StreamingResponseBody) response.getBody()).writeTo(outputStream);
+        List<String> lines = outputStream.toString().lines().toList();
+
+        Assertions.assertEquals(userRepository.count(), lines.size());
+        for (String line : lines)
+            Assertions.assertNotNull(objectMapper.readTree(line).get("username").asText());
+        Assertions.assertTrue(lines.stream().anyMatch(line -> line.contains(testUser.getUsername())));
+    }
+
+    @Test
+    void snapshotUsersTest() throws Exception {
+        setupAdminUser();
+
+        ResponseEntity<?> response = userService.snapshotUsers();
+
+        Assertions.assertEquals(200, response.getStatusCode().value());
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        ((StreamingResponseBody) response.getBody()).writeTo(outputStream);
+        List<JsonNode> users = new ArrayList<>();
+        for (String line : outputStream.toString().lines().toList())
+            users.add(objectMapper.readTree(line));
+
+        Assertions.assertEquals(userRepository.count(), users.size());
+        JsonNode user = users.stream()
+                .filter(node -> node.get("userId").asText().equals(testUser.getId().toString()))
+                .findFirst().orElseThrow();
+        Assertions.assertEquals("SNAPSHOT", user.get("change").asText());
+        Assertions.assertEquals(testUser.getUsername(), user.get("username").asText());
+        Assertions.assertEquals(testUser.getEmail(), user.get("email").asText());
+        Assertions.assertEquals("USER", user.get("role").asText());
+        Assertions.assertEquals("testAuthorization1", user.get("authorizations").get(0).asText());
+    }
+
+    @Test
+    void snapshotUsersNotAdminTest() {
+        ResponseEntity<?> response = userService.snapshotUsers();
+
+        Assertions.assertEquals(400, response.getStatusCode().value());
+    }
 }
@@ -0,0 +1,30 @@
+package com.strangequark.authservice.utilitytests;
+
+import com.strangequark.authservice.config.NativeConfig;
+import com.strangequark.authservice.utility.StringEncryptDecryptConverter;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+public class NativeRuntimeHintsTest {
+
+    @Test
+    void registersReflectivelyLoadedClassesTest() {
+        RuntimeHints hints = new RuntimeHints();
+        new NativeConfig.AuthServiceRuntimeHints().registerHints(hints, getClass().getClassLoader());
+
+        Assertions.assertTrue(RuntimeHintsPredicates.reflection()
+                .onType(TypeReference.of("io.jsonwebtoken.impl.DefaultJwtBuilder"))
+                .withMemberCategory(MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS).test(hints));
+        Assertions.assertTrue(RuntimeHintsPredicates.reflection()
+                .onType(StringEncryptDecryptConverter.class)
+                .withMemberCategory(MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS).test(hints));
+        Assertions.assertTrue(RuntimeHintsPredicates.reflection()
+                .onType(TypeReference.of("org.apache.kafka.common.serialization.StringSerializer"))
+                .withMemberCategory(MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS).test(hints));
+        Assertions.assertTrue(RuntimeHintsPredicates.resource().forResource("logback-spring.xml").test(hints));
+    }
+}
@@ -0,0 +1,42 @@
+package com.strangequark.authservice.utilitytests;
+
+import com.strangequark.authservice.utility.SampledLogger;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledInNativeImage;
+import org.mockito.Mockito;
+import org.slf4j.Logger;
+
+import java.time.Duration;
+
+//Mockito cannot generate mocks inside a native image
+@DisabledInNativeImage
+public class SampledLoggerTest {
+
+    @Test
+    void suppressesOverBudgetAndReportsCountTest() throws InterruptedException {
+        Logger logger = Mockito.mock(Logger.class);
+        Mockito.when(logger.isInfoEnabled()).thenReturn(true);
+        SampledLogger sampledLogger = new SampledLogger(logger, 2, Duration.ofMillis(200));
+
+        for (int i = 0; i < 5; i++)
+            sampledLogger.info("Success");
+
+        Mockito.verify(logger, Mockito.times(2)).info("Success");
+
+        //The next interval reports what was suppressed in the previous one
+        Thread.sleep(250);
+        sampledLogger.info("Success");
+
+        Mockito.verify(logger).info("{} ({} similar messages suppressed)", "Success", 3L);
+    }
+
+    @Test
+    void skipsWhenInfoDisabledTest() {
+        Logger logger = Mockito.mock(Logger.class);
+        SampledLogger sampledLogger = new SampledLogger(logger, 2, Duration.ofSeconds(1));
+
+        sampledLogger.info("Success");
+
+        Mockito.verify(logger, Mockito.never()).info(Mockito.anyString());
+    }
+}
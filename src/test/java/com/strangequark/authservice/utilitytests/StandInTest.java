@@ -0,0 +1,53 @@
+package com.strangequark.authservice.utilitytests;
+
+import com.strangequark.authservice.standin.StandInBehavior;
+import com.strangequark.authservice.standin.StandInProducer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.KafkaException;
+import org.apache.kafka.common.errors.TimeoutException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class StandInTest {
+
+    @Test
+    void latencyFollowsConfiguredPercentilesTest() {
+        StandInBehavior behavior = new StandInBehavior(20, 200, 0, 0);
+
+        long[] samples = new long[100_000];
+        for (int i = 0; i < samples.length; i++)
+            samples[i] = behavior.sampleLatencyMs();
+        Arrays.sort(samples);
+
+        Assertions.assertEquals(20, samples[samples.length / 2], 2);
+        Assertions.assertEquals(200, samples[(int) (samples.length * 0.99)], 30);
+    }
+
+    @Test
+    void producerReportsInjectedErrorsTest() {
+        StandInProducer producer = new StandInProducer("test-kafka", new StandInBehavior(1, 1, 1, 0), 1000);
+        AtomicReference<Exception> exception = new AtomicReference<>();
+
+        producer.send(new ProducerRecord<>("topic", "value"), (metadata, ex) -> exception.set(ex));
+        producer.flush();
+
+        Assertions.assertInstanceOf(KafkaException.class, exception.get());
+        producer.close(Duration.ofSeconds(1));
+    }
+
+    @Test
+    void producerExpiresUnansweredRecordsTest() {
+        StandInProducer producer = new StandInProducer("test-kafka", new StandInBehavior(1, 1, 0, 1), 50);
+        AtomicReference<Exception> exception = new AtomicReference<>();
+
+        producer.send(new ProducerRecord<>("topic", "value"), (metadata, ex) -> exception.set(ex));
+        producer.flush();
+
+        Assertions.assertInstanceOf(TimeoutException.class, exception.get());
+        producer.close(Duration.ofSeconds(1));
+    }
+}
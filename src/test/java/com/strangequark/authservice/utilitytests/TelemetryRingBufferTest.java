@@ -0,0 +1,68 @@
+// Integration file: Telemetry
+
+package com.strangequark.authservice.utilitytests;
+
+import com.strangequark.authservice.utility.TelemetryRingBuffer;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+public class TelemetryRingBufferTest {
+
+    @Test
+    void capacityRoundsUpToPowerOfTwoTest() {
+        Assertions.assertEquals(8, new TelemetryRingBuffer<String>(5).capacity());
+        Assertions.assertEquals(8, new TelemetryRingBuffer<String>(8).capacity());
+    }
+
+    @Test
+    void offerRejectsWhenFullTest() {
+        TelemetryRingBuffer<Integer> buffer = new TelemetryRingBuffer<>(4);
+
+        for (int i = 0; i < 4; i++)
+            Assertions.assertTrue(buffer.offer(i));
+
+        Assertions.assertFalse(buffer.offer(4));
+        Assertions.assertEquals(0, buffer.poll());
+        Assertions.assertTrue(buffer.offer(4));
+    }
+
+    @Test
+    void drainPreservesOrderTest() {
+        TelemetryRingBuffer<Integer> buffer = new TelemetryRingBuffer<>(16);
+        for (int i = 0; i < 10; i++)
+            buffer.offer(i);
+
+        List<Integer> drained = new ArrayList<>();
+        Assertions.assertEquals(6, buffer.drainTo(drained, 6));
+        Assertions.assertEquals(List.of(0, 1, 2, 3, 4, 5), drained);
+        Assertions.assertEquals(4, buffer.size());
+    }
+
+    @Test
+    void concurrentProducersTest() throws InterruptedException {
+        TelemetryRingBuffer<Integer> buffer = new TelemetryRingBuffer<>(1 << 16);
+        List<Thread> producers = new ArrayList<>();
+
+        for (int p = 0; p < 4; p++) {
+            int offset = p * 10_000;
+            producers.add(Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < 10_000; i++)
+                    buffer.offer(offset + i);
+            }));
+        }
+        for (Thread producer : producers)
+            producer.join();
+
+        Set<Integer> seen = new HashSet<>();
+        Integer value;
+        while ((value = buffer.poll()) != null)
+            seen.add(value);
+
+        Assertions.assertEquals(40_000, seen.size());
+    }
+}
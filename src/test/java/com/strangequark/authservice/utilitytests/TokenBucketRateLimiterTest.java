@@ -0,0 +1,72 @@
+package com.strangequark.authservice.utilitytests;
+
+import com.strangequark.authservice.utility.TokenBucketRateLimiter;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class TokenBucketRateLimiterTest {
+
+    @Test
+    void allowsBurstThenRejectsTest() {
+        AtomicLong clock = new AtomicLong();
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(5, Duration.ofSeconds(10), 100, clock::get);
+
+        for (int i = 0; i < 5; i++)
+            Assertions.assertEquals(0, limiter.tryAcquire("client"));
+
+        long waitNanos = limiter.tryAcquire("client");
+        Assertions.assertTrue(waitNanos > 0 && waitNanos <= TimeUnit.SECONDS.toNanos(2));
+        Assertions.assertEquals(1, limiter.getRejectedCount());
+
+        //Other keys have their own budget
+        Assertions.assertEquals(0, limiter.tryAcquire("otherClient"));
+    }
+
+    @Test
+    void refillsOverTimeTest() {
+        AtomicLong clock = new AtomicLong();
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(5, Duration.ofSeconds(10), 100, clock::get);
+
+        for (int i = 0; i < 5; i++)
+            limiter.tryAcquire("client");
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(2));
+        Assertions.assertEquals(0, limiter.tryAcquire("client"));
+        Assertions.assertTrue(limiter.tryAcquire("client") > 0);
+    }
+
+    @Test
+    void idleBucketsExpireTest() {
+        AtomicLong clock = new AtomicLong();
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(5, Duration.ofSeconds(10), 100, clock::get);
+
+        for (int i = 0; i < 50; i++)
+            limiter.tryAcquire("client" + i);
+        Assertions.assertEquals(50, limiter.size());
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(11));
+        limiter.tryAcquire("client");
+
+        Assertions.assertEquals(1, limiter.size());
+    }
+
+    @Test
+    void fullLimiterKeepsPerKeyBucketsTest() {
+        AtomicLong clock = new AtomicLong();
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(2, Duration.ofSeconds(10), 3, clock::get);
+
+        for (int i = 0; i < 3; i++)
+            limiter.tryAcquire("client" + i);
+
+        //New keys past the cap still get a budget of their own rather than sharing one
+        for (int i = 0; i < 10; i++) {
+            Assertions.assertEquals(0, limiter.tryAcquire("rotated" + i));
+            Assertions.assertEquals(0, limiter.tryAcquire("rotated" + i));
+        }
+        Assertions.assertTrue(limiter.size() <= 3);
+    }
+}